@@ -0,0 +1,87 @@
+package teammate.bench;
+
+import teammate.tools.DatasetGenerator;
+import teammate.util.FileManager;
+import java.io.*;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+// Temp-directory fixtures built with DatasetGenerator so I/O benchmarks run offline and reproducibly
+public final class BenchmarkFixtures {
+    public static final String REGISTRY_FILE = "all_registered_participants.csv";
+    public static final String HISTORY_FILE = "formed_teams_cumulative.csv";
+    public static final String UPLOAD_FILE = "upload.csv";
+
+    private static final PrintStream ORIGINAL_OUT = System.out;
+
+    private BenchmarkFixtures() {
+    }
+
+    // Creates a fresh data directory and points FileManager at it
+    public static Path createDataDirectory(String prefix) throws IOException {
+        Path directory = Files.createTempDirectory(prefix);
+        FileManager.setDataDirectory(directory.toString());
+        return directory;
+    }
+
+    // Writes a registry of `participants` rows and a history covering them in teams of 5
+    public static void writeRegistryAndHistory(Path directory, long participants) throws IOException {
+        generate("--rows", "0", "--out", directory.resolve("empty_upload.csv").toString(),
+                "--history-size", String.valueOf(participants),
+                "--registry", directory.resolve(REGISTRY_FILE).toString(),
+                "--history", directory.resolve(HISTORY_FILE).toString());
+    }
+
+    // Writes an upload file plus the registry/history it partially overlaps with
+    public static void writeUpload(Path directory, long rows, double assignedRate) throws IOException {
+        generate("--rows", String.valueOf(rows), "--out", directory.resolve(UPLOAD_FILE).toString(),
+                "--assigned-rate", String.valueOf(assignedRate),
+                "--registry", directory.resolve(REGISTRY_FILE).toString(),
+                "--history", directory.resolve(HISTORY_FILE).toString());
+    }
+
+    // Sends the system log into the fixture directory; must run before SystemLogger is first used
+    public static void redirectLog(Path directory) {
+        System.setProperty("teammate.log.file", directory.resolve("teammate_system.log").toString());
+    }
+
+    // Keeps a pristine copy next to the file so per-iteration setup can restore it
+    public static void snapshot(Path file) throws IOException {
+        Files.copy(file, pristineCopyOf(file), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static void restore(Path file) throws IOException {
+        Files.copy(pristineCopyOf(file), file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // Console output from the portal code paths would dominate the measurement
+    public static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    public static void restoreConsole() {
+        System.setOut(ORIGINAL_OUT);
+    }
+
+    public static void deleteRecursively(Path directory) throws IOException {
+        if (directory == null || !Files.exists(directory)) return;
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static Path pristineCopyOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".pristine");
+    }
+
+    private static void generate(String... args) throws IOException {
+        String[] withQuietProgress = new String[args.length + 2];
+        System.arraycopy(args, 0, withQuietProgress, 0, args.length);
+        withQuietProgress[args.length] = "--progress";
+        withQuietProgress[args.length + 1] = "0";
+
+        new DatasetGenerator(DatasetGenerator.Options.parse(withQuietProgress)).generate();
+    }
+}
@@ -0,0 +1,63 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.service.ParticipantManager;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end organizer CSV upload through ParticipantManager.processExternalCSV
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Dteammate.log.level=OFF"})
+@State(Scope.Benchmark)
+public class CsvIngestBenchmark {
+    // Answers to the two prompts: do not view details, do not include assigned participants
+    private static final String PROMPT_ANSWERS = "N\nN\n";
+
+    @Param({"1000", "10000", "100000"})
+    public int uploadRows;
+
+    // Share of rows that name previously assigned participants (drives the history lookups)
+    @Param({"0.0", "0.05"})
+    public double assignedRate;
+
+    private Path directory;
+    private Path registryFile;
+    private String uploadFile;
+    private ParticipantManager manager;
+    private Scanner answers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createDataDirectory("teammate-ingest");
+        BenchmarkFixtures.writeUpload(directory, uploadRows, assignedRate);
+        registryFile = directory.resolve(BenchmarkFixtures.REGISTRY_FILE);
+        uploadFile = directory.resolve(BenchmarkFixtures.UPLOAD_FILE).toString();
+        BenchmarkFixtures.snapshot(registryFile);
+        BenchmarkFixtures.silenceConsole();
+    }
+
+    // Every upload starts from the same registry, since processExternalCSV saves new participants
+    @Setup(Level.Invocation)
+    public void freshManager() throws Exception {
+        BenchmarkFixtures.restore(registryFile);
+        manager = new ParticipantManager();
+        answers = new Scanner(new StringReader(PROMPT_ANSWERS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.restoreConsole();
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Map<String, Object> processExternalCSV() throws Exception {
+        return manager.processExternalCSV(uploadFile, answers);
+    }
+}
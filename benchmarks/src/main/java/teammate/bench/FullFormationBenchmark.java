@@ -0,0 +1,58 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.concurrent.TeamFormationEngine;
+import teammate.entity.Participant;
+import teammate.service.TeamBuilder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end formation runs; pass -p poolSize=1000000 to include the largest pools
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Dteammate.log.level=OFF"})
+@State(Scope.Benchmark)
+public class FullFormationBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int poolSize;
+
+    @Param({"3", "5", "8"})
+    public int teamSize;
+
+    @Param({"TYPICAL", "LEADER_SCARCE", "THINKER_HEAVY"})
+    public SyntheticParticipants.PersonalityMix mix;
+
+    private List<Participant> pool;
+    private TeamBuilder teamBuilder;
+
+    @Setup(Level.Trial)
+    public void generatePool() {
+        pool = SyntheticParticipants.generate(poolSize, mix);
+    }
+
+    @Setup(Level.Invocation)
+    public void freshBuilder() {
+        teamBuilder = new TeamBuilder();
+    }
+
+    @Benchmark
+    public int teamBuilderBuildTeams() {
+        teamBuilder.buildTeams(pool, teamSize);
+        return teamBuilder.getTeamCount();
+    }
+
+    @Benchmark
+    public int engineSequential() throws Exception {
+        return new TeamFormationEngine(teamBuilder)
+                .buildTeams(pool, teamSize, TeamFormationEngine.Mode.SEQUENTIAL);
+    }
+
+    @Benchmark
+    public int engineParallel() throws Exception {
+        return new TeamFormationEngine(teamBuilder)
+                .buildTeams(pool, teamSize, TeamFormationEngine.Mode.PARALLEL);
+    }
+}
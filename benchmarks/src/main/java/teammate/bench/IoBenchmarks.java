@@ -0,0 +1,30 @@
+package teammate.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the persistence and ingest suite with the GC profiler so allocation rate is reported alongside throughput
+public class IoBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+
+        // Default to the whole I/O suite unless a benchmark pattern was given
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(ParticipantPersistenceBenchmark.class.getSimpleName())
+                    .include(TeamHistoryBenchmark.class.getSimpleName())
+                    .include(CsvIngestBenchmark.class.getSimpleName());
+        }
+
+        Options options = builder.addProfiler(GCProfiler.class).build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,144 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.entity.Participant;
+import teammate.service.ParticipantManager;
+import teammate.util.SystemLogger;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Concurrent portal sessions hitting ParticipantManager at different read/write ratios.
+// Thread counts per operation can be rescaled from the command line, e.g. -tg 14,1,1
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class ParticipantManagerContentionBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int poolSize;
+
+    private Path directory;
+    private ParticipantManager manager;
+    private String[] existingIds;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createDataDirectory("teammate-contention");
+        BenchmarkFixtures.redirectLog(directory);
+        BenchmarkFixtures.silenceConsole();
+
+        List<Participant> pool = SyntheticParticipants.generate(poolSize,
+                SyntheticParticipants.PersonalityMix.TYPICAL);
+        existingIds = new String[pool.size()];
+        for (int i = 0; i < pool.size(); i++) {
+            existingIds[i] = pool.get(i).getId();
+        }
+    }
+
+    // Rebuilds the manager so writes from earlier iterations do not keep growing the list
+    @Setup(Level.Iteration)
+    public void freshManager() throws Exception {
+        manager = new ParticipantManager();
+        for (Participant p : SyntheticParticipants.generate(poolSize,
+                SyntheticParticipants.PersonalityMix.TYPICAL)) {
+            manager.addParticipant(p);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        SystemLogger.flush();
+        BenchmarkFixtures.restoreConsole();
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        final SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+    }
+
+    private Participant lookup(Session session) {
+        return manager.findParticipant(existingIds[session.random.nextInt(existingIds.length)]);
+    }
+
+    private Participant register() throws Exception {
+        long n = nextId.incrementAndGet();
+        Participant participant = new Participant("PW" + n, "Writer " + n, "writer" + n + "@bench.test",
+                "Valorant", 5, "Attacker", 80, "Balanced");
+        manager.addParticipant(participant);
+        return participant;
+    }
+
+    // --- lookups only ---
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(4)
+    public Participant readOnly_find(Session session) {
+        return lookup(session);
+    }
+
+    // --- mostly reads, occasional availability scan and registration ---
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(6)
+    public Participant readMostly_find(Session session) {
+        return lookup(session);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public List<Participant> readMostly_available() {
+        return manager.findAvailableParticipants();
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Participant readMostly_add() throws Exception {
+        return register();
+    }
+
+    // --- registration burst ---
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(1)
+    public Participant writeHeavy_find(Session session) {
+        return lookup(session);
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(3)
+    public Participant writeHeavy_add() throws Exception {
+        return register();
+    }
+
+    // --- portal sessions that also log every action ---
+
+    @Benchmark
+    @Group("withLogging")
+    @GroupThreads(3)
+    public Participant withLogging_find(Session session) {
+        Participant p = lookup(session);
+        SystemLogger.info(SystemLogger.LogCategory.PORTAL, "Lookup " + (p == null ? "miss" : p.getId()));
+        return p;
+    }
+
+    @Benchmark
+    @Group("withLogging")
+    @GroupThreads(1)
+    public Participant withLogging_add() throws Exception {
+        return register();
+    }
+}
@@ -0,0 +1,46 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.entity.Participant;
+import teammate.util.FileManager;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Full-file load and rewrite of the master participant CSV
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dteammate.log.level=OFF"})
+@State(Scope.Benchmark)
+public class ParticipantPersistenceBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int participants;
+
+    private Path directory;
+    private List<Participant> loaded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createDataDirectory("teammate-persist");
+        BenchmarkFixtures.writeRegistryAndHistory(directory, participants);
+        loaded = FileManager.loadAllParticipants();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Participant> loadAllParticipants() throws Exception {
+        return FileManager.loadAllParticipants();
+    }
+
+    @Benchmark
+    public void saveAllParticipants() throws Exception {
+        FileManager.saveAllParticipants(loaded);
+    }
+}
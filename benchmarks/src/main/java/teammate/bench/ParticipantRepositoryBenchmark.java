@@ -0,0 +1,59 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.entity.Participant;
+import teammate.repository.ParticipantRepository;
+import teammate.repository.Repositories;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of persisting one participant's status change with each storage backend: the CSV registry is
+// rewritten whole, the log store appends one record
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dteammate.log.level=OFF"})
+@State(Scope.Benchmark)
+public class ParticipantRepositoryBenchmark {
+
+    @Param({"csv", "log"})
+    public String storage;
+
+    @Param({"10000", "100000"})
+    public int participants;
+
+    private Path directory;
+    private ParticipantRepository repository;
+    private List<Participant> loaded;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createDataDirectory("teammate-repository");
+        BenchmarkFixtures.writeRegistryAndHistory(directory, participants);
+        Repositories.setStorage(storage);
+        repository = Repositories.participants();
+        loaded = repository.loadAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Repositories.close();
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void saveStatusChange() throws Exception {
+        Participant p = loaded.get(next++ % loaded.size());
+        p.setStatus(p.getStatus().equals("Assigned") ? "Available" : "Assigned");
+        repository.saveChanged(Collections.singletonList(p), loaded);
+    }
+
+    @Benchmark
+    public List<Participant> loadAll() throws Exception {
+        return repository.loadAll();
+    }
+}
@@ -0,0 +1,84 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.concurrent.SurveyIngestionQueue;
+import teammate.entity.Participant;
+import teammate.service.ParticipantManager;
+import teammate.util.SystemLogger;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bursty survey submissions: one save per submission (console path) against the batching ingestion queue.
+// Every operation waits for its own result, so batches only form when submitters overlap
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class SurveyIngestionBenchmark {
+
+    @Param({"1000", "20000"})
+    public int registeredParticipants;
+
+    @Param({"1", "16", "256"})
+    public int maxBatch;
+
+    private Path directory;
+    private ParticipantManager manager;
+    private SurveyIngestionQueue queue;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createDataDirectory("teammate-ingest");
+        BenchmarkFixtures.redirectLog(directory);
+        BenchmarkFixtures.silenceConsole();
+    }
+
+    // Fresh registry each iteration so the file being rewritten does not keep growing
+    @Setup(Level.Iteration)
+    public void freshManager() throws Exception {
+        manager = new ParticipantManager();
+        List<Participant> existing = SyntheticParticipants.generate(registeredParticipants,
+                SyntheticParticipants.PersonalityMix.TYPICAL);
+        manager.registerParticipants(existing);
+        manager.saveAllParticipants();
+        queue = new SurveyIngestionQueue(manager, 65_536, maxBatch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopQueue() {
+        queue.shutdown(10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        SystemLogger.flush();
+        BenchmarkFixtures.restoreConsole();
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    private Participant nextSurvey() {
+        long n = nextId.incrementAndGet();
+        return new Participant("PS" + n, "Survey " + n, "survey" + n + "@bench.test",
+                "Valorant", 5, "Attacker", 80, "Balanced");
+    }
+
+    // Same steps as the console portal: duplicate check, add, full save
+    @Benchmark
+    public String perSubmissionSave() {
+        Participant participant = nextSurvey();
+        String status = manager.registerParticipants(List.of(participant)).get(0);
+        manager.saveAllParticipants();
+        return status;
+    }
+
+    @Benchmark
+    public SurveyIngestionQueue.Status queued() {
+        return queue.submit(nextSurvey()).join().getStatus();
+    }
+}
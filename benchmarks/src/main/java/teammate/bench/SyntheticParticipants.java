@@ -0,0 +1,69 @@
+package teammate.bench;
+
+import teammate.entity.Participant;
+import teammate.util.PersonalityClassifier;
+import java.util.*;
+
+// Builds deterministic synthetic participant pools so benchmark runs are reproducible
+public final class SyntheticParticipants {
+    public static final String[] GAMES = {"Valorant", "DOTA 2", "FIFA", "CS:GO", "Chess", "Basketball"};
+    public static final String[] ROLES = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
+    public static final long DEFAULT_SEED = 42L;
+
+    // Share of Leaders and Thinkers in the pool; the remainder are Balanced
+    public enum PersonalityMix {
+        TYPICAL(0.15, 0.35),
+        LEADER_SCARCE(0.03, 0.35),
+        THINKER_HEAVY(0.15, 0.70);
+
+        final double leaderShare;
+        final double thinkerShare;
+
+        PersonalityMix(double leaderShare, double thinkerShare) {
+            this.leaderShare = leaderShare;
+            this.thinkerShare = thinkerShare;
+        }
+    }
+
+    private SyntheticParticipants() {
+    }
+
+    public static List<Participant> generate(int count, PersonalityMix mix) {
+        return generate(count, mix, DEFAULT_SEED);
+    }
+
+    // Generates a pool with uniform games, roles and skill, and the requested personality mix
+    public static List<Participant> generate(int count, PersonalityMix mix, long seed) {
+        Random random = new Random(seed);
+        List<Participant> participants = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            double roll = random.nextDouble();
+            int score;
+            if (roll < mix.leaderShare) {
+                score = 90 + random.nextInt(11);
+            } else if (roll < mix.leaderShare + mix.thinkerShare) {
+                score = 50 + random.nextInt(20);
+            } else {
+                score = 70 + random.nextInt(20);
+            }
+
+            String id = "P" + (i + 1);
+            participants.add(new Participant(id, "Player " + (i + 1), "player" + (i + 1) + "@bench.test",
+                    GAMES[random.nextInt(GAMES.length)], 1 + random.nextInt(10),
+                    ROLES[random.nextInt(ROLES.length)], score,
+                    PersonalityClassifier.classifyPersonality(score)));
+        }
+
+        return participants;
+    }
+
+    // Average skill across the pool, used as the formation target
+    public static double averageSkill(List<Participant> participants) {
+        long total = 0;
+        for (Participant p : participants) {
+            total += p.getSkillLevel();
+        }
+        return participants.isEmpty() ? 0 : (double) total / participants.size();
+    }
+}
@@ -0,0 +1,70 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.util.SystemLogger;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Many threads logging at once, comparing the async ring-buffer backend with the synchronized file path
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Group)
+public class SystemLoggerContentionBenchmark {
+
+    // async backend with a given overflow policy, or the legacy synchronized writer
+    @Param({"async-BLOCK", "async-DROP", "sync"})
+    public String backend;
+
+    private Path directory;
+
+    // Properties are read when SystemLogger initialises, so they are set before its first use
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createDataDirectory("teammate-logging");
+        BenchmarkFixtures.redirectLog(directory);
+        boolean async = backend.startsWith("async-");
+        System.setProperty("teammate.log.async", String.valueOf(async));
+        if (async) {
+            System.setProperty("teammate.log.overflow", backend.substring("async-".length()));
+        }
+        System.setProperty("teammate.log.level.formation", "WARNING");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        SystemLogger.shutdown();
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Group("enabled")
+    @GroupThreads(4)
+    public void enabled_info() {
+        SystemLogger.info(SystemLogger.LogCategory.PORTAL, "Participant lookup completed");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void mixed_info() {
+        SystemLogger.info(SystemLogger.LogCategory.FILE, "FILE: READ - all_registered_participants.csv - SUCCESS");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void mixed_error() {
+        SystemLogger.error(SystemLogger.LogCategory.FILE, "FILE: WRITE - formed_teams_cumulative.csv - FAILED");
+    }
+
+    // Statements below the category threshold should cost close to nothing
+    @Benchmark
+    @Group("disabled")
+    @GroupThreads(4)
+    public void disabled_lazyInfo() {
+        SystemLogger.info(SystemLogger.LogCategory.FORMATION, () -> "Global target skill: " + String.format("%.2f", 5.5));
+    }
+}
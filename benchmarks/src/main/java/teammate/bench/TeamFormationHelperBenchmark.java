@@ -0,0 +1,41 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.util.TeamFormationHelper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of a single buildSingleTeam attempt as the candidate pool grows
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dteammate.log.level=OFF"})
+@State(Scope.Benchmark)
+public class TeamFormationHelperBenchmark {
+
+    @Param({"100", "1000", "10000", "100000", "1000000"})
+    public int poolSize;
+
+    @Param({"3", "5", "8"})
+    public int teamSize;
+
+    @Param({"TYPICAL", "LEADER_SCARCE", "THINKER_HEAVY"})
+    public SyntheticParticipants.PersonalityMix mix;
+
+    private List<Participant> pool;
+    private double targetSkill;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pool = SyntheticParticipants.generate(poolSize, mix);
+        targetSkill = SyntheticParticipants.averageSkill(pool);
+    }
+
+    @Benchmark
+    public Team buildSingleTeam() {
+        return TeamFormationHelper.buildSingleTeam(pool, teamSize, targetSkill, 0.10);
+    }
+}
@@ -0,0 +1,86 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.util.FileManager;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Scans and appends against formed_teams_cumulative.csv at different history sizes
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dteammate.log.level=OFF"})
+@State(Scope.Benchmark)
+public class TeamHistoryBenchmark {
+    private static final int TEAM_SIZE = 5;
+    private static final int TEAMS_PER_APPEND = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int historyTeams;
+
+    private Path directory;
+    private Path historyFile;
+    private String earlyMemberId;
+    private String lateMemberId;
+    private List<Team> appendBatch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createDataDirectory("teammate-history");
+        BenchmarkFixtures.writeRegistryAndHistory(directory, (long) historyTeams * TEAM_SIZE);
+        historyFile = directory.resolve(BenchmarkFixtures.HISTORY_FILE);
+        BenchmarkFixtures.snapshot(historyFile);
+
+        // Historical participants are numbered P1..P<n> when the upload is empty
+        earlyMemberId = "P1";
+        lateMemberId = "P" + ((long) historyTeams * TEAM_SIZE);
+
+        List<Participant> pool = SyntheticParticipants.generate(TEAMS_PER_APPEND * TEAM_SIZE,
+                SyntheticParticipants.PersonalityMix.TYPICAL);
+        appendBatch = new ArrayList<>(TEAMS_PER_APPEND);
+        for (int t = 0; t < TEAMS_PER_APPEND; t++) {
+            Team team = new Team(TEAM_SIZE);
+            team.setTeamId(String.format("TEAM%04d", historyTeams + t + 1));
+            for (int m = 0; m < TEAM_SIZE; m++) {
+                team.addMember(pool.get(t * TEAM_SIZE + m));
+            }
+            appendBatch.add(team);
+        }
+    }
+
+    // Keeps the history at its nominal size so appends do not skew later scans
+    @Setup(Level.Iteration)
+    public void restoreHistory() throws Exception {
+        BenchmarkFixtures.restore(historyFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String findLatestAssignmentEarlyMember() {
+        return FileManager.findLatestAssignment(earlyMemberId);
+    }
+
+    @Benchmark
+    public String findLatestAssignmentLateMember() {
+        return FileManager.findLatestAssignment(lateMemberId);
+    }
+
+    @Benchmark
+    public String findLatestAssignmentMissing() {
+        return FileManager.findLatestAssignment("P0");
+    }
+
+    @Benchmark
+    public void appendTeamsToCumulative() throws Exception {
+        FileManager.appendTeamsToCumulative(appendBatch);
+    }
+}
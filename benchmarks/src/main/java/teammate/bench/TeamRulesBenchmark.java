@@ -0,0 +1,60 @@
+package teammate.bench;
+
+import org.openjdk.jmh.annotations.*;
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.util.TeamFormationHelper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the per-candidate and per-team rule checks on pre-built member groups
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dteammate.log.level=OFF"})
+@State(Scope.Benchmark)
+public class TeamRulesBenchmark {
+    private static final int GROUPS = 1024;
+
+    @Param({"3", "5", "8"})
+    public int teamSize;
+
+    @Param({"TYPICAL", "LEADER_SCARCE", "THINKER_HEAVY"})
+    public SyntheticParticipants.PersonalityMix mix;
+
+    private List<List<Participant>> groups;
+    private List<Team> teams;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Participant> pool = SyntheticParticipants.generate(GROUPS * teamSize, mix);
+        groups = new ArrayList<>(GROUPS);
+        teams = new ArrayList<>(GROUPS);
+
+        for (int g = 0; g < GROUPS; g++) {
+            List<Participant> members = new ArrayList<>(pool.subList(g * teamSize, (g + 1) * teamSize));
+            groups.add(members);
+
+            Team team = new Team(teamSize);
+            for (Participant p : members) {
+                team.addMember(p);
+            }
+            teams.add(team);
+        }
+    }
+
+    @Benchmark
+    public boolean meetsBasicConstraints() {
+        cursor = (cursor + 1) & (GROUPS - 1);
+        return TeamFormationHelper.meetsBasicConstraints(groups.get(cursor));
+    }
+
+    @Benchmark
+    public boolean isTeamValid() {
+        cursor = (cursor + 1) & (GROUPS - 1);
+        return TeamFormationHelper.isTeamValid(teams.get(cursor));
+    }
+}
@@ -1,14 +1,46 @@
 package teammate;
 
+import teammate.service.BatchJobRunner;
+import teammate.service.HttpApiServer;
 import teammate.service.ParticipantPortalService;
 import teammate.service.OrganizerPortalService;
 import teammate.service.ParticipantManager;
+import teammate.entity.Team;
 import teammate.service.TeamBuilder;
+import teammate.service.TournamentSession;
+import teammate.service.TournamentSessionManager;
+import teammate.metrics.MetricsRegistry;
+import teammate.repository.Repositories;
+import teammate.util.SystemLogger;
+import java.util.Arrays;
 import java.util.Scanner;
 
 // Main entry point for the TeamMate system
 public class Main {
     public static void main(String[] args) {
+        MetricsRegistry.startReporting();
+
+        // --serve starts the HTTP API; the server threads keep the JVM alive until it is stopped
+        if (args.length > 0 && args[0].equals("--serve")) {
+            int exitCode = HttpApiServer.run(Arrays.copyOfRange(args, 1, args.length));
+            if (exitCode != 0) {
+                MetricsRegistry.stopReporting();
+                SystemLogger.shutdown();
+                System.exit(exitCode);
+            }
+            return;
+        }
+
+        // Any other arguments select headless batch mode instead of the interactive menus
+        if (args.length > 0) {
+            int exitCode = BatchJobRunner.run(args);
+            Repositories.close();
+            Team.saveTeamCounterToFile();
+            MetricsRegistry.stopReporting();
+            SystemLogger.shutdown();
+            System.exit(exitCode);
+        }
+
         Scanner scanner = new Scanner(System.in);
 
         // Initialize shared components
@@ -18,8 +50,9 @@ public class Main {
         // Create portals with shared components
         ParticipantPortalService participantPortal =
                 new ParticipantPortalService(participantManager, sharedTeamBuilder);
-        OrganizerPortalService organizerPortal =
-                new OrganizerPortalService(participantManager, sharedTeamBuilder);
+        TournamentSessionManager sessions = new TournamentSessionManager();
+        TournamentSession consoleSession = sessions.open("console", sharedTeamBuilder);
+        OrganizerPortalService organizerPortal = new OrganizerPortalService(participantManager, consoleSession);
 
         // Link organizer portal to participant manager for display functionality
         participantManager.setOrganizerPortal(organizerPortal);
@@ -44,9 +77,15 @@ public class Main {
                         System.out.println(centerText("THANK YOU FOR USING TEAMMATE SYSTEM", 60));
                         System.out.println("=".repeat(60));
                         System.out.println("Saving data...");
+                        // Unexported teams are dropped; their IDs go back before the counter is trimmed
+                        sessions.close(consoleSession);
                         participantManager.saveAllParticipants();
+                        Repositories.close();
+                        Team.saveTeamCounterToFile();
                         System.out.println("Data saved successfully.");
                         System.out.println("=".repeat(60) + "\n");
+                        MetricsRegistry.stopReporting();
+                        SystemLogger.shutdown();
                         scanner.close();
                         System.exit(0);
                     default:
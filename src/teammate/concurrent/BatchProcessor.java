@@ -2,34 +2,63 @@ package teammate.concurrent;
 
 import teammate.entity.Participant;
 import teammate.entity.Team;
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
+import teammate.util.FormationFeasibility;
 import teammate.util.TeamFormationHelper;
 import java.util.*;
 import java.util.concurrent.Callable;
 
 // Processes a batch of participants in parallel for team formation
 public class BatchProcessor implements Callable<List<Team>> {
+    private static final LatencyHistogram batchLatency = MetricsRegistry.histogram("batch.latency");
+    private static final Counter batchTeams = MetricsRegistry.counter("batch.teams_formed");
+    private static final Counter batchLeftover = MetricsRegistry.counter("batch.participants_unassigned");
+    private static final Counter batchExhausted = MetricsRegistry.counter("batch.attempts_exhausted");
+    private static final Counter batchInfeasible = MetricsRegistry.counter("batch.infeasible");
+
     private List<Participant> participants;
     private int teamSize;
     private double globalTargetSkill;
+    private FormationBudget budget;
 
     public BatchProcessor(List<Participant> participants, int teamSize, double globalTargetSkill) {
+        this(participants, teamSize, globalTargetSkill, FormationBudget.unlimited());
+    }
+
+    // The budget is checked between attempts; when it expires the batch returns the teams formed so far.
+    // Teams are returned unnumbered; the engine numbers them as it publishes each batch
+    public BatchProcessor(List<Participant> participants, int teamSize, double globalTargetSkill,
+                          FormationBudget budget) {
         this.participants = participants;
         this.teamSize = teamSize;
         this.globalTargetSkill = globalTargetSkill;
+        this.budget = budget;
     }
 
     @Override
     public List<Team> call() {
+        long start = System.nanoTime();
         List<Team> teams = new ArrayList<>();
         List<Participant> available = new ArrayList<>(participants);
 
         Collections.shuffle(available);
 
+        // Stop at the batch's upper bound instead of spending the remaining attempts proving it
+        int maxTeams = FormationFeasibility.analyze(participants, teamSize).getMaxTeams();
+        if (maxTeams == 0) {
+            batchInfeasible.increment();
+            batchLeftover.add(participants.size());
+            batchLatency.recordSince(start);
+            return teams;
+        }
+
         int attempts = 0;
         double skillTolerance = 0.10;
 
         // Continue forming teams while enough participants remain
-        while (available.size() >= teamSize && attempts < 100) {
+        while (teams.size() < maxTeams && available.size() >= teamSize && attempts < 100 && !budget.expired()) {
             Team team = TeamFormationHelper.buildSingleTeam(available, teamSize,
                     globalTargetSkill, skillTolerance);
 
@@ -48,11 +77,17 @@ public class BatchProcessor implements Callable<List<Team>> {
                 // Gradually increase tolerance if having difficulty forming teams
                 if (attempts % 10 == 0 && skillTolerance < 0.15) {
                     skillTolerance += 0.02;
+                    TeamFormationHelper.recordToleranceEscalation();
                     Collections.shuffle(available);
                 }
             }
         }
 
+        if (attempts >= 100) batchExhausted.increment();
+        batchTeams.add(teams.size());
+        batchLeftover.add(available.size());
+        batchLatency.recordSince(start);
+
         return teams;
     }
 }
\ No newline at end of file
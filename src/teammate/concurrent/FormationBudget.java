@@ -0,0 +1,52 @@
+package teammate.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+// Time limit and cancellation flag shared by one formation run; every formation loop polls expired()
+// between teams and returns what it has formed so far
+public class FormationBudget {
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    private FormationBudget(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static FormationBudget of(long millis) {
+        return millis <= 0 ? unlimited() : new FormationBudget(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public static FormationBudget unlimited() {
+        return new FormationBudget(UNLIMITED);
+    }
+
+    // Budget from -Dteammate.formation.budgetMs (default 30 s; 0 disables the limit)
+    public static FormationBudget fromDefaults() {
+        return of(Long.getLong("teammate.formation.budgetMs", 30_000));
+    }
+
+    // Requests cooperative cancellation; loops stop at their next check and keep completed teams
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isTimedOut() {
+        return deadlineNanos != UNLIMITED && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    // True once the run should stop: cancelled, past its deadline or the worker thread interrupted
+    public boolean expired() {
+        return cancelled || isTimedOut() || Thread.currentThread().isInterrupted();
+    }
+
+    // Time left for a blocking wait; Long.MAX_VALUE when unlimited
+    public long remainingNanos() {
+        return deadlineNanos == UNLIMITED ? Long.MAX_VALUE : Math.max(0, deadlineNanos - System.nanoTime());
+    }
+}
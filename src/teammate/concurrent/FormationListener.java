@@ -0,0 +1,51 @@
+package teammate.concurrent;
+
+import teammate.entity.Team;
+import java.util.List;
+
+// Receives teams and progress from a running TeamFormationEngine. Calls may come from worker threads,
+// so implementations must be thread-safe; an exception thrown here is logged and does not stop formation
+public interface FormationListener {
+
+    // Teams that are final for this run, published as soon as their batch (or team, in sequential mode) is done
+    default void teamsPublished(List<Team> teams) {}
+
+    default void progress(Progress progress) {}
+
+    default void completed(TeamFormationEngine.Result result) {}
+
+    // Snapshot of a run after each publication
+    class Progress {
+        private final int participantsConsumed;
+        private final int participantsTotal;
+        private final int teamsFormed;
+        private final int maxTeams;
+        private final long elapsedMillis;
+        private final long estimatedRemainingMillis;
+
+        Progress(int participantsConsumed, int participantsTotal, int teamsFormed, int maxTeams,
+                 long elapsedMillis, long estimatedRemainingMillis) {
+            this.participantsConsumed = participantsConsumed;
+            this.participantsTotal = participantsTotal;
+            this.teamsFormed = teamsFormed;
+            this.maxTeams = maxTeams;
+            this.elapsedMillis = elapsedMillis;
+            this.estimatedRemainingMillis = estimatedRemainingMillis;
+        }
+
+        public int getParticipantsConsumed() { return participantsConsumed; }
+        public int getParticipantsTotal() { return participantsTotal; }
+        public int getTeamsFormed() { return teamsFormed; }
+        public int getMaxTeams() { return maxTeams; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        // Extrapolated from the rate so far; -1 until there is something to extrapolate from
+        public long getEstimatedRemainingMillis() { return estimatedRemainingMillis; }
+
+        public String describe() {
+            return teamsFormed + "/" + maxTeams + " teams, " + participantsConsumed + "/" + participantsTotal +
+                    " participants processed" + (estimatedRemainingMillis > 0
+                    ? ", about " + (estimatedRemainingMillis + 999) / 1000 + " s left" : "");
+        }
+    }
+}
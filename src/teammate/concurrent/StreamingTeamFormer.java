@@ -0,0 +1,274 @@
+package teammate.concurrent;
+
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
+import teammate.util.SystemLogger;
+import teammate.util.TeamFormationHelper;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Continuous formation for rolling events: arrivals wait in a pool indexed by personality and skill,
+// and a team is emitted as soon as the pool can satisfy the TeamFormationHelper rules.
+// Each arrival costs a bounded scan (types x skill levels x SCAN_LIMIT), independent of pool size
+public class StreamingTeamFormer {
+    private static final Counter arrivals = MetricsRegistry.counter("stream.arrivals");
+    private static final Counter teamsEmitted = MetricsRegistry.counter("stream.teams");
+    private static final Counter failedAttempts = MetricsRegistry.counter("stream.attempts_failed");
+    private static final LatencyHistogram offerLatency = MetricsRegistry.histogram("stream.offer");
+
+    private static final int LEADER = 0;
+    private static final int THINKER = 1;
+    private static final int BALANCED = 2;
+    private static final int MIN_SKILL = 1;
+    private static final int MAX_SKILL = 10;
+
+    // Oldest waiters examined per bucket before moving on to the next skill level
+    private static final int SCAN_LIMIT = 8;
+
+    private final int teamSize;
+    private final Consumer<Team> onTeamFormed;
+    private final double skillTolerance;
+    private final double maxSkillTolerance;
+
+    // One bucket per type and skill (see bucket), each in arrival order so older waiters are preferred
+    private final List<LinkedHashSet<Participant>> buckets;
+    private final int[] typeCounts = new int[3];
+    private final Set<String> waitingIds = new HashSet<>();
+    private int waiting;
+
+    // Running target: mean skill of every participant offered so far
+    private long skillSum;
+    private long skillCount;
+    private int teamsFormed;
+
+    public StreamingTeamFormer(int teamSize, Consumer<Team> onTeamFormed) {
+        if (teamSize < 3 || teamSize > 10) {
+            throw new IllegalArgumentException("Team size must be between 3 and 10");
+        }
+        this.teamSize = teamSize;
+        this.onTeamFormed = onTeamFormed;
+        this.skillTolerance = Double.parseDouble(System.getProperty("teammate.stream.skillTolerance", "0.10"));
+        this.maxSkillTolerance = Math.max(skillTolerance,
+                Double.parseDouble(System.getProperty("teammate.stream.maxSkillTolerance", "0.15")));
+
+        this.buckets = new ArrayList<>(3 * (MAX_SKILL + 1));
+        for (int i = 0; i < 3 * (MAX_SKILL + 1); i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    // Adds an Available participant to the waiting pool and emits any team it completes
+    public synchronized int offer(Participant participant) {
+        long start = System.nanoTime();
+        try {
+            if (!enqueue(participant)) return 0;
+            return formWhilePossible();
+        } finally {
+            offerLatency.recordSince(start);
+        }
+    }
+
+    // Adds a batch of arrivals (registrations or an upload), forming teams along the way
+    public synchronized int offerAll(Collection<Participant> participants) {
+        int formed = 0;
+        for (Participant participant : participants) {
+            formed += offer(participant);
+        }
+        return formed;
+    }
+
+    // Empties the pool, returning everyone still waiting in arrival order per bucket
+    public synchronized List<Participant> drainWaiting() {
+        List<Participant> remaining = new ArrayList<>(waiting);
+        for (int type = 0; type < 3; type++) {
+            for (int skill = MIN_SKILL; skill <= MAX_SKILL; skill++) {
+                remaining.addAll(bucket(type, skill));
+                bucket(type, skill).clear();
+            }
+        }
+        Arrays.fill(typeCounts, 0);
+        waitingIds.clear();
+        waiting = 0;
+        return remaining;
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiting;
+    }
+
+    public synchronized int getTeamsFormed() {
+        return teamsFormed;
+    }
+
+    public synchronized double getRunningTarget() {
+        return skillCount == 0 ? 0 : (double) skillSum / skillCount;
+    }
+
+    public int getTeamSize() {
+        return teamSize;
+    }
+
+    // Per-type waiting counts for status reporting
+    public synchronized Map<String, Integer> getWaitingByType() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("Leader", typeCounts[LEADER]);
+        counts.put("Thinker", typeCounts[THINKER]);
+        counts.put("Balanced", typeCounts[BALANCED]);
+        return counts;
+    }
+
+    private boolean enqueue(Participant participant) {
+        if (participant == null || !"Available".equals(participant.getStatus())) return false;
+
+        int type = typeIndex(participant.getPersonalityType());
+        int skill = participant.getSkillLevel();
+        if (type < 0 || skill < MIN_SKILL || skill > MAX_SKILL) return false;
+        if (!waitingIds.add(participant.getId().toLowerCase(Locale.ROOT))) return false;
+
+        bucket(type, skill).add(participant);
+        typeCounts[type]++;
+        waiting++;
+        skillSum += skill;
+        skillCount++;
+        arrivals.increment();
+        return true;
+    }
+
+    private int formWhilePossible() {
+        int formed = 0;
+        List<Participant> members;
+
+        while ((members = selectTeam()) != null) {
+            Team team = new Team(teamSize);
+            for (Participant member : members) {
+                team.addMember(member);
+            }
+
+            // Selection enforces the same rules; this only guards against drift between the two
+            if (!TeamFormationHelper.isTeamValid(team)) {
+                SystemLogger.error(SystemLogger.LogCategory.FORMATION, "Streaming selection produced an invalid team");
+                break;
+            }
+
+            for (Participant member : members) {
+                remove(member);
+            }
+            emit(team);
+            formed++;
+        }
+        return formed;
+    }
+
+    // Greedy pick: Leader, one Thinker, then fill, each slot aiming at the skill that keeps the team on target
+    private List<Participant> selectTeam() {
+        if (waiting < teamSize || typeCounts[LEADER] == 0 || typeCounts[THINKER] == 0) return null;
+
+        double target = getRunningTarget();
+        Selection selection = new Selection();
+
+        boolean complete = pick(selection, target, LEADER)
+                && pick(selection, target, THINKER);
+        while (complete && selection.members.size() < teamSize) {
+            complete = selection.thinkers < 2
+                    ? pick(selection, target, BALANCED, THINKER)
+                    : pick(selection, target, BALANCED);
+        }
+
+        if (!complete) {
+            failedAttempts.increment();
+            return null;
+        }
+
+        // Widen tolerance once enough people are waiting that holding out costs more than balance
+        double tolerance = waiting >= 3 * teamSize ? maxSkillTolerance : skillTolerance;
+        double average = (double) selection.skillSum / teamSize;
+        if (average < target * (1 - tolerance) || average > target * (1 + tolerance)) {
+            failedAttempts.increment();
+            return null;
+        }
+        return selection.members;
+    }
+
+    private boolean pick(Selection selection, double target, int... types) {
+        int slotsAfter = teamSize - selection.members.size() - 1;
+        int ideal = (int) Math.round(target * (selection.members.size() + 1) - selection.skillSum);
+        ideal = Math.max(MIN_SKILL, Math.min(MAX_SKILL, ideal));
+
+        for (int distance = 0; distance <= MAX_SKILL - MIN_SKILL; distance++) {
+            for (int skill : distance == 0 ? new int[]{ideal} : new int[]{ideal - distance, ideal + distance}) {
+                if (skill < MIN_SKILL || skill > MAX_SKILL) continue;
+
+                for (int type : types) {
+                    int scanned = 0;
+                    for (Participant candidate : bucket(type, skill)) {
+                        if (scanned++ >= SCAN_LIMIT) break;
+                        if (selection.accepts(candidate, slotsAfter)) {
+                            selection.add(candidate, type);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void remove(Participant participant) {
+        int type = typeIndex(participant.getPersonalityType());
+        bucket(type, participant.getSkillLevel()).remove(participant);
+        typeCounts[type]--;
+        waiting--;
+        waitingIds.remove(participant.getId().toLowerCase(Locale.ROOT));
+    }
+
+    private void emit(Team team) {
+        team.setTargetSkillLevel(getRunningTarget());
+        team.setTeamId(Team.reserveTeamIds(1).nextTeamId());
+        teamsFormed++;
+        teamsEmitted.increment();
+        SystemLogger.info(SystemLogger.LogCategory.FORMATION,
+                () -> "Streaming formation emitted " + team.getTeamId() + " (" + waiting + " still waiting)");
+
+        onTeamFormed.accept(team);
+    }
+
+    private LinkedHashSet<Participant> bucket(int type, int skill) {
+        return buckets.get(type * (MAX_SKILL + 1) + skill);
+    }
+
+    private static int typeIndex(String personalityType) {
+        if ("Leader".equals(personalityType)) return LEADER;
+        if ("Thinker".equals(personalityType)) return THINKER;
+        if ("Balanced".equals(personalityType)) return BALANCED;
+        return -1;
+    }
+
+    // Members chosen so far with the counts needed to check game and role rules incrementally
+    private static final class Selection {
+        final List<Participant> members = new ArrayList<>();
+        final Map<String, Integer> gameCounts = new HashMap<>();
+        final Set<String> roles = new HashSet<>();
+        int skillSum;
+        int thinkers;
+
+        // Max 2 per game, and enough slots left to still reach 3 distinct roles
+        boolean accepts(Participant candidate, int slotsAfter) {
+            if (members.contains(candidate)) return false;
+            if (gameCounts.getOrDefault(candidate.getPreferredGame(), 0) >= 2) return false;
+
+            int rolesAfter = roles.size() + (roles.contains(candidate.getPreferredRole()) ? 0 : 1);
+            return rolesAfter + slotsAfter >= 3;
+        }
+
+        void add(Participant candidate, int type) {
+            members.add(candidate);
+            gameCounts.merge(candidate.getPreferredGame(), 1, Integer::sum);
+            roles.add(candidate.getPreferredRole());
+            skillSum += candidate.getSkillLevel();
+            if (type == THINKER) thinkers++;
+        }
+    }
+}
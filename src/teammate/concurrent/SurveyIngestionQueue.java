@@ -0,0 +1,225 @@
+package teammate.concurrent;
+
+import teammate.entity.Participant;
+import teammate.exception.TeamMateException;
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
+import teammate.service.ParticipantManager;
+import teammate.util.SystemLogger;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Accepts survey submissions without blocking and registers them in batches on a single consumer thread.
+// Each batch is checked against the participant indexes, inserted under one lock hold and saved once
+public class SurveyIngestionQueue {
+    private static final Counter submitted = MetricsRegistry.counter("ingest.submitted");
+    private static final Counter registered = MetricsRegistry.counter("ingest.registered");
+    private static final Counter duplicates = MetricsRegistry.counter("ingest.duplicates");
+    private static final Counter queueFull = MetricsRegistry.counter("ingest.queue_full");
+    private static final Counter batches = MetricsRegistry.counter("ingest.batches");
+    private static final LatencyHistogram batchLatency = MetricsRegistry.histogram("ingest.batch");
+    private static final LatencyHistogram submitToResult = MetricsRegistry.histogram("ingest.submit_to_result");
+    private static final Counter saveFailures = MetricsRegistry.counter("ingest.save_failures");
+
+    // How often an idle consumer checks whether shutdown has begun; it is never interrupted, since an
+    // interrupt during a save would close the store's files
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    // Outcome delivered to the submitter once its batch has been saved
+    public enum Status {
+        REGISTERED,
+        ID_EXISTS,
+        EMAIL_EXISTS,
+        INVALID_ID_FORMAT,
+        QUEUE_FULL,
+        SHUT_DOWN
+    }
+
+    private final ParticipantManager participantManager;
+    private final BlockingQueue<Submission> queue;
+    private final int maxBatchSize;
+    private final Thread consumer;
+
+    private volatile boolean accepting = true;
+    // Submitters hold the read side while they check accepting and enqueue; shutdown takes the write side to
+    // stop accepting, so nothing can be enqueued after the consumer's final drain
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+    public SurveyIngestionQueue(ParticipantManager participantManager) {
+        this(participantManager,
+                Integer.getInteger("teammate.ingest.capacity", 65_536),
+                Integer.getInteger("teammate.ingest.maxBatch", 1024));
+    }
+
+    public SurveyIngestionQueue(ParticipantManager participantManager, int capacity, int maxBatchSize) {
+        if (capacity < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive");
+        }
+        this.participantManager = participantManager;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+
+        this.consumer = new Thread(this::runLoop, "teammate-survey-ingest");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+
+        MetricsRegistry.gauge("ingest.queue_depth", queue::size);
+    }
+
+    // Enqueues the participant and returns immediately; the future completes after the batch is persisted
+    public CompletableFuture<Result> submit(Participant participant) {
+        Submission submission = new Submission(participant);
+        submitted.increment();
+
+        acceptLock.readLock().lock();
+        try {
+            if (!accepting) {
+                submission.complete(Status.SHUT_DOWN);
+            } else if (!queue.offer(submission)) {
+                queueFull.increment();
+                submission.complete(Status.QUEUE_FULL);
+            }
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+        return submission.future;
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    // Stops accepting submissions and waits for everything already queued to be registered and saved
+    public void shutdown(long timeoutMillis) {
+        acceptLock.writeLock().lock();
+        try {
+            accepting = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+
+        try {
+            consumer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything the consumer did not reach within the timeout is refused rather than left pending
+        Submission late;
+        while ((late = queue.poll()) != null) {
+            late.complete(Status.SHUT_DOWN);
+        }
+    }
+
+    private void runLoop() {
+        List<Submission> batch = new ArrayList<>(maxBatchSize);
+
+        while (true) {
+            try {
+                // Once accepting is off, everything that will ever be queued is already there
+                boolean draining = !accepting;
+                Submission first = draining ? queue.poll() : queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (draining) break;
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                // Not used to stop the consumer; keep going until shutdown turns accepting off
+            } catch (RuntimeException e) {
+                SystemLogger.logException(SystemLogger.LogCategory.INGEST, "Survey ingestion batch failed", e);
+                for (Submission submission : batch) {
+                    submission.fail(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<Submission> batch) {
+        long start = System.nanoTime();
+
+        List<Participant> participants = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            participants.add(submission.participant);
+        }
+
+        List<String> statuses = participantManager.registerParticipants(participants);
+
+        List<Participant> registeredNow = new ArrayList<>();
+        for (int i = 0; i < statuses.size(); i++) {
+            if (statuses.get(i).equals("VALID")) registeredNow.add(participants.get(i));
+        }
+        int added = registeredNow.size();
+        try {
+            participantManager.saveParticipants(registeredNow);
+        } catch (TeamMateException.FileWriteException e) {
+            // Not persisted, so not registered: undo the insert and fail those submissions
+            participantManager.removeParticipants(registeredNow);
+            saveFailures.add(added);
+            batchLatency.recordSince(start);
+            for (int i = 0; i < batch.size(); i++) {
+                String status = statuses.get(i);
+                if (status.equals("VALID")) {
+                    batch.get(i).fail(e);
+                } else {
+                    batch.get(i).complete(Status.valueOf(status));
+                }
+            }
+            return;
+        }
+
+        registered.add(added);
+        duplicates.add(batch.size() - added);
+        batches.increment();
+        batchLatency.recordSince(start);
+
+        for (int i = 0; i < batch.size(); i++) {
+            String status = statuses.get(i);
+            batch.get(i).complete(status.equals("VALID") ? Status.REGISTERED : Status.valueOf(status));
+        }
+    }
+
+    // Pairs a queued participant with the future handed back to its submitter
+    private static final class Submission {
+        final Participant participant;
+        final CompletableFuture<Result> future = new CompletableFuture<>();
+        final long submittedAt = System.nanoTime();
+
+        Submission(Participant participant) {
+            this.participant = participant;
+        }
+
+        void complete(Status status) {
+            submitToResult.recordSince(submittedAt);
+            future.complete(new Result(status, participant));
+        }
+
+        void fail(Throwable cause) {
+            submitToResult.recordSince(submittedAt);
+            future.completeExceptionally(cause);
+        }
+    }
+
+    // Final outcome of one submission
+    public static class Result {
+        private final Status status;
+        private final Participant participant;
+
+        Result(Status status, Participant participant) {
+            this.status = status;
+            this.participant = participant;
+        }
+
+        public Status getStatus() { return status; }
+        public Participant getParticipant() { return participant; }
+        public boolean isRegistered() { return status == Status.REGISTERED; }
+    }
+}
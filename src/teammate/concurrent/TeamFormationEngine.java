@@ -2,7 +2,12 @@ package teammate.concurrent;
 
 import teammate.entity.Participant;
 import teammate.entity.Team;
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
 import teammate.service.TeamBuilder;
+import teammate.util.FormationFeasibility;
+import teammate.util.SnakeDraftFormation;
 import teammate.util.SystemLogger;
 import java.util.*;
 import java.util.concurrent.*;
@@ -13,55 +18,184 @@ public class TeamFormationEngine {
     private static final int PARALLEL_THRESHOLD = 30;
     private static final int OPTIMAL_THREADS = 4;
 
+    // Extra wait past the deadline for workers to notice it before they are interrupted
+    private static final long STOP_GRACE_MILLIS = 1000;
+
+    private static final Counter formationRuns = MetricsRegistry.counter("formation.runs");
+    private static final Counter participantsIn = MetricsRegistry.counter("formation.participants_in");
+    private static final Counter teamsFormed = MetricsRegistry.counter("formation.teams_formed");
+    private static final LatencyHistogram sequentialLatency =
+            MetricsRegistry.histogram("formation.sequential.latency");
+    private static final LatencyHistogram parallelLatency =
+            MetricsRegistry.histogram("formation.parallel.latency");
+    private static final LatencyHistogram snakeLatency =
+            MetricsRegistry.histogram("formation.snake.latency");
+    private static final Counter deadlineHits = MetricsRegistry.counter("formation.deadline_hits");
+    private static final Counter cancelledRuns = MetricsRegistry.counter("formation.cancelled");
+
+    // Processing mode; AUTO picks based on PARALLEL_THRESHOLD. SNAKE is the deterministic sort-and-deal strategy
+    public enum Mode {
+        AUTO, SEQUENTIAL, PARALLEL, SNAKE
+    }
+
+    private final List<FormationListener> listeners = new CopyOnWriteArrayList<>();
+
     public TeamFormationEngine(TeamBuilder teamBuilder) {
         this.teamBuilder = teamBuilder;
     }
 
+    // Subscribes to teams and progress of every later run
+    public void addListener(FormationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(FormationListener listener) {
+        listeners.remove(listener);
+    }
+
     // Builds teams using the most efficient processing mode based on participant count
     public int buildTeams(List<Participant> participants, int teamSize)
             throws InterruptedException, ExecutionException {
+        return buildTeams(participants, teamSize, Mode.AUTO);
+    }
 
-        SystemLogger.info("Team formation started: " + participants.size() + " participants");
+    // Builds teams using an explicitly selected processing mode within the default time budget
+    public int buildTeams(List<Participant> participants, int teamSize, Mode mode)
+            throws InterruptedException, ExecutionException {
+        return buildTeams(participants, teamSize, mode, FormationBudget.fromDefaults()).getTeamsFormed();
+    }
+
+    // Builds teams until done, the budget's deadline passes or it is cancelled; teams formed by then are kept
+    public Result buildTeams(List<Participant> participants, int teamSize, Mode mode, FormationBudget budget)
+            throws InterruptedException, ExecutionException {
+
+        SystemLogger.info(SystemLogger.LogCategory.FORMATION,
+                () -> "Team formation started: " + participants.size() + " participants");
+        long start = System.nanoTime();
 
         if (participants.size() < teamSize) {
-            SystemLogger.warning("Insufficient participants");
-            return 0;
+            SystemLogger.warning(SystemLogger.LogCategory.FORMATION, "Insufficient participants");
+            return complete(new Result(0, budget, start));
+        }
+
+        FormationFeasibility.Report feasibility = FormationFeasibility.analyze(participants, teamSize);
+        SystemLogger.info(SystemLogger.LogCategory.FORMATION, feasibility::describe);
+        if (feasibility.getMaxTeams() == 0) {
+            SystemLogger.warning(SystemLogger.LogCategory.FORMATION,
+                    "No valid team is possible; limited by " + feasibility.getLimitingFactor());
+            return complete(new Result(0, budget, start));
         }
 
-        boolean useParallel = participants.size() >= PARALLEL_THRESHOLD;
+        boolean useParallel = mode == Mode.PARALLEL ||
+                (mode == Mode.AUTO && participants.size() >= PARALLEL_THRESHOLD);
+
+        formationRuns.increment();
+        participantsIn.add(participants.size());
+        ProgressTracker tracker = new ProgressTracker(participants.size(), feasibility.getMaxTeams(), start);
+        int formed;
 
-        if (useParallel) {
-            SystemLogger.info("Using PARALLEL processing mode");
-            return buildTeamsParallel(participants, teamSize);
+        if (mode == Mode.SNAKE) {
+            SystemLogger.info(SystemLogger.LogCategory.FORMATION, "Using SNAKE draft mode");
+            formed = buildTeamsSnake(participants, teamSize, budget, tracker);
+            snakeLatency.recordSince(start);
+        } else if (useParallel) {
+            SystemLogger.info(SystemLogger.LogCategory.FORMATION, "Using PARALLEL processing mode");
+            formed = buildTeamsParallel(participants, teamSize, feasibility.getMaxTeams(), budget, tracker);
+            parallelLatency.recordSince(start);
         } else {
-            SystemLogger.info("Using SEQUENTIAL processing mode");
-            return buildTeamsSequential(participants, teamSize);
+            SystemLogger.info(SystemLogger.LogCategory.FORMATION, "Using SEQUENTIAL processing mode");
+            formed = buildTeamsSequential(participants, teamSize, budget, tracker);
+            sequentialLatency.recordSince(start);
         }
+
+        teamsFormed.add(formed);
+        Result result = new Result(formed, budget, start);
+        if (result.isCancelled()) {
+            cancelledRuns.increment();
+            SystemLogger.warning(SystemLogger.LogCategory.FORMATION,
+                    () -> "Formation cancelled; keeping " + formed + " teams formed so far");
+        } else if (result.isTimedOut()) {
+            deadlineHits.increment();
+            SystemLogger.warning(SystemLogger.LogCategory.FORMATION,
+                    () -> "Formation time budget reached; keeping " + formed + " teams formed so far");
+        }
+        return complete(result);
+    }
+
+    private Result complete(Result result) {
+        for (FormationListener listener : listeners) {
+            try {
+                listener.completed(result);
+            } catch (RuntimeException e) {
+                SystemLogger.logException(SystemLogger.LogCategory.FORMATION, "Formation listener failed", e);
+            }
+        }
+        return result;
     }
 
     // Processes team formation sequentially for small datasets
-    private int buildTeamsSequential(List<Participant> participants, int teamSize)
+    private int buildTeamsSequential(List<Participant> participants, int teamSize, FormationBudget budget,
+                                     ProgressTracker tracker)
             throws InterruptedException, ExecutionException {
 
         ExecutorService executor = Executors.newSingleThreadExecutor();
 
+        // Each team is published as the builder accepts it
+        teamBuilder.setTeamListener(team -> tracker.publish(Collections.singletonList(team), teamSize));
         try {
             Future<Integer> future = executor.submit(() -> {
-                teamBuilder.buildTeams(participants, teamSize);
+                teamBuilder.buildTeams(participants, teamSize, budget);
                 return teamBuilder.getTeamCount();
             });
 
-            int teamCount = future.get();
-            SystemLogger.success("Sequential formation complete: " + teamCount + " teams");
+            int teamCount;
+            try {
+                teamCount = awaitWithinBudget(future, budget);
+            } catch (TimeoutException e) {
+                // The builder did not reach its next check in time; interrupt it and keep what it added
+                future.cancel(true);
+                executor.shutdownNow();
+                executor.awaitTermination(STOP_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+                teamCount = teamBuilder.getTeamCount();
+            }
+
+            int count = teamCount;
+            SystemLogger.success(SystemLogger.LogCategory.FORMATION,
+                    () -> "Sequential formation complete: " + count + " teams");
+            tracker.finish();
             return teamCount;
 
         } finally {
+            teamBuilder.setTeamListener(null);
             executor.shutdown();
         }
     }
 
+    // Deals stratified, skill-sorted participants into teams in one pass; no worker threads are needed
+    private int buildTeamsSnake(List<Participant> participants, int teamSize, FormationBudget budget,
+                                ProgressTracker tracker) {
+        int totalSkill = 0;
+        for (Participant p : participants) {
+            totalSkill += p.getSkillLevel();
+        }
+        int expectedTeams = Math.max(1, participants.size() / teamSize);
+        teamBuilder.setOverallAverageSkill((double) totalSkill / (expectedTeams * teamSize));
+
+        List<Team> teams = SnakeDraftFormation.formTeams(participants, teamSize, budget::expired);
+        teamBuilder.ensureIdReservation(teams.size());
+        for (Team team : teams) {
+            teamBuilder.addTeam(team);
+        }
+        tracker.publish(teams, participants.size());
+
+        SystemLogger.success(SystemLogger.LogCategory.FORMATION,
+                () -> "Snake draft formation complete: " + teams.size() + " teams");
+        return teams.size();
+    }
+
     // Processes team formation in parallel for large datasets
-    private int buildTeamsParallel(List<Participant> participants, int teamSize)
+    private int buildTeamsParallel(List<Participant> participants, int teamSize, int maxTeams, FormationBudget budget,
+                                   ProgressTracker tracker)
             throws InterruptedException, ExecutionException {
 
         // Calculate global target skill for consistent team balancing across all batches
@@ -72,16 +206,21 @@ public class TeamFormationEngine {
         int expectedTeams = Math.max(1, participants.size() / teamSize);
         double globalTargetSkill = (double) totalSkill / (expectedTeams * teamSize);
 
-        SystemLogger.info("Global target skill: " + String.format("%.2f", globalTargetSkill));
+        SystemLogger.info(SystemLogger.LogCategory.FORMATION,
+                () -> "Global target skill: " + String.format("%.2f", globalTargetSkill));
 
         // Set target skill in TeamBuilder for display purposes
         teamBuilder.setOverallAverageSkill(globalTargetSkill);
 
+        // Teams are numbered from this reservation as batches are published, so IDs stay consecutive
+        teamBuilder.ensureIdReservation(maxTeams);
+
         int actualThreads = Math.min(OPTIMAL_THREADS,
                 Math.max(2, participants.size() / (teamSize * 3)));
 
         ExecutorService executor = Executors.newFixedThreadPool(actualThreads);
-        List<Future<List<Team>>> futures = new ArrayList<>();
+        CompletionService<List<Team>> completion = new ExecutorCompletionService<>(executor);
+        Map<Future<List<Team>>, Integer> batchSizes = new HashMap<>();
 
         try {
             int batchSize = Math.max(teamSize * 3, participants.size() / actualThreads);
@@ -89,39 +228,159 @@ public class TeamFormationEngine {
 
             // Submit batch processing tasks
             for (List<Participant> batch : batches) {
-                BatchProcessor task = new BatchProcessor(batch, teamSize, globalTargetSkill);
-                futures.add(executor.submit(task));
+                BatchProcessor task = new BatchProcessor(batch, teamSize, globalTargetSkill, budget);
+                batchSizes.put(completion.submit(task), batch.size());
             }
 
-            // Collect results from all batches
-            List<Team> allTeams = new ArrayList<>();
-            for (Future<List<Team>> future : futures) {
-                allTeams.addAll(future.get());
-            }
+            // Publish each batch as it completes; workers past the deadline return their teams so far
+            int published = 0;
+            for (int remaining = batches.size(); remaining > 0; remaining--) {
+                Future<List<Team>> done = pollWithinBudget(completion, budget);
+                if (done == null) {
+                    SystemLogger.warning(SystemLogger.LogCategory.FORMATION,
+                            () -> "Formation batches missed the deadline and were dropped");
+                    break;
+                }
 
-            // Add teams sequentially to ensure thread-safe ID assignment
-            for (Team team : allTeams) {
-                teamBuilder.addTeam(team);
+                // Numbered here, in publish order; only this thread touches the builder's list
+                List<Team> teams = done.get();
+                for (Team team : teams) {
+                    teamBuilder.addTeam(team);
+                }
+                published += teams.size();
+                tracker.publish(teams, batchSizes.get(done));
             }
 
-            SystemLogger.success("Parallel formation complete: " + allTeams.size() + " teams");
-            return allTeams.size();
+            int count = published;
+            SystemLogger.success(SystemLogger.LogCategory.FORMATION,
+                    () -> "Parallel formation complete: " + count + " teams");
+            return published;
 
         } finally {
-            executor.shutdown();
+            executor.shutdownNow();
             executor.awaitTermination(30, TimeUnit.SECONDS);
         }
     }
 
-    // Divides participants into batches for parallel processing
+    // Next completed batch, waiting at most the remaining budget plus the grace period; null on timeout
+    private static <T> Future<T> pollWithinBudget(CompletionService<T> completion, FormationBudget budget)
+            throws InterruptedException {
+        long remaining = budget.remainingNanos();
+        if (remaining == Long.MAX_VALUE) {
+            return completion.take();
+        }
+        return completion.poll(remaining + TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_MILLIS), TimeUnit.NANOSECONDS);
+    }
+
+    // Waits for the remaining budget plus a short grace period for loops to reach their next check
+    private static <T> T awaitWithinBudget(Future<T> future, FormationBudget budget)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long remaining = budget.remainingNanos();
+        if (remaining == Long.MAX_VALUE) {
+            return future.get();
+        }
+        return future.get(remaining + TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_MILLIS), TimeUnit.NANOSECONDS);
+    }
+
+    // Counts published teams and consumed participants for one run and notifies the listeners
+    private final class ProgressTracker {
+        private final int participantsTotal;
+        private final int maxTeams;
+        private final long startNanos;
+        private int participantsConsumed;
+        private int teamsPublished;
+
+        ProgressTracker(int participantsTotal, int maxTeams, long startNanos) {
+            this.participantsTotal = participantsTotal;
+            this.maxTeams = maxTeams;
+            this.startNanos = startNanos;
+        }
+
+        synchronized void publish(List<Team> teams, int consumed) {
+            if (listeners.isEmpty()) return;
+
+            participantsConsumed = Math.min(participantsTotal, participantsConsumed + consumed);
+            teamsPublished += teams.size();
+
+            // Progress is whichever of participants or the team bound is further along
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            double done = Math.max((double) participantsConsumed / participantsTotal, (double) teamsPublished / maxTeams);
+            long remaining = done <= 0 ? -1 : done >= 1 ? 0 : (long) (elapsed * (1 - done) / done);
+            FormationListener.Progress progress = new FormationListener.Progress(participantsConsumed,
+                    participantsTotal, teamsPublished, maxTeams, elapsed, remaining);
+
+            List<Team> published = Collections.unmodifiableList(new ArrayList<>(teams));
+            for (FormationListener listener : listeners) {
+                try {
+                    if (!published.isEmpty()) listener.teamsPublished(published);
+                    listener.progress(progress);
+                } catch (RuntimeException e) {
+                    SystemLogger.logException(SystemLogger.LogCategory.FORMATION, "Formation listener failed", e);
+                }
+            }
+        }
+
+        // Marks every participant as processed once the strategy has finished
+        void finish() {
+            publish(Collections.emptyList(), participantsTotal);
+        }
+    }
+
+    // Outcome of one run: teams formed, and whether it stopped early on its deadline or a cancel request
+    public static class Result {
+        private final int teamsFormed;
+        private final boolean timedOut;
+        private final boolean cancelled;
+        private final long elapsedMillis;
+
+        Result(int teamsFormed, FormationBudget budget, long startNanos) {
+            this.teamsFormed = teamsFormed;
+            this.cancelled = budget.isCancelled();
+            this.timedOut = !cancelled && budget.isTimedOut();
+            this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        }
+
+        public int getTeamsFormed() { return teamsFormed; }
+        public boolean isTimedOut() { return timedOut; }
+        public boolean isCancelled() { return cancelled; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        // False when the run stopped early and more teams might have been possible
+        public boolean isComplete() {
+            return !timedOut && !cancelled;
+        }
+    }
+
+    // Divides participants into batches by stratified sampling: strata of personality type, game and skill
+    // band are dealt round-robin with one running cursor, so every batch gets its share of each stratum
+    // (within one) regardless of how the input was ordered
     private List<List<Participant>> divideToBatches(List<Participant> participants, int batchSize) {
-        List<List<Participant>> batches = new ArrayList<>();
+        int batchCount = Math.max(1, (participants.size() + batchSize - 1) / batchSize);
 
-        for (int i = 0; i < participants.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, participants.size());
-            batches.add(new ArrayList<>(participants.subList(i, end)));
+        Map<String, List<Participant>> strata = new TreeMap<>();
+        for (Participant p : participants) {
+            String key = p.getPersonalityType() + '|' + p.getPreferredGame() + '|' + skillBand(p.getSkillLevel());
+            strata.computeIfAbsent(key, k -> new ArrayList<>()).add(p);
+        }
+
+        List<List<Participant>> batches = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            batches.add(new ArrayList<>(batchSize));
+        }
+
+        int cursor = 0;
+        for (List<Participant> stratum : strata.values()) {
+            stratum.sort(Comparator.comparingInt(Participant::getSkillLevel).thenComparing(Participant::getId));
+            for (Participant p : stratum) {
+                batches.get(cursor++ % batchCount).add(p);
+            }
         }
 
         return batches;
     }
-}
\ No newline at end of file
+
+    // Low 1-3, mid 4-7, high 8-10
+    private static int skillBand(int skill) {
+        return skill <= 3 ? 0 : skill <= 7 ? 1 : 2;
+    }
+}
@@ -1,5 +1,7 @@
 package teammate.entity;
 
+import teammate.util.CsvCodec;
+
 // Represents a participant in the esports team formation system
 public class Participant {
     private String id;
@@ -55,9 +57,22 @@ public class Participant {
 
     // Converts participant data to CSV format for file storage
     public String toCSVString() {
-        return String.format("%s,%s,%s,%s,%d,%s,%d,%s,%s",
-                id, name, email, preferredGame, skillLevel, preferredRole,
-                personalityScore, personalityType, status);
+        StringBuilder sb = new StringBuilder(128);
+        appendCSV(sb);
+        return sb.toString();
+    }
+
+    // Appends the CSV row to a caller-owned builder, quoting fields such as names that contain commas
+    public void appendCSV(StringBuilder sb) {
+        CsvCodec.appendField(sb, id).append(',');
+        CsvCodec.appendField(sb, name).append(',');
+        CsvCodec.appendField(sb, email).append(',');
+        CsvCodec.appendField(sb, preferredGame).append(',');
+        sb.append(skillLevel).append(',');
+        CsvCodec.appendField(sb, preferredRole).append(',');
+        sb.append(personalityScore).append(',');
+        CsvCodec.appendField(sb, personalityType).append(',');
+        CsvCodec.appendField(sb, status);
     }
 
     @Override
@@ -1,15 +1,19 @@
 package teammate.entity;
 
+import teammate.util.CsvCodec;
+import teammate.util.FileManager;
 import teammate.util.SystemLogger;
+import teammate.util.TeamRenderer;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 // Represents a team with unique sequential ID and members
 public class Team {
     private static final String COUNTER_FILE = "team_counter.dat";
-    private static int teamCounter = -1;
-    private static int previousValue = -1;
-    private static boolean counterModified = false;
+    // IDs leased from the counter file per extension; larger leases mean fewer file locks but wider gaps after a crash
+    private static final int LEASE_SIZE = Integer.getInteger("teammate.teamIds.leaseSize", 64);
+    private static final AtomicReference<Lease> lease = new AtomicReference<>(new Lease(1, 0));
 
     private String teamId;
     private List<Participant> members;
@@ -33,10 +37,19 @@ public class Team {
         return teamId;
     }
 
+    // False until a reservation has numbered the team
+    public boolean hasTeamId() {
+        return !"TEMP_ID".equals(teamId);
+    }
+
     public void setTeamId(String teamId) {
         this.teamId = teamId;
     }
 
+    public int getMaxSize() {
+        return maxSize;
+    }
+
     public List<Participant> getMembers() {
         return new ArrayList<>(members);
     }
@@ -69,61 +82,113 @@ public class Team {
         return false;
     }
 
-    // Assigns unique sequential team ID for permanent storage
-    public synchronized void finalizeTeamId() {
-        if (teamCounter == -1) {
-            loadTeamCounter();
-        }
+    public static String formatTeamId(long number) {
+        String digits = Long.toString(number);
+        return digits.length() >= 4 ? "TEAM" + digits : "TEAM" + "0000".substring(digits.length()) + digits;
+    }
+
+    // Reserves a contiguous block of IDs from this process's lease with one CAS; the file is touched only to
+    // extend the lease, so IDs never repeat across threads or across processes sharing the data directory
+    public static TeamIdReservation reserveTeamIds(int count) {
+        int size = Math.max(1, count);
 
-        if (previousValue == -1) {
-            previousValue = teamCounter;
+        while (true) {
+            Lease current = lease.get();
+            if (current.remaining() < size) {
+                extendLease(current, size);
+                continue;
+            }
+            if (lease.compareAndSet(current, new Lease(current.next + size, current.end))) {
+                return new TeamIdReservation(current.next, current.next + size - 1);
+            }
         }
+    }
 
-        teamCounter++;
-        counterModified = true;
-        teamId = "TEAM" + String.format("%04d", teamCounter);
+    // Gives unused IDs back to the lease when nothing was reserved after them; otherwise they stay an unused gap
+    public static void releaseTeamIds(TeamIdReservation reservation) {
+        giveBack(reservation, reservation.getLastIssued() + 1);
     }
 
-    // Resets counter to previous value if team generation is cancelled
-    public static synchronized void resetTeamCounter() {
-        teamCounter = previousValue;
-        counterModified = false;
+    // Gives the whole reservation back, including IDs already issued, for a generation that was never exported
+    public static void discardTeamIds(TeamIdReservation reservation) {
+        giveBack(reservation, reservation.getFirst());
     }
 
-    // Loads the team counter from file to maintain sequential IDs
-    private static synchronized void loadTeamCounter() {
-        File file = new File(COUNTER_FILE);
+    // Rewinds the lease to from if this reservation is still the last one taken from it
+    private static void giveBack(TeamIdReservation reservation, long from) {
+        if (from > reservation.getLast()) return;
 
-        if (!file.exists()) {
-            teamCounter = 0;
-            SystemLogger.info("Starting fresh - First team will be TEAM0001");
-            return;
+        while (true) {
+            Lease current = lease.get();
+            if (current.next != reservation.getLast() + 1) {
+                SystemLogger.info(SystemLogger.LogCategory.FORMATION, () -> "Team IDs " +
+                        formatTeamId(from) + "-" + formatTeamId(reservation.getLast()) + " left unused");
+                return;
+            }
+            if (lease.compareAndSet(current, new Lease(from, current.end))) {
+                return;
+            }
         }
+    }
 
-        try (BufferedReader br = new BufferedReader(new FileReader(COUNTER_FILE))) {
-            String line = br.readLine();
-            if (line != null && !line.trim().isEmpty()) {
-                teamCounter = Integer.parseInt(line.trim());
-                SystemLogger.info("Loaded team counter - Next team: TEAM" +
-                        String.format("%04d", teamCounter + 1));
-            } else {
-                teamCounter = 0;
-            }
-        } catch (Exception e) {
-            SystemLogger.warning("Could not load counter, starting from TEAM0001");
-            teamCounter = 0;
+    // Takes a new range from the shared counter file. The file always holds the end of the newest lease, so a
+    // process that crashes mid-lease only leaves a gap; the next lease starts after it
+    private static synchronized void extendLease(Lease seen, int needed) {
+        if (lease.get().end != seen.end) return;
+
+        long size = Math.max(LEASE_SIZE, needed);
+        try {
+            FileManager.updateTeamCounter(fileCounter -> {
+                long end = fileCounter + size;
+                Lease previous = lease.getAndUpdate(current -> current.end == fileCounter
+                        ? new Lease(current.next, end)
+                        : new Lease(fileCounter + 1, end));
+
+                if (previous.end != fileCounter && previous.remaining() > 0) {
+                    SystemLogger.info(SystemLogger.LogCategory.FILE, () -> "Team IDs " + formatTeamId(previous.next) +
+                            "-" + formatTeamId(previous.end) + " skipped; another process leased past them");
+                }
+                SystemLogger.info(SystemLogger.LogCategory.FILE, () -> "Leased team IDs up to " + formatTeamId(end));
+                return end;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not lease team IDs from " + COUNTER_FILE, e);
         }
     }
 
-    // Saves the current team counter to file for persistence
+    // Returns the unused end of the lease to the counter file if no other process has leased since,
+    // so a single organizer keeps gap-free numbering across runs
     public static synchronized void saveTeamCounterToFile() {
-        if (!counterModified) return;
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(COUNTER_FILE))) {
-            writer.write(String.valueOf(teamCounter));
-            SystemLogger.success("Team counter saved: " + teamCounter);
+        if (lease.get().end == 0) return;
+
+        try {
+            long saved = FileManager.updateTeamCounter(fileCounter -> {
+                while (true) {
+                    Lease current = lease.get();
+                    if (current.end != fileCounter || current.remaining() == 0) return fileCounter;
+                    if (lease.compareAndSet(current, new Lease(current.next, current.next - 1))) {
+                        return current.next - 1;
+                    }
+                }
+            });
+            SystemLogger.success(SystemLogger.LogCategory.FILE, () -> "Team counter saved: " + saved);
         } catch (IOException e) {
-            SystemLogger.error("Failed to save team counter: " + e.getMessage());
+            SystemLogger.error(SystemLogger.LogCategory.FILE, () -> "Failed to save team counter: " + e.getMessage());
+        }
+    }
+
+    // Unissued range [next, end] of team IDs this process has leased from the counter file
+    private static final class Lease {
+        final long next;
+        final long end;
+
+        Lease(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        long remaining() {
+            return end - next + 1;
         }
     }
 
@@ -172,65 +237,46 @@ public class Team {
 
     // Displays comprehensive team information for organizers
     public void displayTeamInfo() {
-        System.out.println("\n" + "=".repeat(50));
-        System.out.println("Team ID: " + teamId);
-        System.out.println("Team Size: " + members.size() + "/" + maxSize);
-        System.out.println("Average Skill Level: " + String.format("%.2f", averageSkillLevel));
-        System.out.println("=".repeat(50));
-
-        System.out.println("\nMembers:");
-        for (int i = 0; i < members.size(); i++) {
-            Participant p = members.get(i);
-            System.out.println((i + 1) + ". " + p.getId() + " - " + p.getName() +
-                    " (" + p.getEmail() + ") | Game: " + p.getPreferredGame() +
-                    " | Skill: " + p.getSkillLevel() + " | Role: " + p.getPreferredRole() +
-                    " | Type: " + p.getPersonalityType());
-        }
-
-        System.out.println("\nRole Distribution:");
-        roleDistribution.forEach((role, count) ->
-                System.out.println("  " + role + ": " + count));
-
-        System.out.println("\nPersonality Distribution:");
-        personalityDistribution.forEach((type, count) ->
-                System.out.println("  " + type + ": " + count));
-
-        System.out.println("\nGame Distribution:");
-        gameDistribution.forEach((game, count) ->
-                System.out.println("  " + game + ": " + count));
+        StringBuilder sb = new StringBuilder(1024);
+        TeamRenderer.appendTeam(sb, this);
+        System.out.print(sb);
     }
 
     // Displays simplified team information for participants
     public void displayTeamInfoForParticipant() {
-        System.out.println("\n" + "=".repeat(50));
-        System.out.println("Team ID: " + teamId);
-        System.out.println("Team Size: " + members.size() + "/" + maxSize);
-        System.out.println("Average Skill Level: " + String.format("%.2f", averageSkillLevel));
-        System.out.println("=".repeat(50));
-
-        System.out.println("\nYour Teammates:");
-        for (int i = 0; i < members.size(); i++) {
-            Participant p = members.get(i);
-            System.out.println((i + 1) + ". " + p.getName() +
-                    " | Game: " + p.getPreferredGame() +
-                    " | Skill: " + p.getSkillLevel() +
-                    " | Role: " + p.getPreferredRole());
-        }
-        System.out.println("=".repeat(50));
+        StringBuilder sb = new StringBuilder(512);
+        TeamRenderer.appendTeamForParticipant(sb, this);
+        System.out.print(sb);
     }
 
     // Converts team data to CSV format for file export
     public String toCSVString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(teamId).append(",");
-        sb.append(members.size()).append(",");
-        sb.append(String.format("%.2f", averageSkillLevel)).append(",");
+        StringBuilder sb = new StringBuilder(64);
+        appendCSV(sb);
+        return sb.toString();
+    }
+
+    // Appends the CSV row to a caller-owned builder so exports can reuse one builder for every team
+    public void appendCSV(StringBuilder sb) {
+        CsvCodec.appendField(sb, teamId).append(',');
+        sb.append(members.size()).append(',');
+        TeamRenderer.appendFixed2(sb, averageSkillLevel);
+        sb.append(',');
 
+        // Member IDs share one field; it is quoted only in the unlikely case an ID needs it
+        int listStart = sb.length();
+        boolean quote = false;
         for (int i = 0; i < members.size(); i++) {
-            sb.append(members.get(i).getId());
-            if (i < members.size() - 1) sb.append(";");
+            String memberId = members.get(i).getId();
+            quote |= CsvCodec.needsQuoting(memberId);
+            sb.append(memberId);
+            if (i < members.size() - 1) sb.append(';');
+        }
+        if (quote) {
+            String list = sb.substring(listStart);
+            sb.setLength(listStart);
+            CsvCodec.appendField(sb, list);
         }
-        return sb.toString();
     }
 
     @Override
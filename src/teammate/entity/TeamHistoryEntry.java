@@ -0,0 +1,49 @@
+package teammate.entity;
+
+import teammate.util.TeamRenderer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// One recorded team in the formation history: when it was formed, its ID, size and average skill as recorded,
+// and its member IDs. Members are kept as IDs; the participant registry resolves them when a team is shown
+public class TeamHistoryEntry {
+    private final String formationDate;
+    private final String teamId;
+    private final int teamSize;
+    private final String averageSkill;
+    private final List<String> memberIds;
+
+    public TeamHistoryEntry(String formationDate, String teamId, int teamSize, String averageSkill,
+                            List<String> memberIds) {
+        this.formationDate = formationDate;
+        this.teamId = teamId;
+        this.teamSize = teamSize;
+        this.averageSkill = averageSkill;
+        this.memberIds = Collections.unmodifiableList(memberIds);
+    }
+
+    // The entry recorded for a team formed at the given time
+    public static TeamHistoryEntry of(Team team, String formationDate) {
+        List<String> ids = new ArrayList<>(team.getMembers().size());
+        for (Participant p : team.getMembers()) {
+            ids.add(p.getId());
+        }
+        StringBuilder skill = new StringBuilder(8);
+        TeamRenderer.appendFixed2(skill, team.getAverageSkill());
+        return new TeamHistoryEntry(formationDate, team.getTeamId(), ids.size(), skill.toString(), ids);
+    }
+
+    public String getFormationDate() { return formationDate; }
+    public String getTeamId() { return teamId; }
+    public int getTeamSize() { return teamSize; }
+    public String getAverageSkill() { return averageSkill; }
+    public List<String> getMemberIds() { return memberIds; }
+
+    public boolean hasMember(String participantId) {
+        for (String id : memberIds) {
+            if (id.equalsIgnoreCase(participantId)) return true;
+        }
+        return false;
+    }
+}
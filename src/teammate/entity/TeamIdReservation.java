@@ -0,0 +1,44 @@
+package teammate.entity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// A contiguous range of team IDs set aside for one tournament session or formation run.
+// IDs are handed out lock-free in the order teams are published, so one export gets consecutive IDs
+public class TeamIdReservation {
+    private final long first;
+    private final long last;
+    private final AtomicLong next;
+
+    TeamIdReservation(long first, long last) {
+        this.first = first;
+        this.last = last;
+        this.next = new AtomicLong(first);
+    }
+
+    // Hands out the next ID in the range; the engine never forms more teams than were reserved
+    public String nextTeamId() {
+        long id = next.getAndIncrement();
+        if (id > last) {
+            throw new IllegalStateException("Team ID reservation " + Team.formatTeamId(first) +
+                    "-" + Team.formatTeamId(last) + " is exhausted");
+        }
+        return Team.formatTeamId(id);
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    public long getLast() {
+        return last;
+    }
+
+    // Highest ID handed out so far, or first - 1 if none
+    public long getLastIssued() {
+        return Math.min(next.get(), last + 1) - 1;
+    }
+
+    public long getRemaining() {
+        return last - getLastIssued();
+    }
+}
@@ -0,0 +1,20 @@
+package teammate.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic event counter backed by a LongAdder so hot paths never contend
+public class Counter {
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,73 @@
+package teammate.metrics;
+
+import teammate.util.SystemLogger;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Periodically writes the latest metrics snapshot to a local file
+class MetricsFileReporter {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static ScheduledExecutorService scheduler;
+    private static String targetFile;
+
+    static synchronized void start(String filename, long intervalSeconds) {
+        if (scheduler != null) return;
+
+        targetFile = filename;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "teammate-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(MetricsFileReporter::dump,
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+
+        Runtime.getRuntime().addShutdownHook(
+                new Thread(MetricsFileReporter::stop, "teammate-metrics-shutdown"));
+    }
+
+    static synchronized void stop() {
+        if (scheduler == null) return;
+
+        scheduler.shutdownNow();
+        scheduler = null;
+        dump();
+    }
+
+    // Writes to a temp file and renames it so readers never see a partial snapshot
+    static void dump() {
+        if (targetFile == null) return;
+
+        Path target = Paths.get(targetFile).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+            out.println("# TeamMate metrics - " + LocalDateTime.now().format(TIMESTAMP_FORMAT));
+            for (Map.Entry<String, Number> entry : MetricsRegistry.snapshot().entrySet()) {
+                out.println(entry.getKey() + "=" + entry.getValue());
+            }
+        } catch (IOException e) {
+            SystemLogger.logFileOperation("METRICS_DUMP", targetFile, false);
+            return;
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException inner) {
+                SystemLogger.logFileOperation("METRICS_DUMP", targetFile, false);
+            }
+        }
+    }
+}
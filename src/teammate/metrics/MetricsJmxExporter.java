@@ -0,0 +1,78 @@
+package teammate.metrics;
+
+import teammate.util.SystemLogger;
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+// Exposes every registered metric as a read-only attribute of the teammate:type=Metrics MBean
+class MetricsJmxExporter implements DynamicMBean {
+    private static final String OBJECT_NAME = "teammate:type=Metrics";
+
+    static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsJmxExporter(), name);
+            }
+        } catch (JMException e) {
+            SystemLogger.warning("Could not register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Number value = MetricsRegistry.snapshot().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Number> values = MetricsRegistry.snapshot();
+        AttributeList list = new AttributeList();
+
+        for (String attribute : attributes) {
+            Number value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    // Attributes are rebuilt from the live registry so newly created metrics appear automatically
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Number> values = MetricsRegistry.snapshot();
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+
+        int i = 0;
+        for (Map.Entry<String, Number> entry : values.entrySet()) {
+            attributes[i++] = new MBeanAttributeInfo(entry.getKey(),
+                    entry.getValue().getClass().getName(), entry.getKey(), true, false, false);
+        }
+
+        return new MBeanInfo(getClass().getName(), "TeamMate runtime metrics",
+                attributes, null, null, null);
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException {
+        throw new MBeanException(new UnsupportedOperationException(actionName));
+    }
+}
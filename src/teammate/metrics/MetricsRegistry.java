@@ -0,0 +1,80 @@
+package teammate.metrics;
+
+import teammate.util.SystemLogger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// In-process registry of counters, gauges and latency histograms shared by all components
+public class MetricsRegistry {
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private static boolean reportingStarted = false;
+
+    // Returns the counter registered under the name, creating it on first use
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    // Returns the histogram registered under the name, creating it on first use
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    // Registers (or replaces) a gauge whose value is sampled when metrics are read
+    public static void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    // Takes a consistent-enough, name-sorted snapshot of every metric value
+    public static SortedMap<String, Number> snapshot() {
+        SortedMap<String, Number> values = new TreeMap<>();
+
+        counters.forEach((name, counter) -> values.put(name, counter.getCount()));
+
+        gauges.forEach((name, gauge) -> {
+            try {
+                values.put(name, gauge.getAsLong());
+            } catch (RuntimeException e) {
+                values.put(name, -1L);
+            }
+        });
+
+        histograms.forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean_us", histogram.getMean() / 1000.0);
+            values.put(name + ".p50_us", histogram.getPercentile(50) / 1000.0);
+            values.put(name + ".p99_us", histogram.getPercentile(99) / 1000.0);
+            values.put(name + ".max_us", histogram.getMax() / 1000.0);
+        });
+
+        return values;
+    }
+
+    // Publishes metrics over JMX and schedules the periodic file dump (idempotent)
+    public static synchronized void startReporting() {
+        if (reportingStarted) return;
+        reportingStarted = true;
+
+        if (Boolean.parseBoolean(System.getProperty("teammate.metrics.jmx", "true"))) {
+            MetricsJmxExporter.register();
+        }
+
+        long interval = Long.getLong("teammate.metrics.intervalSeconds", 60);
+        if (interval > 0) {
+            MetricsFileReporter.start(
+                    System.getProperty("teammate.metrics.file", "teammate_metrics.txt"), interval);
+        }
+
+        SystemLogger.info("Metrics reporting started");
+    }
+
+    // Writes a final metrics dump; called on shutdown
+    public static synchronized void stopReporting() {
+        if (!reportingStarted) return;
+        MetricsFileReporter.stop();
+        reportingStarted = false;
+    }
+}
@@ -0,0 +1,26 @@
+package teammate.repository;
+
+import teammate.entity.Participant;
+import teammate.exception.TeamMateException;
+import teammate.util.FileManager;
+import java.util.List;
+
+// The master CSV file in the data directory; every save rewrites it
+public class CsvParticipantRepository implements ParticipantRepository {
+
+    @Override
+    public List<Participant> loadAll() throws TeamMateException.FileReadException {
+        return FileManager.loadAllParticipants();
+    }
+
+    @Override
+    public void saveAll(List<Participant> participants) throws TeamMateException.FileWriteException {
+        FileManager.saveAllParticipants(participants);
+    }
+
+    @Override
+    public void saveChanged(List<Participant> changed, List<Participant> all)
+            throws TeamMateException.FileWriteException {
+        FileManager.saveAllParticipants(all);
+    }
+}
@@ -0,0 +1,46 @@
+package teammate.repository;
+
+import teammate.entity.Team;
+import teammate.entity.TeamHistoryEntry;
+import teammate.exception.TeamMateException;
+import teammate.service.ParticipantManager;
+import teammate.util.FileManager;
+import java.io.IOException;
+import java.util.List;
+
+// The cumulative CSV file in the data directory. Lookups scan it; check-my-team lookups go through the
+// FileManager team cache, and exports write the snapshot and the history rows in one pass
+public class CsvTeamHistoryRepository implements TeamHistoryRepository {
+
+    @Override
+    public void append(List<Team> teams) throws TeamMateException.FileWriteException {
+        FileManager.appendTeamsToCumulative(teams);
+    }
+
+    @Override
+    public TeamHistoryEntry findLatestForParticipant(String participantId) throws IOException {
+        return FileManager.findLatestTeamEntry(participantId);
+    }
+
+    @Override
+    public TeamHistoryEntry findTeam(String teamId) throws IOException {
+        return FileManager.findTeamEntry(teamId);
+    }
+
+    @Override
+    public void export(List<Team> teams, String snapshotFilename, boolean compress)
+            throws TeamMateException.FileWriteException {
+        FileManager.exportTeams(teams, snapshotFilename, compress);
+    }
+
+    @Override
+    public FileManager.TeamRecord findMostRecentTeam(String participantId, ParticipantManager participantManager)
+            throws IOException {
+        return FileManager.loadMostRecentParticipantTeam(participantId, participantManager);
+    }
+
+    @Override
+    public String describeLatestAssignment(String participantId) {
+        return FileManager.findLatestAssignment(participantId);
+    }
+}
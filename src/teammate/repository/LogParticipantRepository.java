@@ -0,0 +1,192 @@
+package teammate.repository;
+
+import teammate.entity.Participant;
+import teammate.exception.TeamMateException;
+import teammate.util.FileManager;
+import teammate.util.SystemLogger;
+import java.io.*;
+import java.util.*;
+
+// Participants in a log store in the data directory, one entry per participant ID. A save compares each
+// participant with the state last stored for it and appends only the differences, so a status change is one
+// small record rather than a rewrite of the registry. A new store starts from the master CSV file if present
+public class LogParticipantRepository implements ParticipantRepository {
+    private static final String STORE = "participants";
+    private static final int FORMAT = 1;
+
+    private final File directory;
+    private LogStore store;
+    // Encoded state last stored per ID, in store order
+    private final Map<String, byte[]> stored = new LinkedHashMap<>();
+
+    public LogParticipantRepository(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized List<Participant> loadAll() throws TeamMateException.FileReadException {
+        try {
+            open();
+            List<Participant> participants = new ArrayList<>(stored.size());
+            for (byte[] value : stored.values()) {
+                participants.add(decode(value));
+            }
+            SystemLogger.logFileOperation("READ", STORE, true);
+            return participants;
+        } catch (IOException e) {
+            SystemLogger.logFileOperation("READ", STORE, false);
+            throw new TeamMateException.FileReadException("Error reading participant store: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void saveAll(List<Participant> participants) throws TeamMateException.FileWriteException {
+        Set<String> present = new HashSet<>(participants.size() * 4 / 3 + 1);
+        for (Participant p : participants) {
+            present.add(p.getId());
+        }
+
+        LogStore.Batch batch = new LogStore.Batch();
+        Map<String, byte[]> updates = new LinkedHashMap<>();
+        try {
+            open();
+            collectChanges(participants, batch, updates);
+            for (String id : stored.keySet()) {
+                if (!present.contains(id)) {
+                    batch.delete(id);
+                    updates.put(id, null);
+                }
+            }
+        } catch (IOException e) {
+            throw new TeamMateException.FileWriteException("Could not save participants: " + e.getMessage());
+        }
+        write(batch, updates);
+    }
+
+    @Override
+    public synchronized void saveChanged(List<Participant> changed, List<Participant> all)
+            throws TeamMateException.FileWriteException {
+        LogStore.Batch batch = new LogStore.Batch();
+        Map<String, byte[]> updates = new LinkedHashMap<>();
+        try {
+            open();
+            collectChanges(changed, batch, updates);
+        } catch (IOException e) {
+            throw new TeamMateException.FileWriteException("Could not save participants: " + e.getMessage());
+        }
+        write(batch, updates);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (store == null) return;
+        try {
+            store.close();
+        } catch (IOException e) {
+            SystemLogger.logException(SystemLogger.LogCategory.FILE, "Error closing participant store", e);
+        }
+        store = null;
+        stored.clear();
+    }
+
+    // Adds a put for each participant whose encoded state differs from the stored one
+    private void collectChanges(List<Participant> participants, LogStore.Batch batch, Map<String, byte[]> updates)
+            throws IOException {
+        for (Participant p : participants) {
+            byte[] value = encode(p);
+            if (!Arrays.equals(stored.get(p.getId()), value)) {
+                batch.put(p.getId(), value);
+                updates.put(p.getId(), value);
+            }
+        }
+    }
+
+    private void write(LogStore.Batch batch, Map<String, byte[]> updates) throws TeamMateException.FileWriteException {
+        if (batch.isEmpty()) return;
+        try {
+            store.write(batch);
+        } catch (IOException e) {
+            SystemLogger.logFileOperation("WRITE", STORE, false);
+            throw new TeamMateException.FileWriteException("Could not save participants: " + e.getMessage());
+        }
+
+        for (Map.Entry<String, byte[]> update : updates.entrySet()) {
+            if (update.getValue() == null) {
+                stored.remove(update.getKey());
+            } else {
+                stored.put(update.getKey(), update.getValue());
+            }
+        }
+        SystemLogger.logFileOperation("WRITE", STORE, true);
+    }
+
+    // Opens the store on first use; a store created here takes over the registry from the master CSV file
+    private void open() throws IOException {
+        if (store != null) return;
+
+        LogStore opened = LogStore.open(directory, STORE);
+        try {
+            opened.forEach(stored::put);
+            if (opened.isNew()) {
+                importCsv(opened);
+            }
+        } catch (IOException | RuntimeException e) {
+            stored.clear();
+            opened.close();
+            throw e;
+        }
+        store = opened;
+    }
+
+    private void importCsv(LogStore opened) throws IOException {
+        List<Participant> participants;
+        try {
+            participants = FileManager.loadAllParticipants();
+        } catch (TeamMateException.FileReadException e) {
+            throw new IOException(e.getMessage());
+        }
+        if (participants.isEmpty()) return;
+
+        LogStore.Batch batch = new LogStore.Batch();
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        for (Participant p : participants) {
+            byte[] value = encode(p);
+            batch.put(p.getId(), value);
+            values.put(p.getId(), value);
+        }
+        opened.write(batch);
+        stored.putAll(values);
+        SystemLogger.info(SystemLogger.LogCategory.FILE,
+                () -> "Imported " + values.size() + " participants from the master CSV file into the participant store");
+    }
+
+    private static byte[] encode(Participant p) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT);
+        writeString(out, p.getId());
+        writeString(out, p.getName());
+        writeString(out, p.getEmail());
+        writeString(out, p.getPreferredGame());
+        out.writeInt(p.getSkillLevel());
+        writeString(out, p.getPreferredRole());
+        out.writeInt(p.getPersonalityScore());
+        writeString(out, p.getPersonalityType());
+        writeString(out, p.getStatus());
+        return bytes.toByteArray();
+    }
+
+    private static Participant decode(byte[] value) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+        int format = in.readByte();
+        if (format != FORMAT) {
+            throw new IOException("Unknown participant record format " + format);
+        }
+        return new Participant(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readInt(),
+                in.readUTF(), in.readInt(), in.readUTF(), in.readUTF());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeUTF(value == null ? "" : value);
+    }
+}
@@ -0,0 +1,559 @@
+package teammate.repository;
+
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
+import teammate.util.SystemLogger;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// Embedded log-structured key/value store. Every change is appended to a log as a checksummed record and an
+// in-memory index maps each live key to where its latest value sits, so a point update is one append. Once
+// the log outgrows the last checkpoint, the live records are copied into a new checkpoint and a fresh log is
+// started. Opening loads the checkpoint and replays its log, cutting off a record torn by a crash.
+// Keys keep the order they were first written in, across checkpoints and recovery
+public class LogStore implements Closeable {
+    private static final int CHECKPOINT_MAGIC = 0x544D4350;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    // Body length and CRC32 in front of every record
+    private static final int RECORD_HEADER = 8;
+    // Operation byte and key length at the start of every body
+    private static final int BODY_HEADER = 5;
+    private static final int MAX_BODY = 64 << 20;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // The log is checkpointed once it is this large and also larger than the last checkpoint
+    private static final long MIN_CHECKPOINT_BYTES = Long.getLong("teammate.store.checkpointBytes", 4L << 20);
+    // Forces each write to disk before returning; off trades durability of the last writes for speed
+    private static final boolean SYNC = Boolean.parseBoolean(System.getProperty("teammate.store.sync", "true"));
+
+    private static final LatencyHistogram writeLatency = MetricsRegistry.histogram("store.write");
+    private static final LatencyHistogram checkpointLatency = MetricsRegistry.histogram("store.checkpoint");
+    private static final Counter recordsWritten = MetricsRegistry.counter("store.records_written");
+    private static final Counter bytesTruncated = MetricsRegistry.counter("store.truncated_bytes");
+    private static final Counter reopened = MetricsRegistry.counter("store.reopened");
+
+    // Where a key's latest value lives: in the checkpoint or the log, at offset, length bytes
+    private static class Location {
+        final boolean inLog;
+        final long offset;
+        final int length;
+
+        Location(boolean inLog, long offset, int length) {
+            this.inLog = inLog;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    // Puts and deletes written together with one append and one sync
+    public static class Batch {
+        private final List<String> keys = new ArrayList<>();
+        // A null value marks a delete
+        private final List<byte[]> values = new ArrayList<>();
+
+        public Batch put(String key, byte[] value) {
+            keys.add(key);
+            values.add(Objects.requireNonNull(value));
+            return this;
+        }
+
+        public Batch delete(String key) {
+            keys.add(key);
+            values.add(null);
+            return this;
+        }
+
+        public boolean isEmpty() {
+            return keys.isEmpty();
+        }
+
+        public int size() {
+            return keys.size();
+        }
+    }
+
+    // Receives live entries in key order
+    public interface EntryVisitor {
+        void visit(String key, byte[] value) throws IOException;
+    }
+
+    private final Path directory;
+    private final String name;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final boolean fresh;
+
+    private Map<String, Location> index = new LinkedHashMap<>();
+    private long generation;
+    private FileChannel checkpoint;
+    private FileChannel log;
+    private long checkpointBytes;
+    private long logBytes;
+
+    private LogStore(Path directory, String name) throws IOException {
+        this.directory = directory;
+        this.name = name;
+
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(name + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock acquired = lockChannel.tryLock();
+        if (acquired == null) {
+            lockChannel.close();
+            throw new IOException("Store " + name + " in " + directory + " is in use by another process");
+        }
+        this.lock = acquired;
+
+        try {
+            boolean hasCheckpoint = loadCheckpoint();
+            removeStaleFiles();
+            boolean hasLog = replayLog();
+            this.fresh = !hasCheckpoint && !hasLog;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+    }
+
+    // Opens or creates the store's files in directory; a second process opening the same store fails
+    public static LogStore open(File directory, String name) throws IOException {
+        return new LogStore(directory.toPath(), name);
+    }
+
+    // True when the store had no files before it was opened, so callers can import existing data once
+    public boolean isNew() {
+        return fresh;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public synchronized long getLogBytes() {
+        return logBytes;
+    }
+
+    // The latest value for key, or null
+    public synchronized byte[] get(String key) throws IOException {
+        ensureOpen();
+        Location location = index.get(key);
+        return location == null ? null : read(location);
+    }
+
+    // Visits every live entry in key order. Entries mostly sit in file order, so values are served from a
+    // window read ahead from each file rather than with one read call apiece
+    public synchronized void forEach(EntryVisitor visitor) throws IOException {
+        ensureOpen();
+        ReadWindow checkpointWindow = new ReadWindow(checkpoint);
+        ReadWindow logWindow = new ReadWindow(log);
+        for (Map.Entry<String, Location> entry : index.entrySet()) {
+            Location location = entry.getValue();
+            visitor.visit(entry.getKey(), (location.inLog ? logWindow : checkpointWindow).read(location));
+        }
+    }
+
+    public synchronized void put(String key, byte[] value) throws IOException {
+        write(new Batch().put(key, value));
+    }
+
+    // Appends the batch as one write, syncs it, then updates the index; checkpoints when the log is due.
+    // An interrupt already pending on the caller is held back until the write is done, since it would close
+    // the channels; one arriving mid-write fails the write, and the next call reopens the files
+    public synchronized void write(Batch batch) throws IOException {
+        if (batch.isEmpty()) return;
+        boolean interrupted = Thread.interrupted();
+        try {
+            writeBatch(batch);
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeBatch(Batch batch) throws IOException {
+        ensureOpen();
+        long start = System.nanoTime();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        List<Location> locations = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            byte[] value = batch.values.get(i);
+            long valueOffset = logBytes + bytes.size() + appendRecord(out, batch.keys.get(i), value);
+            locations.add(value == null ? null : new Location(true, valueOffset, value.length));
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        long position = logBytes;
+        try {
+            while (buffer.hasRemaining()) {
+                position += log.write(buffer, position);
+            }
+            if (SYNC) log.force(false);
+        } catch (IOException e) {
+            // Drop a partial append so the next write does not follow garbage. A closed channel is cut back
+            // when ensureOpen reopens it
+            if (log.isOpen()) {
+                try {
+                    log.truncate(logBytes);
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+            }
+            throw e;
+        }
+        logBytes = position;
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (locations.get(i) == null) {
+                index.remove(batch.keys.get(i));
+            } else {
+                index.put(batch.keys.get(i), locations.get(i));
+            }
+        }
+        recordsWritten.add(batch.size());
+        writeLatency.recordSince(start);
+
+        if (logBytes >= Math.max(MIN_CHECKPOINT_BYTES, checkpointBytes)) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                // The batch is already durable in the log, which stays authoritative until a checkpoint succeeds
+                SystemLogger.logException(SystemLogger.LogCategory.FILE, "Checkpoint of store " + name + " failed", e);
+            }
+        }
+    }
+
+    // Copies the live entries into a new checkpoint and switches to an empty log. The checkpoint is complete
+    // on disk before it replaces the old one, and until then the old checkpoint and log stay authoritative
+    public synchronized void checkpoint() throws IOException {
+        ensureOpen();
+        long start = System.nanoTime();
+        long nextGeneration = generation + 1;
+        Path temporary = directory.resolve(name + ".checkpoint.tmp");
+        Map<String, Location> nextIndex = new LinkedHashMap<>(Math.max(16, index.size() * 4 / 3 + 1));
+        long written;
+
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER_SIZE + 1024);
+            DataOutputStream data = new DataOutputStream(bytes);
+            data.writeInt(CHECKPOINT_MAGIC);
+            data.writeLong(nextGeneration);
+            data.writeInt(index.size());
+
+            long flushed = 0;
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                byte[] value = read(entry.getValue());
+                long valueOffset = flushed + bytes.size() + appendRecord(data, entry.getKey(), value);
+                nextIndex.put(entry.getKey(), new Location(false, valueOffset, value.length));
+                if (bytes.size() >= BUFFER_SIZE) {
+                    flushed += writeFully(out, bytes, flushed);
+                }
+            }
+            flushed += writeFully(out, bytes, flushed);
+            out.force(true);
+            written = flushed;
+        }
+
+        Path nextLogPath = logPath(nextGeneration);
+        FileChannel nextLog = FileChannel.open(nextLogPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            Files.move(temporary, checkpointPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+        } catch (IOException e) {
+            nextLog.close();
+            Files.deleteIfExists(nextLogPath);
+            throw e;
+        }
+
+        // The new checkpoint is committed; the old files are no longer needed
+        FileChannel nextCheckpoint = FileChannel.open(checkpointPath(), StandardOpenOption.READ);
+        if (checkpoint != null) checkpoint.close();
+        log.close();
+        Files.deleteIfExists(logPath(generation));
+
+        checkpoint = nextCheckpoint;
+        log = nextLog;
+        index = nextIndex;
+        generation = nextGeneration;
+        checkpointBytes = written;
+        logBytes = 0;
+        checkpointLatency.recordSince(start);
+
+        int entries = nextIndex.size();
+        SystemLogger.info(SystemLogger.LogCategory.FILE,
+                () -> "Checkpointed store " + name + ": " + entries + " entries, " + written + " bytes");
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeQuietly();
+    }
+
+    // Reopens the files if a thread interrupted during channel I/O closed them. The index is still valid; only
+    // bytes past logBytes, left by a write that never completed, are cut from the log
+    private void ensureOpen() throws IOException {
+        boolean logClosed = !log.isOpen();
+        boolean checkpointClosed = checkpoint != null && !checkpoint.isOpen();
+        if (!logClosed && !checkpointClosed) return;
+        if (!lockChannel.isOpen()) throw new IOException("Store " + name + " is closed");
+
+        if (checkpointClosed) {
+            checkpoint = FileChannel.open(checkpointPath(), StandardOpenOption.READ);
+        }
+        if (logClosed) {
+            log = FileChannel.open(logPath(generation), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (log.size() > logBytes) {
+                bytesTruncated.add(log.size() - logBytes);
+                log.truncate(logBytes);
+                log.force(false);
+            }
+        }
+        reopened.increment();
+        SystemLogger.warning(SystemLogger.LogCategory.FILE,
+                () -> "Store " + name + ": reopened files closed by an interrupted thread");
+    }
+
+    // Reads the checkpoint into the index; false when there is none yet
+    private boolean loadCheckpoint() throws IOException {
+        Path path = checkpointPath();
+        if (!Files.exists(path)) {
+            return false;
+        }
+
+        checkpoint = FileChannel.open(path, StandardOpenOption.READ);
+        checkpointBytes = checkpoint.size();
+        RecordReader reader = new RecordReader(checkpoint);
+        try {
+            DataInputStream in = reader.in;
+            if (in.readInt() != CHECKPOINT_MAGIC) {
+                throw new IOException("Not a store checkpoint: " + path);
+            }
+            generation = in.readLong();
+            int count = in.readInt();
+            reader.position = 16;
+
+            for (int i = 0; i < count; i++) {
+                if (!reader.next() || reader.op != PUT) {
+                    throw new IOException("Corrupt store checkpoint " + path + " at entry " + i);
+                }
+                index.put(reader.key, new Location(false, reader.valueOffset, reader.valueLength));
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated store checkpoint: " + path);
+        }
+        return true;
+    }
+
+    // Replays the current log into the index, truncating it after the last intact record; false if it was empty
+    private boolean replayLog() throws IOException {
+        log = FileChannel.open(logPath(generation), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = log.size();
+
+        RecordReader reader = new RecordReader(log);
+        int replayed = 0;
+        while (reader.next()) {
+            if (reader.op == PUT) {
+                index.put(reader.key, new Location(true, reader.valueOffset, reader.valueLength));
+            } else {
+                index.remove(reader.key);
+            }
+            replayed++;
+        }
+
+        logBytes = reader.position;
+        if (logBytes < size) {
+            long dropped = size - logBytes;
+            log.truncate(logBytes);
+            log.force(false);
+            bytesTruncated.add(dropped);
+            SystemLogger.warning(SystemLogger.LogCategory.FILE,
+                    () -> "Store " + name + ": dropped " + dropped + " bytes of an incomplete write at recovery");
+        }
+        if (replayed > 0) {
+            int records = replayed;
+            SystemLogger.info(SystemLogger.LogCategory.FILE,
+                    () -> "Store " + name + ": replayed " + records + " log records, " + index.size() + " entries");
+        }
+        return size > 0;
+    }
+
+    // Logs of other generations are left over from an interrupted checkpoint
+    private void removeStaleFiles() throws IOException {
+        Files.deleteIfExists(directory.resolve(name + ".checkpoint.tmp"));
+        String current = logPath(generation).getFileName().toString();
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(directory, name + ".*.log")) {
+            for (Path path : logs) {
+                if (!path.getFileName().toString().equals(current)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    // Writes one record and returns the offset of its value within it
+    private static int appendRecord(DataOutputStream out, String key, byte[] value) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int valueLength = value == null ? 0 : value.length;
+        int bodyLength = BODY_HEADER + keyBytes.length + valueLength;
+
+        CRC32 crc = new CRC32();
+        crc.update(value == null ? DELETE : PUT);
+        crc.update(ByteBuffer.allocate(4).putInt(0, keyBytes.length));
+        crc.update(keyBytes);
+        if (value != null) crc.update(value);
+
+        out.writeInt(bodyLength);
+        out.writeInt((int) crc.getValue());
+        out.writeByte(value == null ? DELETE : PUT);
+        out.writeInt(keyBytes.length);
+        out.write(keyBytes);
+        if (value != null) out.write(value);
+        return RECORD_HEADER + BODY_HEADER + keyBytes.length;
+    }
+
+    private byte[] read(Location location) throws IOException {
+        return readAt(location.inLog ? log : checkpoint, ByteBuffer.allocate(location.length), location.offset);
+    }
+
+    private static long writeFully(FileChannel out, ByteArrayOutputStream bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer, position + written);
+        }
+        bytes.reset();
+        return written;
+    }
+
+    // Makes the checkpoint rename durable where the platform allows syncing a directory
+    private void syncDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every file system; the rename itself is still atomic
+        }
+    }
+
+    private Path checkpointPath() {
+        return directory.resolve(name + ".checkpoint");
+    }
+
+    private Path logPath(long generation) {
+        return directory.resolve(name + "." + generation + ".log");
+    }
+
+    private void closeQuietly() {
+        for (AutoCloseable closeable : new AutoCloseable[]{checkpoint, log, lock, lockChannel}) {
+            try {
+                if (closeable != null) closeable.close();
+            } catch (Exception e) {
+                SystemLogger.logException(SystemLogger.LogCategory.FILE, "Error closing store " + name, e);
+            }
+        }
+    }
+
+    // A block of one file held in memory for sequential value reads
+    private static class ReadWindow {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long start = -1;
+
+        ReadWindow(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        byte[] read(Location location) throws IOException {
+            if (location.length > BUFFER_SIZE) {
+                return readAt(channel, ByteBuffer.allocate(location.length), location.offset);
+            }
+            if (start < 0 || location.offset < start || location.offset + location.length > start + buffer.limit()) {
+                buffer.clear();
+                start = location.offset;
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, start + buffer.position()) < 0) break;
+                }
+                buffer.flip();
+                if (buffer.limit() < location.length) throw new EOFException("Store file is shorter than its index");
+            }
+            int from = (int) (location.offset - start);
+            return Arrays.copyOfRange(buffer.array(), from, from + location.length);
+        }
+    }
+
+    // Fills buffer from position; the file must hold that many bytes
+    private static byte[] readAt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException("Store file is shorter than its index");
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    // Reads records sequentially from the start of a file, verifying each checksum. next() is false at the
+    // end of the file or at the first incomplete or damaged record; position is then just past the last good one
+    private static class RecordReader {
+        final DataInputStream in;
+        private final CRC32 crc = new CRC32();
+        private byte[] body = new byte[256];
+        long position;
+        byte op;
+        String key;
+        long valueOffset;
+        int valueLength;
+
+        RecordReader(FileChannel channel) throws IOException {
+            channel.position(0);
+            this.in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel), BUFFER_SIZE));
+        }
+
+        boolean next() throws IOException {
+            try {
+                int bodyLength = in.readInt();
+                int expected = in.readInt();
+                if (bodyLength < BODY_HEADER || bodyLength > MAX_BODY) return false;
+
+                if (body.length < bodyLength) body = new byte[Math.max(bodyLength, body.length * 2)];
+                in.readFully(body, 0, bodyLength);
+                crc.reset();
+                crc.update(body, 0, bodyLength);
+                if ((int) crc.getValue() != expected) return false;
+
+                ByteBuffer buffer = ByteBuffer.wrap(body, 0, bodyLength);
+                byte kind = buffer.get();
+                int keyLength = buffer.getInt();
+                if ((kind != PUT && kind != DELETE) || keyLength < 0 || keyLength > bodyLength - BODY_HEADER) {
+                    return false;
+                }
+
+                op = kind;
+                key = new String(body, BODY_HEADER, keyLength, StandardCharsets.UTF_8);
+                valueOffset = position + RECORD_HEADER + BODY_HEADER + keyLength;
+                valueLength = bodyLength - BODY_HEADER - keyLength;
+                position += RECORD_HEADER + bodyLength;
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+    }
+}
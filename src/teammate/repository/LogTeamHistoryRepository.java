@@ -0,0 +1,183 @@
+package teammate.repository;
+
+import teammate.entity.Team;
+import teammate.entity.TeamHistoryEntry;
+import teammate.exception.TeamMateException;
+import teammate.util.FileManager;
+import teammate.util.SystemLogger;
+import java.io.*;
+import java.text.SimpleDateFormat;
+import java.util.*;
+
+// Team history in a log store in the data directory, one entry per recorded team keyed by its sequence number.
+// Indexes from participant and team ID to entry keys are rebuilt when the store opens, so a lookup reads one
+// entry instead of scanning the history. A new store starts from the cumulative CSV file if present
+public class LogTeamHistoryRepository implements TeamHistoryRepository {
+    private static final String STORE = "team_history";
+    private static final int FORMAT = 1;
+
+    private final File directory;
+    private LogStore store;
+    private long nextSequence;
+    // Lower-cased participant ID to the key of the last entry listing them
+    private final Map<String, String> latestByParticipant = new HashMap<>();
+    // Lower-cased team ID to the key of the first entry with it
+    private final Map<String, String> firstByTeam = new HashMap<>();
+
+    public LogTeamHistoryRepository(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized void append(List<Team> teams) throws TeamMateException.FileWriteException {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        String timestamp = sdf.format(new Date());
+
+        try {
+            open();
+            List<TeamHistoryEntry> entries = new ArrayList<>(teams.size());
+            for (Team team : teams) {
+                entries.add(TeamHistoryEntry.of(team, timestamp));
+            }
+            record(store, entries);
+
+            SystemLogger.logFileOperation("APPEND_HISTORY", STORE, true);
+            SystemLogger.success(SystemLogger.LogCategory.FILE,
+                    () -> "Recorded " + teams.size() + " teams in the team history store");
+        } catch (IOException e) {
+            SystemLogger.logFileOperation("APPEND_HISTORY", STORE, false);
+            throw new TeamMateException.FileWriteException("Could not record teams: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized TeamHistoryEntry findLatestForParticipant(String participantId) throws IOException {
+        open();
+        requireHistory();
+        return read(latestByParticipant.get(participantId.toLowerCase(Locale.ROOT)));
+    }
+
+    @Override
+    public synchronized TeamHistoryEntry findTeam(String teamId) throws IOException {
+        open();
+        requireHistory();
+        return read(firstByTeam.get(teamId.toLowerCase(Locale.ROOT)));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (store == null) return;
+        try {
+            store.close();
+        } catch (IOException e) {
+            SystemLogger.logException(SystemLogger.LogCategory.FILE, "Error closing team history store", e);
+        }
+        store = null;
+        latestByParticipant.clear();
+        firstByTeam.clear();
+    }
+
+    // Matches the CSV history, which reports a missing file the same way
+    private void requireHistory() throws FileNotFoundException {
+        if (store.size() == 0) {
+            throw new FileNotFoundException("No team history recorded in " + directory);
+        }
+    }
+
+    private TeamHistoryEntry read(String key) throws IOException {
+        if (key == null) return null;
+        byte[] value = store.get(key);
+        return value == null ? null : decode(value);
+    }
+
+    // Writes the entries under the next sequence numbers in one batch, then indexes them
+    private void record(LogStore target, List<TeamHistoryEntry> entries) throws IOException {
+        LogStore.Batch batch = new LogStore.Batch();
+        long sequence = nextSequence;
+        for (TeamHistoryEntry entry : entries) {
+            batch.put(Long.toString(sequence++), encode(entry));
+        }
+        target.write(batch);
+
+        for (TeamHistoryEntry entry : entries) {
+            index(Long.toString(nextSequence++), entry);
+        }
+    }
+
+    private void index(String key, TeamHistoryEntry entry) {
+        for (String id : entry.getMemberIds()) {
+            latestByParticipant.put(id.toLowerCase(Locale.ROOT), key);
+        }
+        firstByTeam.putIfAbsent(entry.getTeamId().toLowerCase(Locale.ROOT), key);
+    }
+
+    // Opens the store on first use and rebuilds the indexes; a store created here imports the cumulative CSV
+    private void open() throws IOException {
+        if (store != null) return;
+
+        LogStore opened = LogStore.open(directory, STORE);
+        try {
+            nextSequence = 0;
+            opened.forEach((key, value) -> {
+                index(key, decode(value));
+                nextSequence = Math.max(nextSequence, Long.parseLong(key) + 1);
+            });
+            if (opened.isNew()) {
+                importCsv(opened);
+            }
+        } catch (IOException | RuntimeException e) {
+            latestByParticipant.clear();
+            firstByTeam.clear();
+            opened.close();
+            throw e;
+        }
+        store = opened;
+    }
+
+    private void importCsv(LogStore opened) throws IOException {
+        List<TeamHistoryEntry> entries = new ArrayList<>();
+        try {
+            FileManager.readTeamHistory(entries::add);
+        } catch (FileNotFoundException e) {
+            return;
+        }
+        if (entries.isEmpty()) return;
+
+        record(opened, entries);
+        SystemLogger.info(SystemLogger.LogCategory.FILE,
+                () -> "Imported " + entries.size() + " teams from the cumulative CSV file into the team history store");
+    }
+
+    private static byte[] encode(TeamHistoryEntry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT);
+        out.writeUTF(entry.getFormationDate());
+        out.writeUTF(entry.getTeamId());
+        out.writeInt(entry.getTeamSize());
+        out.writeUTF(entry.getAverageSkill());
+        out.writeInt(entry.getMemberIds().size());
+        for (String id : entry.getMemberIds()) {
+            out.writeUTF(id);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static TeamHistoryEntry decode(byte[] value) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(value));
+        int format = in.readByte();
+        if (format != FORMAT) {
+            throw new IOException("Unknown team history record format " + format);
+        }
+        String formationDate = in.readUTF();
+        String teamId = in.readUTF();
+        int teamSize = in.readInt();
+        String averageSkill = in.readUTF();
+        int count = in.readInt();
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(in.readUTF());
+        }
+        return new TeamHistoryEntry(formationDate, teamId, teamSize, averageSkill, ids);
+    }
+}
@@ -0,0 +1,25 @@
+package teammate.repository;
+
+import teammate.entity.Participant;
+import teammate.exception.TeamMateException;
+import java.io.Closeable;
+import java.util.List;
+
+// Stores the participant registry. Implementations decide how much a save writes: the CSV file is rewritten
+// whole, while the log store appends only participants whose stored state changed
+public interface ParticipantRepository extends Closeable {
+
+    // Every stored participant, in registration order
+    List<Participant> loadAll() throws TeamMateException.FileReadException;
+
+    // Makes the stored registry exactly these participants
+    void saveAll(List<Participant> participants) throws TeamMateException.FileWriteException;
+
+    // Stores the current state of changed, all of which are in all; all is only read by stores that must
+    // rewrite the whole registry. Callers hold the registry lock, so all does not change during the call
+    void saveChanged(List<Participant> changed, List<Participant> all) throws TeamMateException.FileWriteException;
+
+    @Override
+    default void close() {
+    }
+}
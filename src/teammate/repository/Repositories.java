@@ -0,0 +1,78 @@
+package teammate.repository;
+
+import teammate.exception.TeamMateException;
+import teammate.util.FileManager;
+import teammate.util.SystemLogger;
+import java.io.File;
+import java.util.Locale;
+
+// Chooses the storage backend for the participant registry and team history: "csv" (the default) keeps the
+// CSV files, "log" uses the embedded log stores. Set with -Dteammate.storage or --storage. The repositories
+// follow FileManager's data directory and are reopened when it changes
+public class Repositories {
+    public static final String CSV = "csv";
+    public static final String LOG = "log";
+
+    private static String storage = initialStorage();
+    private static File directory;
+    private static ParticipantRepository participants;
+    private static TeamHistoryRepository teamHistory;
+
+    public static synchronized void setStorage(String kind) throws TeamMateException.InvalidInputException {
+        String normalized = kind == null ? "" : kind.trim().toLowerCase(Locale.ROOT);
+        if (!normalized.equals(CSV) && !normalized.equals(LOG)) {
+            throw new TeamMateException.InvalidInputException("Storage must be csv or log: " + kind);
+        }
+        if (!normalized.equals(storage)) {
+            close();
+            storage = normalized;
+        }
+    }
+
+    public static synchronized String getStorage() {
+        return storage;
+    }
+
+    public static synchronized ParticipantRepository participants() {
+        refresh();
+        return participants;
+    }
+
+    public static synchronized TeamHistoryRepository teamHistory() {
+        refresh();
+        return teamHistory;
+    }
+
+    // Releases the stores; the next access reopens them
+    public static synchronized void close() {
+        if (participants != null) participants.close();
+        if (teamHistory != null) teamHistory.close();
+        participants = null;
+        teamHistory = null;
+        directory = null;
+    }
+
+    private static void refresh() {
+        File current = FileManager.getDataDirectory();
+        if (participants != null && current.equals(directory)) return;
+
+        close();
+        directory = current;
+        if (storage.equals(LOG)) {
+            participants = new LogParticipantRepository(current);
+            teamHistory = new LogTeamHistoryRepository(current);
+        } else {
+            participants = new CsvParticipantRepository();
+            teamHistory = new CsvTeamHistoryRepository();
+        }
+    }
+
+    private static String initialStorage() {
+        String kind = System.getProperty("teammate.storage", CSV).trim().toLowerCase(Locale.ROOT);
+        if (kind.equals(CSV) || kind.equals(LOG)) {
+            return kind;
+        }
+        SystemLogger.warning(SystemLogger.LogCategory.FILE, () -> "Unknown teammate.storage '" + kind + "', using csv");
+        return CSV;
+    }
+}
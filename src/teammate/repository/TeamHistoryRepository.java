@@ -0,0 +1,58 @@
+package teammate.repository;
+
+import teammate.entity.Team;
+import teammate.entity.TeamHistoryEntry;
+import teammate.exception.TeamMateException;
+import teammate.service.ParticipantManager;
+import teammate.util.FileManager;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+
+// Stores the cumulative record of every team ever formed. Lookups throw FileNotFoundException when no
+// history has been recorded yet, and return null when the history has no matching team
+public interface TeamHistoryRepository extends Closeable {
+
+    // Records the teams under one formation timestamp
+    void append(List<Team> teams) throws TeamMateException.FileWriteException;
+
+    // The last recorded team listing the participant, or null if never assigned
+    TeamHistoryEntry findLatestForParticipant(String participantId) throws IOException;
+
+    // The first recorded team with the ID (ignoring case), or null
+    TeamHistoryEntry findTeam(String teamId) throws IOException;
+
+    // Writes the tournament snapshot file (gzipped when compress is set) and records the teams
+    default void export(List<Team> teams, String snapshotFilename, boolean compress)
+            throws TeamMateException.FileWriteException {
+        FileManager.exportTeamsSnapshot(teams, snapshotFilename, compress);
+        append(teams);
+    }
+
+    // The participant's most recent team with its members resolved from the registry, or null
+    default FileManager.TeamRecord findMostRecentTeam(String participantId, ParticipantManager participantManager)
+            throws IOException {
+        TeamHistoryEntry entry = findLatestForParticipant(participantId);
+        return entry == null ? null : FileManager.TeamRecord.resolve(entry, participantManager);
+    }
+
+    // One line on the participant's last assignment, as shown when an upload finds them already assigned
+    default String describeLatestAssignment(String participantId) {
+        try {
+            TeamHistoryEntry entry = findLatestForParticipant(participantId);
+            if (entry != null) {
+                return "Last assigned to: " + entry.getTeamId() + " on " + entry.getFormationDate();
+            }
+        } catch (FileNotFoundException e) {
+            return "No previous assignment found";
+        } catch (IOException e) {
+            return "Could not verify assignment history";
+        }
+        return "No previous assignment found";
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,411 @@
+package teammate.service;
+
+import teammate.concurrent.FormationBudget;
+import teammate.concurrent.TeamFormationEngine;
+import teammate.entity.Participant;
+import teammate.exception.TeamMateException;
+import teammate.repository.Repositories;
+import teammate.util.BulkValidator;
+import teammate.util.FileManager;
+import teammate.util.FormationFeasibility;
+import teammate.util.JsonUtil;
+import teammate.util.SystemLogger;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the upload, generate and export flow headlessly from arguments or a job file, printing JSON lines
+public class BatchJobRunner {
+    static final String USAGE = String.join("\n",
+            "Usage: java teammate.Main [--data-dir <dir>] [--storage csv|log] [--stop-on-error] <job options> | --job-file <file> [--parallel <n>]",
+            "Job options:",
+            "  --upload <file.csv>          participant CSV to upload (default: use Available participants)",
+            "  --team-size <3-10>           required team size",
+            "  --export <file.csv>          snapshot file (*.gz is gzipped); omit for a dry run",
+            "  --unassigned keep|remove     what to do with participants left without a team (default keep)",
+            "  --include-assigned yes|no    reuse participants from past tournaments (default no)",
+            "  --mode auto|sequential|parallel|snake   formation mode (default auto; snake is the deterministic draft)",
+            "  --time-budget <ms>           formation time limit; teams formed in time are kept (0 = none)",
+            "  --name <label>               label echoed in the result line",
+            "A job file holds one job per line using the same options; blank lines and # comments are ignored.",
+            "--parallel runs up to n jobs at once, each in its own tournament session; result lines appear as jobs finish.");
+
+    // Issues echoed per job result; the counts per column cover the rest
+    private static final int VALIDATION_ISSUES_SHOWN = 5;
+
+    private final ParticipantManager participantManager;
+    private final TournamentSessionManager sessions;
+    private final PrintStream out;
+    private final AtomicInteger sessionSequence = new AtomicInteger();
+
+    public BatchJobRunner(ParticipantManager participantManager, TournamentSessionManager sessions, PrintStream out) {
+        this.participantManager = participantManager;
+        this.sessions = sessions;
+        this.out = out;
+    }
+
+    // Entry point used by Main when arguments are present; returns the process exit code
+    public static int run(String[] args) {
+        List<Job> jobs;
+        boolean stopOnError = false;
+        int parallelism = 1;
+
+        try {
+            List<String> jobArgs = new ArrayList<>();
+            String jobFile = null;
+
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--help":
+                        System.err.println(USAGE);
+                        return 0;
+                    case "--data-dir":
+                        FileManager.setDataDirectory(requireValue(args, ++i, "--data-dir"));
+                        break;
+                    case "--storage":
+                        Repositories.setStorage(requireValue(args, ++i, "--storage"));
+                        break;
+                    case "--job-file":
+                        jobFile = requireValue(args, ++i, "--job-file");
+                        break;
+                    case "--stop-on-error":
+                        stopOnError = true;
+                        break;
+                    case "--parallel":
+                        String value = requireValue(args, ++i, "--parallel");
+                        try {
+                            parallelism = Integer.parseInt(value);
+                        } catch (NumberFormatException e) {
+                            parallelism = 0;
+                        }
+                        if (parallelism < 1) {
+                            throw new TeamMateException.InvalidInputException("Invalid --parallel value: " + value);
+                        }
+                        break;
+                    default:
+                        jobArgs.add(args[i]);
+                }
+            }
+
+            jobs = new ArrayList<>();
+            if (jobFile != null) {
+                if (!jobArgs.isEmpty()) {
+                    throw new TeamMateException.InvalidInputException("Job options cannot be combined with --job-file");
+                }
+                jobs.addAll(readJobFile(jobFile));
+            } else {
+                jobs.add(Job.parse(jobArgs, "job-1"));
+            }
+        } catch (TeamMateException.InvalidInputException | IOException e) {
+            System.err.println("[X] " + e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        ParticipantManager participantManager = new ParticipantManager();
+        BatchJobRunner runner = new BatchJobRunner(participantManager, new TournamentSessionManager(), System.out);
+        return runner.runAll(jobs, stopOnError, parallelism);
+    }
+
+    // Runs jobs back to back and prints one result line per job followed by a summary line
+    public int runAll(List<Job> jobs, boolean stopOnError) {
+        return runAll(jobs, stopOnError, 1);
+    }
+
+    // Runs up to parallelism jobs at once; with stopOnError, jobs not yet started are skipped after a failure
+    public int runAll(List<Job> jobs, boolean stopOnError, int parallelism) {
+        long started = System.nanoTime();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, jobs.size())));
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (Job job : jobs) {
+                running.add(executor.submit(() -> {
+                    if (stopped.get()) return;
+
+                    Map<String, Object> result = runJob(job);
+                    synchronized (out) {
+                        out.println(JsonUtil.toJson(result));
+                    }
+
+                    if ("ok".equals(result.get("status"))) {
+                        succeeded.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                        if (stopOnError) stopped.set(true);
+                    }
+                }));
+            }
+
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            SystemLogger.logException("Batch job runner failed", e);
+            failed.incrementAndGet();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("summary", true);
+        summary.put("jobs", jobs.size());
+        summary.put("succeeded", succeeded.get());
+        summary.put("failed", failed.get());
+        summary.put("totalMs", elapsedMillis(started));
+        out.println(JsonUtil.toJson(summary));
+        out.flush();
+
+        return failed.get() == 0 ? 0 : 1;
+    }
+
+    // Executes a single upload/generate/export job without any prompts
+    public Map<String, Object> runJob(Job job) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<String, Object> timings = new LinkedHashMap<>();
+        long jobStart = System.nanoTime();
+
+        result.put("job", job.name);
+        result.put("status", "ok");
+        SystemLogger.info(SystemLogger.LogCategory.GENERAL, () -> "Batch job started: " + job.name);
+
+        TournamentSession session = null;
+        try {
+            // Upload
+            long stepStart = System.nanoTime();
+            List<Participant> pool;
+
+            if (job.uploadFile != null) {
+                if (!new File(job.uploadFile).exists()) {
+                    throw new TeamMateException.FileReadException("File not found: " + job.uploadFile);
+                }
+
+                Map<String, Object> upload = participantManager.processExternalCSV(job.uploadFile, job.includeAssigned);
+                pool = castParticipants(upload.get("newlyAdded"));
+
+                result.put("upload", job.uploadFile);
+                result.put("newParticipants", upload.get("newParticipants"));
+                result.put("duplicateAvailable", upload.get("duplicateAvailable"));
+                result.put("assignedIncluded", upload.get("assignedIncluded"));
+                result.put("assignedSkipped", upload.get("duplicateAssigned"));
+                result.put("invalidRecords", upload.get("invalidRecords"));
+                BulkValidator.Report validation = (BulkValidator.Report) upload.get("validation");
+                if (validation.hasIssues()) {
+                    result.put("issuesByColumn", validation.getIssuesByColumn());
+                    List<String> firstIssues = new ArrayList<>();
+                    for (BulkValidator.Issue issue : validation.getIssues()) {
+                        if (firstIssues.size() == VALIDATION_ISSUES_SHOWN) break;
+                        firstIssues.add(issue.describe());
+                    }
+                    result.put("firstIssues", firstIssues);
+                }
+            } else {
+                pool = participantManager.findAvailableParticipants();
+            }
+            timings.put("upload", elapsedMillis(stepStart));
+            result.put("poolSize", pool.size());
+            result.put("teamSize", job.teamSize);
+            FormationFeasibility.Report feasibility = FormationFeasibility.analyze(pool, job.teamSize);
+            result.put("maxTeams", feasibility.getMaxTeams());
+            result.put("limitedBy", feasibility.getLimitingFactor());
+
+            // Generate in a session of its own so concurrent jobs never share builders, pools or team IDs
+            stepStart = System.nanoTime();
+            session = sessions.open(job.name + "#" + sessionSequence.incrementAndGet());
+            FormationBudget budget = job.timeBudgetMillis < 0
+                    ? FormationBudget.fromDefaults() : FormationBudget.of(job.timeBudgetMillis);
+            TeamFormationEngine.Result formation = session.generate(pool, job.teamSize, job.mode, budget);
+            int teamsFormed = formation.getTeamsFormed();
+            timings.put("generate", elapsedMillis(stepStart));
+            result.put("teamsFormed", teamsFormed);
+            result.put("timedOut", formation.isTimedOut());
+
+            List<Participant> unassigned = session.getUnassigned();
+            result.put("assigned", session.getPool().size() - unassigned.size());
+            result.put("unassigned", unassigned.size());
+
+            // Export
+            stepStart = System.nanoTime();
+            if (job.exportFile != null && teamsFormed > 0) {
+                session.export(job.exportFile);
+
+                if (job.removeUnassigned && !unassigned.isEmpty()) {
+                    participantManager.removeParticipants(unassigned);
+                }
+                participantManager.saveAllParticipants();
+
+                result.put("export", job.exportFile);
+                result.put("unassignedAction", job.removeUnassigned ? "remove" : "keep");
+            } else {
+                // Dry run: release the reserved team IDs
+                session.discard();
+                result.put("export", null);
+            }
+            timings.put("export", elapsedMillis(stepStart));
+
+        } catch (Exception e) {
+            if (session != null) session.discard();
+            result.put("status", "error");
+            result.put("error", e.getMessage());
+            SystemLogger.logException("Batch job failed: " + job.name, e);
+        } finally {
+            if (session != null) sessions.close(session);
+        }
+
+        timings.put("total", elapsedMillis(jobStart));
+        result.put("timingsMs", timings);
+        return result;
+    }
+
+    private static List<Job> readJobFile(String filename)
+            throws IOException, TeamMateException.InvalidInputException {
+        List<Job> jobs = new ArrayList<>();
+        int lineNumber = 0;
+
+        for (String line : Files.readAllLines(Paths.get(filename), StandardCharsets.UTF_8)) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+
+            try {
+                jobs.add(Job.parse(tokenize(trimmed), "job-" + (jobs.size() + 1)));
+            } catch (TeamMateException.InvalidInputException e) {
+                throw new TeamMateException.InvalidInputException(
+                        filename + " line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+
+        if (jobs.isEmpty()) {
+            throw new TeamMateException.InvalidInputException("Job file has no jobs: " + filename);
+        }
+        return jobs;
+    }
+
+    // Splits a job line on whitespace, keeping double-quoted values together
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean hasToken = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                hasToken = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (hasToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    hasToken = false;
+                }
+            } else {
+                current.append(c);
+                hasToken = true;
+            }
+        }
+        if (hasToken) tokens.add(current.toString());
+        return tokens;
+    }
+
+    private static String requireValue(String[] args, int index, String flag)
+            throws TeamMateException.InvalidInputException {
+        if (index >= args.length) {
+            throw new TeamMateException.InvalidInputException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Participant> castParticipants(Object value) {
+        return value == null ? new ArrayList<>() : new ArrayList<>((List<Participant>) value);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // A single tournament run parsed from command-line style options
+    public static class Job {
+        String name;
+        String uploadFile;
+        int teamSize = -1;
+        String exportFile;
+        boolean removeUnassigned = false;
+        boolean includeAssigned = false;
+        TeamFormationEngine.Mode mode = TeamFormationEngine.Mode.AUTO;
+        long timeBudgetMillis = -1;
+
+        public static Job parse(List<String> args, String defaultName) throws TeamMateException.InvalidInputException {
+            Job job = new Job();
+            job.name = defaultName;
+
+            for (int i = 0; i < args.size(); i++) {
+                String flag = args.get(i);
+                if (i + 1 >= args.size()) {
+                    throw new TeamMateException.InvalidInputException("Missing value for " + flag);
+                }
+                String value = args.get(++i);
+
+                switch (flag) {
+                    case "--name":
+                        job.name = value;
+                        break;
+                    case "--upload":
+                        job.uploadFile = value;
+                        break;
+                    case "--team-size":
+                        try {
+                            job.teamSize = Integer.parseInt(value);
+                        } catch (NumberFormatException e) {
+                            throw new TeamMateException.InvalidInputException("Invalid team size: " + value);
+                        }
+                        break;
+                    case "--export":
+                        job.exportFile = value;
+                        break;
+                    case "--unassigned":
+                        if (!value.equalsIgnoreCase("keep") && !value.equalsIgnoreCase("remove")) {
+                            throw new TeamMateException.InvalidInputException("--unassigned must be keep or remove");
+                        }
+                        job.removeUnassigned = value.equalsIgnoreCase("remove");
+                        break;
+                    case "--include-assigned":
+                        job.includeAssigned = value.equalsIgnoreCase("yes") || value.equalsIgnoreCase("true");
+                        break;
+                    case "--mode":
+                        try {
+                            job.mode = TeamFormationEngine.Mode.valueOf(value.toUpperCase());
+                        } catch (IllegalArgumentException e) {
+                            throw new TeamMateException.InvalidInputException("Unknown mode: " + value);
+                        }
+                        break;
+                    case "--time-budget":
+                        try {
+                            job.timeBudgetMillis = Long.parseLong(value);
+                        } catch (NumberFormatException e) {
+                            throw new TeamMateException.InvalidInputException("Invalid time budget: " + value);
+                        }
+                        break;
+                    default:
+                        throw new TeamMateException.InvalidInputException("Unknown option: " + flag);
+                }
+            }
+
+            if (job.teamSize < 3 || job.teamSize > 10) {
+                throw new TeamMateException.InvalidInputException("--team-size between 3 and 10 is required");
+            }
+            return job;
+        }
+    }
+}
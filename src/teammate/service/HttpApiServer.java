@@ -0,0 +1,978 @@
+package teammate.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import teammate.concurrent.FormationBudget;
+import teammate.concurrent.FormationListener;
+import teammate.concurrent.StreamingTeamFormer;
+import teammate.concurrent.SurveyIngestionQueue;
+import teammate.concurrent.TeamFormationEngine;
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.exception.TeamMateException;
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
+import teammate.repository.Repositories;
+import teammate.util.BulkValidator;
+import teammate.util.FileManager;
+import teammate.util.FormationFeasibility;
+import teammate.util.JsonUtil;
+import teammate.util.PersonalityClassifier;
+import teammate.util.SystemLogger;
+import teammate.util.ValidationUtil;
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Embedded HTTP API exposing survey submission, team lookup and organizer generate/export as JSON endpoints
+public class HttpApiServer {
+    static final String USAGE = String.join("\n",
+            "Usage: java teammate.Main --serve [--port <port>] [--host <address>] [--data-dir <dir>] [--storage csv|log]",
+            "Endpoints:",
+            "  GET  /api/health",
+            "  POST /api/surveys                       {id,name,email,game,skill,role,q1..q5 | personalityScore}",
+            "  GET  /api/participants/{idOrEmail}/team",
+            "  POST /api/organizer/upload              {file, includeAssigned?}  feeds continuous formation",
+            "  POST /api/organizer/generate            {teamSize, mode?, upload?, includeAssigned?, session?, timeBudgetMs?}",
+            "  POST /api/organizer/cancel              {session?}  stop a running generation, keeping its teams",
+            "  GET  /api/organizer/progress?session=<name>  progress of the running or last generation",
+            "  GET  /api/organizer/teams?session=<name>",
+            "  POST /api/organizer/export              {file, unassigned: keep|remove, session?}  *.gz is gzipped",
+            "  POST /api/organizer/stream              {teamSize}  start continuous formation",
+            "  GET  /api/organizer/stream              streaming status",
+            "  POST /api/organizer/stream/stop",
+            "Upload and export files are plain file names in the data directory.",
+            "Organizer endpoints require the X-Organizer-Token header when teammate.api.organizerToken is set.");
+
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final int VALIDATION_ISSUES_RETURNED = 20;
+    private static final String ORGANIZER_TOKEN_HEADER = "X-Organizer-Token";
+
+    // File names organizer requests may use; both resolve inside the data directory, never to arbitrary paths
+    private static final String UPLOAD_NAME = "[A-Za-z0-9._-]+\\.csv";
+    private static final String EXPORT_NAME = "[A-Za-z0-9._-]+\\.csv(\\.gz)?";
+
+    private static final Counter requests = MetricsRegistry.counter("api.requests");
+    private static final Counter rejected = MetricsRegistry.counter("api.rejected");
+    private static final Counter serverErrors = MetricsRegistry.counter("api.errors");
+    private static final LatencyHistogram surveyLatency = MetricsRegistry.histogram("api.latency.survey");
+    private static final LatencyHistogram teamLookupLatency = MetricsRegistry.histogram("api.latency.team_lookup");
+    private static final LatencyHistogram organizerLatency = MetricsRegistry.histogram("api.latency.organizer");
+    private static final LatencyHistogram queueWait = MetricsRegistry.histogram("api.queue_wait");
+
+    // Organizer requests that name no session share this one
+    private static final String DEFAULT_SESSION = "default";
+
+    // Set by the executor wrapper so handlers can shed requests that queued too long
+    private static final ThreadLocal<Long> enqueuedAt = new ThreadLocal<>();
+
+    private final ParticipantManager participantManager;
+    private final TournamentSessionManager sessions;
+    private final SurveyIngestionQueue ingestionQueue;
+    private final long ingestTimeoutMillis;
+    private final String organizerToken;
+    private final long queueTimeoutNanos;
+    private final long admissionTimeoutMillis;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Streaming state shared across requests; guarded by organizerLock. Sessions lock themselves
+    private final Object organizerLock = new Object();
+    private int activeGenerations;
+    private StreamingTeamFormer stream;
+    private Consumer<List<Participant>> streamFeed;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private Semaphore admission;
+    private boolean virtualThreads;
+
+    public HttpApiServer(ParticipantManager participantManager, TournamentSessionManager sessions,
+                         SurveyIngestionQueue ingestionQueue) {
+        this.participantManager = participantManager;
+        this.sessions = sessions;
+        this.ingestionQueue = ingestionQueue;
+        this.ingestTimeoutMillis = Long.getLong("teammate.api.ingestTimeoutMs", 5000);
+        this.organizerToken = System.getProperty("teammate.api.organizerToken");
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(
+                Long.getLong("teammate.api.queueTimeoutMs", 1000));
+        this.admissionTimeoutMillis = Long.getLong("teammate.api.admissionTimeoutMs", 250);
+    }
+
+    // Entry point used by Main for --serve; returns non-zero only when the server could not start
+    public static int run(String[] args) {
+        int port = Integer.getInteger("teammate.api.port", 8080);
+        String host = System.getProperty("teammate.api.host", "127.0.0.1");
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--help":
+                        System.err.println(USAGE);
+                        return 0;
+                    case "--port":
+                        port = Integer.parseInt(requireValue(args, ++i, "--port"));
+                        break;
+                    case "--host":
+                        host = requireValue(args, ++i, "--host");
+                        break;
+                    case "--data-dir":
+                        FileManager.setDataDirectory(requireValue(args, ++i, "--data-dir"));
+                        break;
+                    case "--storage":
+                        Repositories.setStorage(requireValue(args, ++i, "--storage"));
+                        break;
+                    default:
+                        throw new TeamMateException.InvalidInputException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (TeamMateException.InvalidInputException | NumberFormatException e) {
+            System.err.println("[X] " + e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        ParticipantManager participantManager = new ParticipantManager();
+        SurveyIngestionQueue ingestionQueue = new SurveyIngestionQueue(participantManager);
+        HttpApiServer api = new HttpApiServer(participantManager, new TournamentSessionManager(), ingestionQueue);
+
+        try {
+            api.start(host, port);
+        } catch (IOException e) {
+            System.err.println("[X] Could not start HTTP API: " + e.getMessage());
+            return 1;
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop(2);
+            ingestionQueue.shutdown(5000);
+            participantManager.saveAllParticipants();
+            Repositories.close();
+            Team.saveTeamCounterToFile();
+            MetricsRegistry.stopReporting();
+            SystemLogger.shutdown();
+        }, "teammate-api-shutdown"));
+
+        System.out.println("TeamMate HTTP API listening on http://" + host + ":" + api.getPort() +
+                " (" + (api.isUsingVirtualThreads() ? "virtual threads" : "platform thread pool") + ")");
+        return 0;
+    }
+
+    // Binds the server and starts accepting requests
+    public void start(String host, int port) throws IOException {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+
+        int maxInFlight;
+        if (virtualThreads) {
+            executor = virtual;
+            maxInFlight = Integer.getInteger("teammate.api.maxInFlight", 10_000);
+        } else {
+            int threads = Integer.getInteger("teammate.api.threads",
+                    Math.max(32, Runtime.getRuntime().availableProcessors() * 16));
+            executor = Executors.newFixedThreadPool(threads, new ApiThreadFactory());
+            maxInFlight = Integer.getInteger("teammate.api.maxInFlight", threads);
+        }
+        admission = new Semaphore(maxInFlight);
+
+        server = HttpServer.create(new InetSocketAddress(host, port),
+                Integer.getInteger("teammate.api.backlog", 1024));
+        server.createContext("/api/", this::handle);
+        server.setExecutor(task -> {
+            long queuedAt = System.nanoTime();
+            executor.execute(() -> {
+                enqueuedAt.set(queuedAt);
+                try {
+                    task.run();
+                } finally {
+                    enqueuedAt.remove();
+                }
+            });
+        });
+        server.start();
+
+        MetricsRegistry.gauge("api.in_flight", inFlight::get);
+        SystemLogger.info(SystemLogger.LogCategory.PORTAL, () -> "HTTP API started on port " + getPort() +
+                (virtualThreads ? " using virtual threads" : " using a platform thread pool") +
+                ", max in flight " + maxInFlight);
+    }
+
+    // Stops accepting connections and waits up to delaySeconds for open exchanges to finish
+    public void stop(int delaySeconds) {
+        if (server == null) return;
+
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        SystemLogger.info(SystemLogger.LogCategory.PORTAL, "HTTP API stopped");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor exists from Java 21; older runtimes get null
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (!Boolean.parseBoolean(System.getProperty("teammate.api.virtualThreads", "true"))) {
+            return null;
+        }
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        long start = System.nanoTime();
+        LatencyHistogram latency = organizerLatency;
+        requests.increment();
+
+        try {
+            Long queuedAt = enqueuedAt.get();
+            if (queuedAt != null) {
+                long waited = start - queuedAt;
+                queueWait.record(waited);
+                if (waited > queueTimeoutNanos) {
+                    reject(exchange, "Server busy (queued too long), retry shortly");
+                    return;
+                }
+            }
+
+            if (!admission.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                reject(exchange, "Server busy, retry shortly");
+                return;
+            }
+
+            inFlight.incrementAndGet();
+            try {
+                String path = exchange.getRequestURI().getPath();
+                latency = path.startsWith("/api/surveys") ? surveyLatency
+                        : path.startsWith("/api/participants/") ? teamLookupLatency
+                        : organizerLatency;
+
+                ApiResponse response = route(exchange, path);
+                send(exchange, response.status, response.body);
+            } finally {
+                inFlight.decrementAndGet();
+                admission.release();
+            }
+
+        } catch (TeamMateException.InvalidInputException e) {
+            sendQuietly(exchange, 400, error(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sendQuietly(exchange, 503, error("Server shutting down"));
+        } catch (Exception e) {
+            serverErrors.increment();
+            SystemLogger.logException(SystemLogger.LogCategory.PORTAL, "HTTP API request failed", e);
+            sendQuietly(exchange, 500, error("Internal error: " + e.getMessage()));
+        } finally {
+            exchange.close();
+            latency.recordSince(start);
+        }
+    }
+
+    private ApiResponse route(HttpExchange exchange, String path) throws Exception {
+        String method = exchange.getRequestMethod();
+
+        if (path.equals("/api/health")) {
+            if (!method.equals("GET")) return methodNotAllowed();
+            return health();
+        }
+
+        if (path.equals("/api/surveys")) {
+            if (!method.equals("POST")) return methodNotAllowed();
+            return submitSurvey(readBody(exchange));
+        }
+
+        if (path.startsWith("/api/participants/") && path.endsWith("/team")) {
+            if (!method.equals("GET")) return methodNotAllowed();
+            String key = path.substring("/api/participants/".length(), path.length() - "/team".length());
+            return checkTeam(URLDecoder.decode(key, StandardCharsets.UTF_8));
+        }
+
+        if (path.startsWith("/api/organizer/")) {
+            if (!isOrganizerAuthorized(exchange)) {
+                return new ApiResponse(401, error("Missing or invalid " + ORGANIZER_TOKEN_HEADER));
+            }
+
+            switch (path) {
+                case "/api/organizer/upload":
+                    if (!method.equals("POST")) return methodNotAllowed();
+                    return uploadParticipants(readBody(exchange));
+                case "/api/organizer/generate":
+                    if (!method.equals("POST")) return methodNotAllowed();
+                    return generateTeams(readBody(exchange));
+                case "/api/organizer/cancel":
+                    if (!method.equals("POST")) return methodNotAllowed();
+                    return cancelGeneration(readBody(exchange));
+                case "/api/organizer/progress":
+                    if (!method.equals("GET")) return methodNotAllowed();
+                    return generationProgress(queryParameter(exchange, "session"));
+                case "/api/organizer/teams":
+                    if (!method.equals("GET")) return methodNotAllowed();
+                    return listTeams(queryParameter(exchange, "session"));
+                case "/api/organizer/export":
+                    if (!method.equals("POST")) return methodNotAllowed();
+                    return exportTeams(readBody(exchange));
+                case "/api/organizer/stream":
+                    if (method.equals("GET")) return streamStatus();
+                    if (!method.equals("POST")) return methodNotAllowed();
+                    return startStream(readBody(exchange));
+                case "/api/organizer/stream/stop":
+                    if (!method.equals("POST")) return methodNotAllowed();
+                    return stopStream();
+                default:
+                    break;
+            }
+        }
+
+        return new ApiResponse(404, error("No such endpoint: " + path));
+    }
+
+    private ApiResponse health() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "ok");
+        body.put("participants", participantManager.getAllParticipants().size());
+        body.put("inFlight", inFlight.get());
+        body.put("pendingSurveys", ingestionQueue.getPendingCount());
+        body.put("virtualThreads", virtualThreads);
+        return new ApiResponse(200, body);
+    }
+
+    // Validates the survey like the console portal does, then waits for the ingestion queue to register and save it
+    private ApiResponse submitSurvey(Map<String, Object> body) throws InterruptedException {
+        String id = stringField(body, "id");
+        String email = stringField(body, "email");
+        String name = stringField(body, "name");
+        String game = stringField(body, "game");
+        String role = stringField(body, "role");
+
+        List<String> errors = new ArrayList<>();
+        if (!ValidationUtil.isValidParticipantId(id)) errors.add("id must start with 'P'");
+        if (!ValidationUtil.isValidEmail(email)) errors.add("email is not a valid address");
+        if (!ValidationUtil.isValidName(name)) errors.add("name must contain only letters, spaces, hyphens and apostrophes");
+        if (!ValidationUtil.isValidGameName(game)) errors.add("game name is invalid");
+        if (!ValidationUtil.isValidRole(role)) errors.add("role must be one of Strategist, Attacker, Defender, Supporter, Coordinator");
+
+        Integer skill = intField(body, "skill");
+        if (skill == null || !ValidationUtil.isValidSkillLevel(skill)) errors.add("skill must be an integer from 1 to 10");
+
+        Integer personalityScore = personalityScore(body, errors);
+
+        if (!errors.isEmpty()) {
+            Map<String, Object> response = error("Invalid survey");
+            response.put("details", errors);
+            return new ApiResponse(400, response);
+        }
+
+        String personalityType;
+        try {
+            personalityType = PersonalityClassifier.classifyPersonality(personalityScore);
+        } catch (IllegalArgumentException e) {
+            return new ApiResponse(422, error(e.getMessage()));
+        }
+
+        Participant participant = new Participant(id.trim(), name.trim(), email.trim(), game.trim(),
+                skill, role.trim(), personalityScore, personalityType);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        SurveyIngestionQueue.Result result;
+        try {
+            result = ingestionQueue.submit(participant).get(ingestTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Still queued; the outcome is visible later through the team status endpoint
+            response.put("status", "pending");
+            response.put("id", participant.getId());
+            return new ApiResponse(202, response);
+        } catch (ExecutionException e) {
+            return new ApiResponse(500, error("Registration failed: " + e.getCause().getMessage()));
+        }
+
+        switch (result.getStatus()) {
+            case ID_EXISTS:
+                return new ApiResponse(409, error("A participant with ID '" + id + "' already exists"));
+            case EMAIL_EXISTS:
+                return new ApiResponse(409, error("A participant with email '" + email + "' already exists"));
+            case INVALID_ID_FORMAT:
+                return new ApiResponse(400, error("id must start with 'P'"));
+            case QUEUE_FULL:
+            case SHUT_DOWN:
+                return new ApiResponse(503, error("Registration is not accepting surveys right now, retry shortly"));
+            default:
+                break;
+        }
+
+        response.put("status", "registered");
+        response.put("id", participant.getId());
+        response.put("email", participant.getEmail());
+        response.put("personalityType", personalityType);
+        return new ApiResponse(201, response);
+    }
+
+    // Accepts either the five 1-5 answers (scored x4 like the console survey) or a precomputed score
+    private static Integer personalityScore(Map<String, Object> body, List<String> errors) {
+        if (body.containsKey("personalityScore")) {
+            Integer score = intField(body, "personalityScore");
+            if (score == null) errors.add("personalityScore must be an integer");
+            return score;
+        }
+
+        int total = 0;
+        for (int q = 1; q <= 5; q++) {
+            Integer answer = intField(body, "q" + q);
+            if (answer == null || answer < 1 || answer > 5) {
+                errors.add("q1..q5 must each be an integer from 1 to 5");
+                return null;
+            }
+            total += answer;
+        }
+        return total * 4;
+    }
+
+    // Returns the caller's status and, once assigned, their most recent team
+    private ApiResponse checkTeam(String searchKey) throws IOException {
+        Participant p = participantManager.findParticipant(searchKey);
+        if (p == null) {
+            return new ApiResponse(404, error("Participant not found"));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", p.getId());
+        response.put("name", p.getName());
+        response.put("status", p.getStatus());
+
+        if (p.getStatus().equals("Available")) {
+            response.put("team", null);
+            return new ApiResponse(200, response);
+        }
+
+        FileManager.TeamRecord record;
+        try {
+            record = Repositories.teamHistory().findMostRecentTeam(p.getId(), participantManager);
+        } catch (FileNotFoundException e) {
+            record = null;
+        }
+
+        if (record == null) {
+            response.put("team", null);
+        } else {
+            Map<String, Object> team = describeTeam(record.getTeam());
+            team.put("formationDate", record.getFormationDate());
+            response.put("team", team);
+        }
+        return new ApiResponse(200, response);
+    }
+
+    // Registers a server-side participant CSV; new entries reach continuous formation when it is running
+    private ApiResponse uploadParticipants(Map<String, Object> body) throws Exception {
+        String file = stringField(body, "file");
+        File upload = dataFileNamed(file, UPLOAD_NAME);
+        if (upload == null) {
+            return new ApiResponse(400, error("file must be a plain .csv file name in the data directory " +
+                    "(letters, digits, . _ -)"));
+        }
+        if (!upload.exists()) {
+            return new ApiResponse(400, error("File not found: " + file));
+        }
+
+        synchronized (organizerLock) {
+            Map<String, Object> result = participantManager.processExternalCSV(upload.getPath(),
+                    Boolean.TRUE.equals(body.get("includeAssigned")));
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("upload", file);
+            response.put("newParticipants", result.get("newParticipants"));
+            response.put("duplicateAvailable", result.get("duplicateAvailable"));
+            response.put("assignedSkipped", result.get("duplicateAssigned"));
+            response.put("invalidRecords", result.get("invalidRecords"));
+            response.put("validation", describeValidation((BulkValidator.Report) result.get("validation")));
+            response.put("streaming", stream != null);
+            return new ApiResponse(200, response);
+        }
+    }
+
+    // Forms teams from uploaded or Available participants, replacing any unexported generation
+    private ApiResponse generateTeams(Map<String, Object> body) throws Exception {
+        Integer teamSize = intField(body, "teamSize");
+        if (teamSize == null || teamSize < 3 || teamSize > 10) {
+            return new ApiResponse(400, error("teamSize between 3 and 10 is required"));
+        }
+
+        TeamFormationEngine.Mode mode = TeamFormationEngine.Mode.AUTO;
+        String modeName = stringField(body, "mode");
+        if (modeName != null) {
+            try {
+                mode = TeamFormationEngine.Mode.valueOf(modeName.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return new ApiResponse(400, error("Unknown mode: " + modeName));
+            }
+        }
+
+        String upload = stringField(body, "upload");
+        File uploadFile = upload == null ? null : dataFileNamed(upload, UPLOAD_NAME);
+        if (upload != null && uploadFile == null) {
+            return new ApiResponse(400, error("upload must be a plain .csv file name in the data directory " +
+                    "(letters, digits, . _ -)"));
+        }
+        boolean includeAssigned = Boolean.TRUE.equals(body.get("includeAssigned"));
+        Integer timeBudgetMillis = intField(body, "timeBudgetMs");
+
+        TournamentSession session = sessions.getOrOpen(sessionName(body));
+
+        synchronized (organizerLock) {
+            if (stream != null) {
+                return new ApiResponse(409, error("Continuous formation is running; stop it before generating"));
+            }
+            activeGenerations++;
+        }
+
+        // Sessions form independently; only the stream check above is shared between them
+        try {
+            List<Participant> pool;
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("session", session.getName());
+
+            if (uploadFile != null) {
+                if (!uploadFile.exists()) {
+                    return new ApiResponse(400, error("File not found: " + upload));
+                }
+                Map<String, Object> result = participantManager.processExternalCSV(uploadFile.getPath(),
+                        includeAssigned);
+                pool = castParticipants(result.get("newlyAdded"));
+                response.put("newParticipants", result.get("newParticipants"));
+                response.put("invalidRecords", result.get("invalidRecords"));
+                response.put("validation", describeValidation((BulkValidator.Report) result.get("validation")));
+                participantManager.saveAllParticipants();
+            } else {
+                pool = participantManager.findAvailableParticipants();
+            }
+
+            synchronized (session) {
+                FormationBudget budget = timeBudgetMillis == null
+                        ? FormationBudget.fromDefaults() : FormationBudget.of(timeBudgetMillis);
+                TeamFormationEngine.Result formation;
+                try {
+                    formation = session.generate(pool, teamSize, mode, budget);
+                } catch (TeamMateException.InvalidInputException e) {
+                    return new ApiResponse(409, error(e.getMessage()));
+                }
+
+                List<Participant> claimed = session.getPool();
+                int unassigned = session.getUnassigned().size();
+                FormationFeasibility.Report feasibility = FormationFeasibility.analyze(claimed, teamSize);
+                response.put("poolSize", claimed.size());
+                response.put("teamSize", teamSize);
+                response.put("maxTeams", feasibility.getMaxTeams());
+                response.put("limitedBy", feasibility.getLimitingFactor());
+                response.put("teamsFormed", formation.getTeamsFormed());
+                response.put("timedOut", formation.isTimedOut());
+                response.put("cancelled", formation.isCancelled());
+                response.put("assigned", claimed.size() - unassigned);
+                response.put("unassigned", unassigned);
+                response.put("targetSkill", round2(session.getTeamBuilder().getOverallAverageSkill()));
+            }
+            return new ApiResponse(200, response);
+        } finally {
+            synchronized (organizerLock) {
+                activeGenerations--;
+            }
+        }
+    }
+
+    // Cancellation does not take the session lock, which the running generation holds
+    private ApiResponse cancelGeneration(Map<String, Object> body) {
+        TournamentSession session = sessions.get(sessionName(body));
+        if (session == null) {
+            return new ApiResponse(404, error("Unknown session: " + sessionName(body)));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("session", session.getName());
+        response.put("cancelled", session.cancelGeneration());
+        return new ApiResponse(200, response);
+    }
+
+    // Like cancel, progress is read without the session lock so it can be polled during a generation
+    private ApiResponse generationProgress(String sessionName) {
+        TournamentSession session = sessions.get(sessionName == null || sessionName.isEmpty() ? DEFAULT_SESSION : sessionName);
+        if (session == null) {
+            return new ApiResponse(404, error("Unknown session: " + sessionName));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("session", session.getName());
+        response.put("running", session.isGenerating());
+
+        FormationListener.Progress progress = session.getProgress();
+        if (progress != null) {
+            response.put("participantsConsumed", progress.getParticipantsConsumed());
+            response.put("participantsTotal", progress.getParticipantsTotal());
+            response.put("teamsFormed", progress.getTeamsFormed());
+            response.put("maxTeams", progress.getMaxTeams());
+            response.put("elapsedMs", progress.getElapsedMillis());
+            response.put("estimatedRemainingMs", progress.getEstimatedRemainingMillis());
+        }
+        return new ApiResponse(200, response);
+    }
+
+    private ApiResponse listTeams(String sessionName) {
+        TournamentSession session = sessions.get(sessionName == null || sessionName.isEmpty() ? DEFAULT_SESSION : sessionName);
+        if (session == null) {
+            return new ApiResponse(404, error("Unknown session: " + sessionName));
+        }
+
+        synchronized (session) {
+            List<Map<String, Object>> teams = new ArrayList<>();
+            for (Team team : session.getTeamBuilder().getTeams()) {
+                teams.add(describeTeam(team));
+            }
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("session", session.getName());
+            response.put("teamCount", teams.size());
+            response.put("targetSkill", round2(session.getTeamBuilder().getOverallAverageSkill()));
+            response.put("teams", teams);
+            return new ApiResponse(200, response);
+        }
+    }
+
+    // Starts continuous formation over Available participants and every later registration
+    private ApiResponse startStream(Map<String, Object> body) {
+        Integer teamSize = intField(body, "teamSize");
+        if (teamSize == null || teamSize < 3 || teamSize > 10) {
+            return new ApiResponse(400, error("teamSize between 3 and 10 is required"));
+        }
+
+        synchronized (organizerLock) {
+            if (stream != null) {
+                return new ApiResponse(409, error("Continuous formation is already running"));
+            }
+            if (activeGenerations > 0 || sessions.getClaimedCount() > 0) {
+                return new ApiResponse(409, error("Export or discard the current session teams before streaming"));
+            }
+
+            StreamingTeamFormer former = new StreamingTeamFormer(teamSize, this::publishStreamedTeam);
+            Consumer<List<Participant>> feed = former::offerAll;
+
+            // Subscribe before seeding so nobody registering in between is missed; offers are idempotent
+            participantManager.addRegistrationListener(feed);
+            int formed = former.offerAll(participantManager.findAvailableParticipants());
+
+            stream = former;
+            streamFeed = feed;
+
+            Map<String, Object> response = describeStream(former);
+            response.put("teamsFormedOnStart", formed);
+            return new ApiResponse(200, response);
+        }
+    }
+
+    private ApiResponse streamStatus() {
+        synchronized (organizerLock) {
+            if (stream == null) {
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("running", false);
+                return new ApiResponse(200, response);
+            }
+            return new ApiResponse(200, describeStream(stream));
+        }
+    }
+
+    // Stops feeding the stream; anyone still waiting simply stays Available
+    private ApiResponse stopStream() {
+        synchronized (organizerLock) {
+            if (stream == null) {
+                return new ApiResponse(409, error("Continuous formation is not running"));
+            }
+
+            participantManager.removeRegistrationListener(streamFeed);
+            Map<String, Object> response = describeStream(stream);
+            response.put("running", false);
+            response.put("released", stream.drainWaiting().size());
+            stream = null;
+            streamFeed = null;
+            return new ApiResponse(200, response);
+        }
+    }
+
+    // Each streamed team is final on emission: recorded in history and its members marked Assigned
+    private void publishStreamedTeam(Team team) {
+        for (Participant member : team.getMembers()) {
+            member.setStatus("Assigned");
+        }
+
+        try {
+            // The leased counter already covers this ID; it is trimmed back once at shutdown
+            Repositories.teamHistory().append(Collections.singletonList(team));
+        } catch (TeamMateException.FileWriteException e) {
+            SystemLogger.logException(SystemLogger.LogCategory.FORMATION, "Could not record streamed team " + team.getTeamId(), e);
+        }
+        try {
+            participantManager.saveParticipants(team.getMembers());
+        } catch (TeamMateException.FileWriteException e) {
+            // Still Assigned in memory; the full save at shutdown writes them again
+            SystemLogger.logException(SystemLogger.LogCategory.FORMATION,
+                    "Could not save members of streamed team " + team.getTeamId(), e);
+        }
+    }
+
+    private static Map<String, Object> describeStream(StreamingTeamFormer former) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("running", true);
+        response.put("teamSize", former.getTeamSize());
+        response.put("teamsFormed", former.getTeamsFormed());
+        response.put("waiting", former.getWaitingCount());
+        response.put("waitingByType", former.getWaitingByType());
+        response.put("runningTarget", round2(former.getRunningTarget()));
+        return response;
+    }
+
+    // Finalizes the current generation into the data directory, mirroring the console export flow
+    private ApiResponse exportTeams(Map<String, Object> body) throws Exception {
+        String file = stringField(body, "file");
+        File snapshotFile = dataFileNamed(file, EXPORT_NAME);
+        if (snapshotFile == null) {
+            return new ApiResponse(400, error("file must be a plain .csv or .csv.gz file name (letters, digits, . _ -)"));
+        }
+
+        String unassignedAction = Optional.ofNullable(stringField(body, "unassigned")).orElse("keep");
+        if (!unassignedAction.equalsIgnoreCase("keep") && !unassignedAction.equalsIgnoreCase("remove")) {
+            return new ApiResponse(400, error("unassigned must be keep or remove"));
+        }
+
+        TournamentSession session = sessions.get(sessionName(body));
+        if (session == null) {
+            return new ApiResponse(404, error("Unknown session: " + sessionName(body)));
+        }
+
+        synchronized (session) {
+            if (!session.hasTeams()) {
+                return new ApiResponse(409, error("No teams to export. Generate teams first."));
+            }
+
+            List<Participant> unassigned = session.getUnassigned();
+            int assigned = session.getPool().size() - unassigned.size();
+
+            String snapshot = snapshotFile.getPath();
+            int teamCount = session.export(snapshot);
+
+            if (unassignedAction.equalsIgnoreCase("remove") && !unassigned.isEmpty()) {
+                participantManager.removeParticipants(unassigned);
+            }
+            participantManager.saveAllParticipants();
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("session", session.getName());
+            response.put("export", snapshot);
+            response.put("teamsExported", teamCount);
+            response.put("assigned", assigned);
+            response.put("unassigned", unassigned.size());
+            response.put("unassignedAction", unassignedAction.toLowerCase());
+            return new ApiResponse(200, response);
+        }
+    }
+
+    private boolean isOrganizerAuthorized(HttpExchange exchange) {
+        if (organizerToken == null || organizerToken.isEmpty()) return true;
+
+        String supplied = exchange.getRequestHeaders().getFirst(ORGANIZER_TOKEN_HEADER);
+        return supplied != null && MessageDigest.isEqual(
+                supplied.getBytes(StandardCharsets.UTF_8), organizerToken.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Issue counts per column plus the first few issues, each with its spreadsheet row
+    private static Map<String, Object> describeValidation(BulkValidator.Report report) {
+        Map<String, Object> validation = new LinkedHashMap<>();
+        validation.put("rowsChecked", report.getRowsChecked());
+        validation.put("invalidRows", report.getInvalidRows());
+        validation.put("issuesByColumn", report.getIssuesByColumn());
+
+        List<Map<String, Object>> issues = new ArrayList<>();
+        for (BulkValidator.Issue issue : report.getIssues()) {
+            if (issues.size() == VALIDATION_ISSUES_RETURNED) break;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("row", issue.getRow());
+            entry.put("column", issue.getColumn());
+            entry.put("value", issue.getValue());
+            entry.put("message", issue.getMessage());
+            issues.add(entry);
+        }
+        validation.put("issues", issues);
+        return validation;
+    }
+
+    private static Map<String, Object> describeTeam(Team team) {
+        List<Map<String, Object>> members = new ArrayList<>();
+        for (Participant member : team.getMembers()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", member.getId());
+            m.put("name", member.getName());
+            m.put("game", member.getPreferredGame());
+            m.put("role", member.getPreferredRole());
+            m.put("personalityType", member.getPersonalityType());
+            m.put("skill", member.getSkillLevel());
+            members.add(m);
+        }
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("teamId", team.getTeamId());
+        description.put("averageSkill", round2(team.getAverageSkill()));
+        description.put("members", members);
+        return description;
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange)
+            throws IOException, TeamMateException.InvalidInputException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new TeamMateException.InvalidInputException("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+
+        try {
+            return JsonUtil.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new TeamMateException.InvalidInputException("Malformed JSON: " + e.getMessage());
+        }
+    }
+
+    private static String sessionName(Map<String, Object> body) {
+        String name = stringField(body, "session");
+        return name == null || name.trim().isEmpty() ? DEFAULT_SESSION : name.trim();
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return null;
+
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            if (key.equals(name)) {
+                return eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    // The named file in the data directory, or null unless the name is a plain file name matching the pattern
+    private static File dataFileNamed(String name, String pattern) {
+        if (name == null || !name.matches(pattern) || name.startsWith(".")) return null;
+        return FileManager.dataFile(name);
+    }
+
+    private static String stringField(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        return value == null ? null : value.toString();
+    }
+
+    private static Integer intField(Map<String, Object> body, String field) {
+        Object value = body.get(field);
+        if (value instanceof Long) {
+            long number = (Long) value;
+            return number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE ? (int) number : null;
+        }
+        if (value instanceof String) {
+            try {
+                return Integer.parseInt(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Participant> castParticipants(Object value) {
+        return value == null ? new ArrayList<>() : new ArrayList<>((List<Participant>) value);
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    private static Map<String, Object> error(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return body;
+    }
+
+    private static ApiResponse methodNotAllowed() {
+        return new ApiResponse(405, error("Method not allowed"));
+    }
+
+    private static void reject(HttpExchange exchange, String message) throws IOException {
+        rejected.increment();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        send(exchange, 503, error(message));
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, Object> body) throws IOException {
+        byte[] bytes = JsonUtil.toJson(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendQuietly(HttpExchange exchange, int status, Map<String, Object> body) {
+        try {
+            send(exchange, status, body);
+        } catch (IOException | IllegalStateException ignored) {
+            // Response already started or client gone
+        }
+    }
+
+    private static String requireValue(String[] args, int index, String flag)
+            throws TeamMateException.InvalidInputException {
+        if (index >= args.length) {
+            throw new TeamMateException.InvalidInputException("Missing value for " + flag);
+        }
+        return args[index];
+    }
+
+    // Status code and JSON body produced by a route
+    private static class ApiResponse {
+        final int status;
+        final Map<String, Object> body;
+
+        ApiResponse(int status, Map<String, Object> body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    // Names fallback pool threads so they are recognisable in thread dumps
+    private static class ApiThreadFactory implements ThreadFactory {
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "teammate-api-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
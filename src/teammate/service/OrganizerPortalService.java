@@ -1,20 +1,33 @@
 package teammate.service;
 
 import teammate.entity.Participant;
-import teammate.entity.Team;
+import teammate.entity.TeamHistoryEntry;
+import teammate.exception.TeamMateException;
+import teammate.concurrent.FormationBudget;
+import teammate.concurrent.FormationListener;
 import teammate.concurrent.TeamFormationEngine;
-import teammate.util.FileManager;
+import teammate.repository.Repositories;
+import teammate.util.SystemLogger;
+import teammate.util.FormationFeasibility;
+import teammate.util.TeamRenderer;
 import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.*;
 
 import static teammate.Main.centerText;
 
 // Handles organizer-specific operations including team generation and export
 public class OrganizerPortalService extends PortalService {
+    private final TournamentSession session;
     private List<Participant> currentAssignmentPool;
 
-    public OrganizerPortalService(ParticipantManager participantManager, TeamBuilder teamBuilder) {
-        super(participantManager, teamBuilder);
+    // Listings longer than this are paged
+    private static final int PAGE_SIZE = 20;
+
+    public OrganizerPortalService(ParticipantManager participantManager, TournamentSession session) {
+        super(participantManager, session.getTeamBuilder());
+        this.session = session;
         this.currentAssignmentPool = new ArrayList<>();
     }
 
@@ -137,13 +150,30 @@ public class OrganizerPortalService extends PortalService {
             return;
         }
 
-        // Reset any previous generation
-        teamBuilder.resetCurrentGenerationStatus();// sq no. 1.3 of generate teams use case
-        Team.resetTeamCounter();
+        // Show what the pool can produce before any formation work is done
+        FormationFeasibility.Report feasibility = FormationFeasibility.analyze(participantsToUse, teamSize);
+        System.out.println("\nFeasibility: " + feasibility.describe());
+        if (feasibility.getMaxTeams() == 0) {
+            System.out.println("[X] No valid team can be formed. Adjust the pool or team size.");
+            return;
+        }
 
-        // Use engine for automatic mode selection
-        TeamFormationEngine engine = new TeamFormationEngine(teamBuilder);
-        int teamsFormed = engine.buildTeams(participantsToUse, teamSize);
+        // The session resets any previous generation and uses the engine's automatic mode selection
+        // Generation is bounded by -Dteammate.formation.budgetMs so a bad pool cannot hold the console
+        TeamFormationEngine.Result result;
+        try {
+            result = session.generate(participantsToUse, teamSize, // sq no. 1.3 of generate teams use case
+                    TeamFormationEngine.Mode.AUTO, FormationBudget.fromDefaults(), new ConsoleProgress());
+        } catch (TeamMateException.InvalidInputException e) {
+            System.out.println("\n[X] " + e.getMessage());
+            return;
+        }
+
+        int teamsFormed = result.getTeamsFormed();
+        if (result.isTimedOut()) {
+            System.out.println("\n[!] Time budget reached after " + result.getElapsedMillis() +
+                    " ms; keeping the teams formed so far.");
+        }
 
         if (teamsFormed > 0) {
             System.out.println("\n[OK] Successfully formed " + teamsFormed + " teams!");
@@ -163,7 +193,66 @@ public class OrganizerPortalService extends PortalService {
             return;
         }
 
-        teamBuilder.displayAllTeams();// sq no. 1.1 of view teams use case
+        if (teamBuilder.getTeamCount() <= PAGE_SIZE) {
+            teamBuilder.displayAllTeams();// sq no. 1.1 of view teams use case
+            return;
+        }
+
+        // Large listings are filtered and paged, or written to a file in one pass
+        System.out.print("Filter by game (blank for all): ");
+        String game = scanner.nextLine().trim();
+        double[] range = readSkillRange();
+        TeamRenderer.Filter filter = new TeamRenderer.Filter(game, range[0], range[1]);
+
+        int page = 1;
+        while (true) {
+            int matched = teamBuilder.displayTeams(filter, page, PAGE_SIZE);
+            int pages = TeamRenderer.pageCount(matched, PAGE_SIZE);
+
+            System.out.print("\n[n]ext, [p]revious, page number, [f]ile, or Enter to return: ");
+            String choice = scanner.nextLine().trim().toLowerCase();
+            if (choice.isEmpty()) return;
+
+            if (choice.equals("n")) {
+                page = Math.min(pages, page + 1);
+            } else if (choice.equals("p")) {
+                page = Math.max(1, page - 1);
+            } else if (choice.equals("f")) {
+                String filename = getNonEmptyInput("Enter filename for the listing (e.g., Teams_Nov2024.txt): ");
+                try {
+                    int written = teamBuilder.writeTeamListing(filter, filename);
+                    System.out.println("[OK] Wrote " + written + " teams to " + filename);
+                } catch (IOException e) {
+                    System.out.println("[X] Could not write " + filename + ": " + e.getMessage());
+                }
+                return;
+            } else {
+                try {
+                    page = Math.max(1, Math.min(pages, Integer.parseInt(choice)));
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid choice.");
+                }
+            }
+        }
+    }
+
+    // Reads "min-max" average skill bounds; blank or invalid input means no bound
+    private double[] readSkillRange() {
+        System.out.print("Average skill range, e.g. 4-6 (blank for any): ");
+        String input = scanner.nextLine().trim();
+        double[] range = {Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+        if (input.isEmpty()) return range;
+
+        String[] bounds = input.split("-", 2);
+        try {
+            range[0] = Double.parseDouble(bounds[0].trim());
+            range[1] = bounds.length > 1 ? Double.parseDouble(bounds[1].trim()) : range[0];
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid range; showing all skill levels.");
+            range[0] = Double.NEGATIVE_INFINITY;
+            range[1] = Double.POSITIVE_INFINITY;
+        }
+        return range;
     }
 
     // Searches for a specific team by ID in historical records
@@ -172,7 +261,88 @@ public class OrganizerPortalService extends PortalService {
 
         String teamId = getNonEmptyInput("Enter Team ID (e.g., TEAM0001): ");// sq no. 1.1 of search team use caase
 
-        FileManager.searchTeamById(teamId, participantManager);// sq no. 1.2 of search team use case
+        showTeamDetails(teamId);// sq no. 1.2 of search team use case
+    }
+
+    // Displays full details of a recorded team for organizers
+    private void showTeamDetails(String teamId) {
+        SystemLogger.info(SystemLogger.LogCategory.PORTAL, () -> "Team search requested: " + teamId);
+
+        try {
+            TeamHistoryEntry entry = Repositories.teamHistory().findTeam(teamId);
+            if (entry == null) {
+                System.out.println("\n[X] Team ID '" + teamId + "' not found in records.");
+                SystemLogger.warning(SystemLogger.LogCategory.PORTAL, () -> "Team not found: " + teamId);
+                return;
+            }
+
+            System.out.println("\n" + "=".repeat(60));
+            System.out.println("TEAM DETAILS");
+            System.out.println("=".repeat(60));
+            System.out.println("Team ID: " + entry.getTeamId());
+            System.out.println("Formation Date: " + entry.getFormationDate());
+            System.out.println("Team Size: " + entry.getTeamSize());
+            System.out.println("Average Skill: " + entry.getAverageSkill());
+            System.out.println("=".repeat(60));
+
+            List<String> ids = entry.getMemberIds();
+            System.out.println("\nTeam Members:");
+
+            Map<String, Integer> roleCount = new HashMap<>();
+            Map<String, Integer> gameCount = new HashMap<>();
+            int leaderCount = 0;
+            int thinkerCount = 0;
+            int balancedCount = 0;
+
+            // Display each member and calculate distributions
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                Participant p = participantManager.findParticipant(id);// sq no. 1.2.2 of search team use case
+
+                if (p != null) {
+                    System.out.printf("%d. %s - %s | Game: %s | Skill: %d | Role: %s | Type: %s\n",
+                            (i + 1), p.getId(), p.getName(), p.getPreferredGame(),
+                            p.getSkillLevel(), p.getPreferredRole(), p.getPersonalityType());
+
+                    roleCount.put(p.getPreferredRole(),
+                            roleCount.getOrDefault(p.getPreferredRole(), 0) + 1);
+                    gameCount.put(p.getPreferredGame(),
+                            gameCount.getOrDefault(p.getPreferredGame(), 0) + 1);
+
+                    String type = p.getPersonalityType();
+                    if (type.equals("Leader")) leaderCount++;
+                    else if (type.equals("Thinker")) thinkerCount++;
+                    else if (type.equals("Balanced")) balancedCount++;
+                } else {
+                    System.out.printf("%d. %s (Details not available)\n", (i + 1), id);
+                }
+            }
+
+            // Display all distributions
+            System.out.println("\nRole Distribution:");
+            roleCount.forEach((role, count) ->
+                    System.out.println("  " + role + ": " + count));
+
+            System.out.println("\nPersonality Distribution:");
+            System.out.println("  Leaders: " + leaderCount);
+            System.out.println("  Thinkers: " + thinkerCount);
+            System.out.println("  Balanced: " + balancedCount);
+
+            System.out.println("\nGame Distribution:");
+            gameCount.forEach((game, count) ->
+                    System.out.println("  " + game + ": " + count));
+
+            System.out.println("=".repeat(60));
+
+            SystemLogger.success(SystemLogger.LogCategory.PORTAL, () -> "Team found and displayed: " + teamId);
+
+        } catch (FileNotFoundException e) {
+            System.out.println("\n[X] No team records found.");
+            SystemLogger.error(SystemLogger.LogCategory.FILE, "Team records file not found");
+        } catch (IOException e) {
+            System.out.println("\n[X] Error reading team records: " + e.getMessage());
+            SystemLogger.logException(SystemLogger.LogCategory.FILE, "Error searching team", e);
+        }
     }
 
     // Exports teams to files and finalizes participant assignments
@@ -183,25 +353,17 @@ public class OrganizerPortalService extends PortalService {
         }
 
         List<Participant> assignedInRun = teamBuilder.collectAssignedParticipants();// sq no.1.1 of export teams use case
-        List<Participant> unassignedInRun = new ArrayList<>(currentAssignmentPool);
-        unassignedInRun.removeAll(assignedInRun);
+        List<Participant> unassignedInRun = session.getUnassigned();
 
         int assignedCount = assignedInRun.size();
         int unassignedCount = unassignedInRun.size();
 
-        String snapshotFilename = getNonEmptyInput("Enter filename for export (e.g., Teams_Nov2024.csv): ");//sq no.1.2 of export team use case
+        String snapshotFilename = getNonEmptyInput("Enter filename for export (e.g., Teams_Nov2024.csv, or .csv.gz to compress): ");//sq no.1.2 of export team use case
 
         System.out.println("\nExporting teams...");
 
-        // Export to both snapshot and cumulative files
-        teamBuilder.exportTeamsSnapshot(snapshotFilename);// sq no. 1.3 of export teams use case
-        teamBuilder.appendTeamsToCumulative();// sq. no. 1.4 of export teams use case
-
-        // Save team counter for sequential ID management
-        Team.saveTeamCounterToFile();
-
-        // Update participant status
-        teamBuilder.markParticipantsAssigned();
+        // Export to snapshot and cumulative files, save the team counter and update participant status
+        session.export(snapshotFilename);// sq no. 1.3 and 1.4 of export teams use case
         System.out.println("[OK] " + assignedCount + " participants assigned to teams.");
 
         // Handle unassigned participants
@@ -233,7 +395,6 @@ public class OrganizerPortalService extends PortalService {
 
         // Save changes and clear temporary data
         participantManager.saveAllParticipants();
-        teamBuilder.clearTeams();
         currentAssignmentPool.clear();
 
         System.out.println("\n[OK] Export complete! Teams saved to:");
@@ -297,4 +458,18 @@ public class OrganizerPortalService extends PortalService {
         System.out.println("│");
         System.out.println("└" + "─".repeat(78) + "┘");
     }
-}
\ No newline at end of file
+
+    // Prints formation progress at most once a second so long generations show they are moving
+    private static class ConsoleProgress implements FormationListener {
+        private static final long INTERVAL_NANOS = 1_000_000_000L;
+        private long lastPrinted = System.nanoTime();
+
+        @Override
+        public synchronized void progress(Progress progress) {
+            long now = System.nanoTime();
+            if (now - lastPrinted < INTERVAL_NANOS) return;
+            lastPrinted = now;
+            System.out.println("  ... " + progress.describe());
+        }
+    }
+}
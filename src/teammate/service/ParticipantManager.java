@@ -2,21 +2,46 @@ package teammate.service;
 
 import teammate.entity.Participant;
 import teammate.exception.TeamMateException;
-import teammate.concurrent.SurveyDataProcessor;
-import teammate.util.FileManager;
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
+import teammate.repository.Repositories;
+import teammate.util.BulkValidator;
+import teammate.util.CsvCodec;
+import teammate.util.PersonalityClassifier;
 import teammate.util.ValidationUtil;
 import teammate.util.SystemLogger;
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 // Manages participant data including loading, saving, and CSV processing
 public class ParticipantManager {
+    // Validation issues printed after an interactive upload; the rest are summarised in one line
+    private static final int VALIDATION_LINES_SHOWN = 10;
+
+    private static final LatencyHistogram lookupLatency = MetricsRegistry.histogram("participants.lookup");
+    private static final Counter lookupMisses = MetricsRegistry.counter("participants.lookup_misses");
+    private static final LatencyHistogram credentialCheckLatency =
+            MetricsRegistry.histogram("participants.credential_check");
+    private static final LatencyHistogram availableScanLatency =
+            MetricsRegistry.histogram("participants.find_available");
+
     private List<Participant> participants;
     private OrganizerPortalService organizerPortal;
 
+    // Case-insensitive ID and email lookups; guarded by the participants lock like the list itself
+    private final Map<String, Participant> idIndex = new HashMap<>();
+    private final Map<String, Participant> emailIndex = new HashMap<>();
+
+    // Notified outside the participants lock whenever new participants join the registry
+    private final List<Consumer<List<Participant>>> registrationListeners = new CopyOnWriteArrayList<>();
+
     public ParticipantManager() {
         this.participants = Collections.synchronizedList(new ArrayList<>());
         loadAllParticipants();
+        MetricsRegistry.gauge("participants.count", () -> participants.size());
     }
 
     // Sets organizer portal reference for displaying participant details
@@ -28,10 +53,13 @@ public class ParticipantManager {
     public void loadAllParticipants() {
         try {
             this.participants = Collections.synchronizedList(
-                    FileManager.loadAllParticipants());
-            SystemLogger.success("Loaded " + participants.size() + " participants");
+                    Repositories.participants().loadAll());
+            synchronized (participants) {
+                rebuildIndexes();
+            }
+            SystemLogger.success(SystemLogger.LogCategory.FILE, () -> "Loaded " + participants.size() + " participants");
         } catch (TeamMateException.FileReadException e) {
-            SystemLogger.error("Error loading participants: " + e.getMessage());
+            SystemLogger.error(SystemLogger.LogCategory.FILE, () -> "Error loading participants: " + e.getMessage());
             System.err.println("Error loading participants: " + e.getMessage());
         }
     }
@@ -40,52 +68,74 @@ public class ParticipantManager {
     public void saveAllParticipants() {
         try {
             synchronized (participants) {
-                FileManager.saveAllParticipants(new ArrayList<>(participants));
-                SystemLogger.success("Saved " + participants.size() + " participants");
+                Repositories.participants().saveAll(new ArrayList<>(participants));
+                SystemLogger.success(SystemLogger.LogCategory.FILE, () -> "Saved " + participants.size() + " participants");
             }
         } catch (TeamMateException.FileWriteException e) {
-            SystemLogger.error("Failed to save participants: " + e.getMessage());
+            SystemLogger.error(SystemLogger.LogCategory.FILE, () -> "Failed to save participants: " + e.getMessage());
             System.out.println("Warning: " + e.getMessage());
         }
     }
 
+    // Saves participants that were just registered or changed status. With the log store this writes only
+    // their records; with CSV the whole file is rewritten as saveAllParticipants does. Unlike saveAllParticipants
+    // a failure is thrown, so callers can tell the submitter their change was not kept
+    public void saveParticipants(List<Participant> changed) throws TeamMateException.FileWriteException {
+        if (changed.isEmpty()) return;
+        try {
+            synchronized (participants) {
+                Repositories.participants().saveChanged(changed, participants);
+            }
+        } catch (TeamMateException.FileWriteException e) {
+            SystemLogger.error(SystemLogger.LogCategory.FILE, () -> "Failed to save participants: " + e.getMessage());
+            throw e;
+        }
+    }
+
     // Validates participant credentials for uniqueness
     public String validateParticipantCredentials(String id, String email) {
         if (!ValidationUtil.isValidParticipantId(id)) { // sq no. 1.3.1 of submit survey use case
             return "INVALID_ID_FORMAT";
         }
 
-        synchronized (participants) {
-            for (Participant p : participants) {
-                if (p.getId().equalsIgnoreCase(id)) {
+        long start = System.nanoTime();
+        try {
+            synchronized (participants) {
+                if (idIndex.containsKey(indexKey(id))) {
                     return "ID_EXISTS";
                 }
-            }
-
-            for (Participant p : participants) {
-                if (p.getEmail().equalsIgnoreCase(email)) {
+                if (email != null && emailIndex.containsKey(indexKey(email))) {
                     return "EMAIL_EXISTS";
                 }
             }
-        }
 
-        return "VALID";
+            return "VALID";
+        } finally {
+            credentialCheckLatency.recordSince(start);
+        }
     }
 
     // Processes external CSV file with participant data for bulk upload
     public Map<String, Object> processExternalCSV(String filename, Scanner scanner)
             throws Exception {
+        return processExternalCSV(filename, scanner, false);
+    }
 
-        Map<String, Object> result = new HashMap<>();
-        SystemLogger.info("Starting CSV upload: " + filename);
+    // Non-interactive upload for batch jobs: previously assigned participants are included or skipped without prompting
+    public Map<String, Object> processExternalCSV(String filename, boolean includeAssigned)
+            throws Exception {
+        return processExternalCSV(filename, null, includeAssigned);
+    }
 
-        List<String> lines = readAllLines(filename); // sq no. 1.2.2 of upload csv use case
+    // Prompts through the scanner when one is given, otherwise applies includeAssigned silently
+    private Map<String, Object> processExternalCSV(String filename, Scanner scanner, boolean includeAssigned)
+            throws Exception {
 
-        if (lines.isEmpty()) {
-            throw new Exception("CSV file is empty");
-        }
+        Map<String, Object> result = new HashMap<>();
+        SystemLogger.info(SystemLogger.LogCategory.INGEST, () -> "Starting CSV upload: " + filename);
 
-        lines.remove(0);
+        BulkValidator.Report validation = new BulkValidator.Report();
+        List<ParticipantRecord> records = readRecords(filename, validation); // sq no. 1.2.2 of upload csv use case
 
         // Categorize participants by their current status in system
         List<Participant> sessionParticipants = new ArrayList<>();
@@ -94,11 +144,12 @@ public class ParticipantManager {
         List<String> duplicateAssigned = new ArrayList<>();
         Map<String, String> assignedDetails = new HashMap<>();
         List<String> invalidRecords = new ArrayList<>();
+        // IDs and emails of earlier new rows in this file, with the row each first appeared on
+        Map<String, Long> pendingRows = new HashMap<>();
 
         // Process each CSV line and categorize participants
         synchronized (participants) {
-            for (String line : lines) {
-                ParticipantRecord record = parseLine(line);
+            for (ParticipantRecord record : records) {
 
                 if (record.isValid()) {
                     Participant existing = findByIdOrEmail(record.getParticipant().getId(), // sq no. 1.2.4 of upload csv use case
@@ -110,7 +161,7 @@ public class ParticipantManager {
                             duplicateAvailable.add(record.getParticipant().getId() +
                                     " (" + record.getParticipant().getEmail() + ")");
                         } else if (existing.getStatus().equals("Assigned")) {
-                            String assignmentInfo = FileManager.findLatestAssignment(
+                            String assignmentInfo = Repositories.teamHistory().describeLatestAssignment(
                                     record.getParticipant().getId());
 
                             duplicateAssigned.add(record.getParticipant().getId() +
@@ -118,7 +169,12 @@ public class ParticipantManager {
                                     " (" + record.getParticipant().getEmail() + ")");
                             assignedDetails.put(record.getParticipant().getId(), assignmentInfo);
                         }
+                    } else if (repeatsEarlierRow(record, pendingRows, validation)) {
+                        // Repeats an earlier new row in this file; registering both would duplicate the person
+                        invalidRecords.add("Duplicate ID or email within file: " + record.getParticipant().getId());
                     } else {
+                        pendingRows.put("id:" + indexKey(record.getParticipant().getId()), record.getRowNumber());
+                        pendingRows.put("email:" + indexKey(record.getParticipant().getEmail()), record.getRowNumber());
                         sessionParticipants.add(record.getParticipant());
                         trulyNewParticipants.add(record.getParticipant());
                     }
@@ -133,20 +189,24 @@ public class ParticipantManager {
 
         // Handle participants already assigned to previous tournaments
         if (!duplicateAssigned.isEmpty()) {
-            System.out.println("\n" + "=".repeat(60));
-            System.out.println("[!] " + duplicateAssigned.size() +
-                    " participants already in previous tournaments");
-            System.out.println("=".repeat(60));
+            String choice = includeAssigned ? "Y" : "N";
 
-            System.out.print("View their details? (Y/N): ");
-            String viewDetails = scanner.nextLine().trim().toUpperCase();
+            if (scanner != null) {
+                System.out.println("\n" + "=".repeat(60));
+                System.out.println("[!] " + duplicateAssigned.size() +
+                        " participants already in previous tournaments");
+                System.out.println("=".repeat(60));
 
-            if (viewDetails.equals("Y") && organizerPortal != null) {
-                organizerPortal.displayAssignedParticipantsDetails(duplicateAssigned, assignedDetails);
-            }
+                System.out.print("View their details? (Y/N): ");
+                String viewDetails = scanner.nextLine().trim().toUpperCase();
 
-            System.out.print("\nInclude them in this NEW tournament? (Y/N): ");
-            String choice = scanner.nextLine().trim().toUpperCase();
+                if (viewDetails.equals("Y") && organizerPortal != null) {
+                    organizerPortal.displayAssignedParticipantsDetails(duplicateAssigned, assignedDetails);
+                }
+
+                System.out.print("\nInclude them in this NEW tournament? (Y/N): ");
+                choice = scanner.nextLine().trim().toUpperCase();
+            }
 
             if (choice.equals("Y")) {
                 synchronized (participants) {
@@ -157,7 +217,7 @@ public class ParticipantManager {
                         if (existing != null) {
                             sessionParticipants.add(existing);
                             assignedIncludedCount++;
-                            SystemLogger.info("Reusing participant " + participantId);
+                            SystemLogger.info(SystemLogger.LogCategory.INGEST, () -> "Reusing participant " + participantId);
                         }
                     }
                 }
@@ -165,7 +225,7 @@ public class ParticipantManager {
                 duplicateAssigned.clear();
 
             } else if (!choice.equals("N")) {
-                SystemLogger.info("CSV upload cancelled by user");
+                SystemLogger.info(SystemLogger.LogCategory.INGEST, "CSV upload cancelled by user");
                 result.put("cancelled", true);
                 result.put("reason", "Invalid choice - upload cancelled");
                 return result;
@@ -175,9 +235,23 @@ public class ParticipantManager {
         // Add new participants to master list
         if (!trulyNewParticipants.isEmpty()) {
             synchronized (participants) {
-                participants.addAll(trulyNewParticipants);
+                // A concurrent upload may have registered the same person since categorization
+                ListIterator<Participant> it = trulyNewParticipants.listIterator();
+                while (it.hasNext()) {
+                    Participant p = it.next();
+                    Participant existing = findByIdOrEmail(p.getId(), p.getEmail());
+                    if (existing != null) {
+                        sessionParticipants.set(sessionParticipants.indexOf(p), existing);
+                        it.remove();
+                    } else {
+                        participants.add(p);
+                        index(p);
+                    }
+                }
             }
-            SystemLogger.info("Added " + trulyNewParticipants.size() + " new participants to system");
+            SystemLogger.info(SystemLogger.LogCategory.INGEST,
+                    () -> "Added " + trulyNewParticipants.size() + " new participants to system");
+            notifyRegistered(trulyNewParticipants);
         }
 
         // Save changes to file if needed
@@ -186,107 +260,115 @@ public class ParticipantManager {
         }
 
         // Display upload summary
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("UPLOAD COMPLETE");
-        System.out.println("=".repeat(60));
-        System.out.println("Ready for team formation: " + sessionParticipants.size() + " participants");
+        if (scanner != null) {
+            System.out.println("\n" + "=".repeat(60));
+            System.out.println("UPLOAD COMPLETE");
+            System.out.println("=".repeat(60));
+            System.out.println("Ready for team formation: " + sessionParticipants.size() + " participants");
 
-        if (trulyNewParticipants.size() > 0) {
-            System.out.println("  - New participants: " + trulyNewParticipants.size());
-        }
-        if (duplicateAvailable.size() > 0) {
-            System.out.println("  - From previous uploads: " + duplicateAvailable.size());
-        }
-        if (assignedIncludedCount > 0) {
-            System.out.println("  - From past tournaments: " + assignedIncludedCount);
-        }
-        if (invalidRecords.size() > 0) {
-            System.out.println("  - Skipped (invalid): " + invalidRecords.size());
+            if (trulyNewParticipants.size() > 0) {
+                System.out.println("  - New participants: " + trulyNewParticipants.size());
+            }
+            if (duplicateAvailable.size() > 0) {
+                System.out.println("  - From previous uploads: " + duplicateAvailable.size());
+            }
+            if (assignedIncludedCount > 0) {
+                System.out.println("  - From past tournaments: " + assignedIncludedCount);
+            }
+            if (invalidRecords.size() > 0) {
+                System.out.println("  - Skipped (invalid): " + invalidRecords.size());
+            }
+            if (validation.hasIssues()) {
+                System.out.println("\nValidation issues:");
+                for (String line : validation.describe(VALIDATION_LINES_SHOWN)) {
+                    System.out.println("  " + line);
+                }
+            }
+            System.out.println("=".repeat(60));
         }
-        System.out.println("=".repeat(60));
 
         // Prepare result map for caller
         result.put("cancelled", false);
         result.put("newlyAdded", sessionParticipants);
+        result.put("newParticipants", trulyNewParticipants.size());
+        result.put("assignedIncluded", assignedIncludedCount);
         result.put("duplicateAvailable", duplicateAvailable.size());
         result.put("duplicateAssigned", duplicateAssigned.size());
         result.put("invalidRecords", invalidRecords.size());
+        result.put("validation", validation);
         result.put("statusChangesOccurred", statusChangesOccurred);
 
         return result;
     }
 
-    // Reads all lines from CSV file
-    private List<String> readAllLines(String filename) throws IOException {
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                lines.add(line);
+    // Reads every record after the header and validates them in column batches; quoted fields may contain
+    // commas or line breaks. Each invalid row keeps its first error, and the report lists all of them
+    private List<ParticipantRecord> readRecords(String filename, BulkValidator.Report report) throws Exception {
+        List<ParticipantRecord> records = new ArrayList<>();
+        try (CsvCodec.Reader reader = CsvCodec.Reader.open(filename)) {
+            CsvCodec.Row row = new CsvCodec.Row();
+            if (!reader.next(row)) {
+                throw new Exception("CSV file is empty");
             }
+
+            BulkValidator.Batch batch = new BulkValidator.Batch();
+            while (reader.next(row)) {
+                batch.add(row, reader.getRecordNumber());
+                if (batch.isFull()) {
+                    toRecords(batch, report, records);
+                }
+            }
+            toRecords(batch, report, records);
         }
-        return lines;
+        return records;
     }
 
-    // Parses CSV line and validates participant data using concurrent processing
-    private ParticipantRecord parseLine(String line) {
-        try {
-            String[] parts = line.split(",");
-            if (parts.length < 7) {
-                return ParticipantRecord.invalid("Insufficient columns in CSV");
-            }
+    // Validates the batch and turns its rows into records; valid rows are classified inline rather than
+    // through the per-survey executor, which costs a thread pool per row
+    private void toRecords(BulkValidator.Batch batch, BulkValidator.Report report, List<ParticipantRecord> records) {
+        BulkValidator.validate(batch, report);
 
-            String id = parts[0].trim();
-            String name = parts[1].trim();
-            String email = parts[2].trim();
-            String game = parts[3].trim();
-            int skill = Integer.parseInt(parts[4].trim());
-            String role = parts[5].trim();
-            int personalityScore = Integer.parseInt(parts[6].trim());
-
-            // Validate all input fields
-            if (!ValidationUtil.isValidParticipantId(id)) {
-                return ParticipantRecord.invalid("Invalid ID format: " + id);
-            }
-            if (!ValidationUtil.isValidEmail(email)) {
-                return ParticipantRecord.invalid("Invalid email: " + email);
-            }
-            if (!ValidationUtil.isValidSkillLevel(skill)) {
-                return ParticipantRecord.invalid("Invalid skill level: " + skill);
-            }
-            if (!ValidationUtil.isValidRole(role)) {
-                return ParticipantRecord.invalid("Invalid role: " + role);
+        for (int i = 0; i < batch.size(); i++) {
+            if (!batch.isValid(i)) {
+                records.add(ParticipantRecord.invalid(batch.getFirstError(i)));
+                continue;
             }
 
-            // Process personality using concurrent processor
-            SurveyDataProcessor.SurveyResult result = SurveyDataProcessor.processIndividualSurvey(
-                    id, name, email, game, skill, role, personalityScore
-            );
-
-            if (result.isSuccess()) {
-                return ParticipantRecord.valid(result.getParticipant());
-            } else {
-                return ParticipantRecord.invalid("Personality score too low: " + personalityScore);
-            }
+            int score = batch.getScore(i);
+            Participant participant = new Participant(batch.get(i, BulkValidator.ID), batch.get(i, BulkValidator.NAME),
+                    batch.get(i, BulkValidator.EMAIL), batch.get(i, BulkValidator.GAME), batch.getSkill(i),
+                    batch.get(i, BulkValidator.ROLE), score, PersonalityClassifier.classifyPersonality(score));
+            records.add(ParticipantRecord.valid(participant, batch.getRowNumber(i)));
+        }
+        batch.clear();
+    }
 
-        } catch (NumberFormatException e) {
-            return ParticipantRecord.invalid("Invalid number format in CSV");
-        } catch (Exception e) {
-            return ParticipantRecord.invalid("Processing error: " + e.getMessage());
+    // True when a new row's ID or email was already used by an earlier new row; the repeat goes in the report
+    private static boolean repeatsEarlierRow(ParticipantRecord record, Map<String, Long> pendingRows,
+                                             BulkValidator.Report report) {
+        Participant participant = record.getParticipant();
+        Long firstRow = pendingRows.get("id:" + indexKey(participant.getId()));
+        String column = BulkValidator.COLUMNS[BulkValidator.ID];
+        String value = participant.getId();
+        if (firstRow == null) {
+            firstRow = pendingRows.get("email:" + indexKey(participant.getEmail()));
+            column = BulkValidator.COLUMNS[BulkValidator.EMAIL];
+            value = participant.getEmail();
         }
+        if (firstRow == null) return false;
+
+        report.addRejectedRow(record.getRowNumber(), column, value,
+                "Duplicate " + column + " within file, first on row " + firstRow + "; row skipped");
+        return true;
     }
 
     // Finds participant by ID or email
     private Participant findByIdOrEmail(String id, String email) {
-        for (Participant p : participants) {
-            if (p.getId().equalsIgnoreCase(id)) {
-                return p;
-            }
-            if (email != null && p.getEmail().equalsIgnoreCase(email)) {
-                return p;
-            }
+        Participant byId = idIndex.get(indexKey(id));
+        if (byId != null || email == null) {
+            return byId;
         }
-        return null;
+        return emailIndex.get(indexKey(email));
     }
 
     // Adds a new participant to the system
@@ -296,35 +378,79 @@ public class ParticipantManager {
         }
 
         synchronized (participants) {
-            for (Participant p : participants) {
-                if (p.getId().equalsIgnoreCase(participant.getId())) {
-                    throw new TeamMateException.DuplicateParticipantException(
-                            "Participant with ID " + participant.getId() + " already exists");
-                }
+            if (idIndex.containsKey(indexKey(participant.getId()))) {
+                throw new TeamMateException.DuplicateParticipantException(
+                        "Participant with ID " + participant.getId() + " already exists");
             }
 
             participants.add(participant);
-            SystemLogger.info("Added new participant: " + participant.getId());
+            index(participant);
+            SystemLogger.info(SystemLogger.LogCategory.INGEST, () -> "Added new participant: " + participant.getId());
         }
+        notifyRegistered(Collections.singletonList(participant));
+    }
+
+    // Checks a whole batch against the indexes and adds the unique entries under a single lock hold.
+    // Returns one status per input, in order, using the same codes as validateParticipantCredentials
+    public List<String> registerParticipants(List<Participant> batch) {
+        List<String> statuses = new ArrayList<>(batch.size());
+        List<Participant> added = new ArrayList<>();
+
+        synchronized (participants) {
+            for (Participant participant : batch) {
+                String status;
+                if (!ValidationUtil.isValidParticipantId(participant.getId())) {
+                    status = "INVALID_ID_FORMAT";
+                } else if (idIndex.containsKey(indexKey(participant.getId()))) {
+                    status = "ID_EXISTS";
+                } else if (emailIndex.containsKey(indexKey(participant.getEmail()))) {
+                    status = "EMAIL_EXISTS";
+                } else {
+                    participants.add(participant);
+                    index(participant);
+                    added.add(participant);
+                    status = "VALID";
+                }
+                statuses.add(status);
+            }
+        }
+
+        SystemLogger.info(SystemLogger.LogCategory.INGEST,
+                () -> "Registered " + added.size() + " of " + batch.size() + " participants in batch");
+        if (!added.isEmpty()) {
+            notifyRegistered(added);
+        }
+        return statuses;
     }
 
     // Searches for participant by ID, email, or name
     public Participant findParticipant(String searchKey) {
-        synchronized (participants) {
-            for (Participant p : participants) {
-                if (p.getId().equalsIgnoreCase(searchKey) ||
-                        p.getEmail().equalsIgnoreCase(searchKey) ||
-                        p.getName().equalsIgnoreCase(searchKey)) {
-                    return p;
+        long start = System.nanoTime();
+        try {
+            synchronized (participants) {
+                Participant match = findByIdOrEmail(searchKey, searchKey);
+                if (match != null) {
+                    return match;
+                }
+
+                // Names are not unique, so they are matched by scanning
+                for (Participant p : participants) {
+                    if (p.getName().equalsIgnoreCase(searchKey)) {
+                        return p;
+                    }
                 }
             }
+            lookupMisses.increment();
+            return null;
+        } finally {
+            lookupLatency.recordSince(start);
         }
-        return null;
     }
 
     // Returns all participants with Available status
     public List<Participant> findAvailableParticipants() {
         List<Participant> available = new ArrayList<>();
+        long start = System.nanoTime();
         synchronized (participants) {
             for (Participant p : participants) {
                 if (p.getStatus().equals("Available")) {
@@ -332,6 +458,7 @@ public class ParticipantManager {
                 }
             }
         }
+        availableScanLatency.recordSince(start);
         return available;
     }
 
@@ -345,20 +472,65 @@ public class ParticipantManager {
     // Removes specified participants from the system
     public void removeParticipants(List<Participant> toRemove) {
         synchronized (participants) {
-            participants.removeAll(toRemove);
-            SystemLogger.info("Removed " + toRemove.size() + " participants");
+            Set<Participant> removing = Collections.newSetFromMap(new IdentityHashMap<>());
+            removing.addAll(toRemove);
+            participants.removeIf(removing::contains);
+            for (Participant p : toRemove) {
+                idIndex.remove(indexKey(p.getId()), p);
+                emailIndex.remove(indexKey(p.getEmail()), p);
+            }
+            SystemLogger.info(SystemLogger.LogCategory.INGEST, () -> "Removed " + toRemove.size() + " participants");
         }
     }
 
+    // Subscribes to newly registered participants (surveys, bulk registration and uploads)
+    public void addRegistrationListener(Consumer<List<Participant>> listener) {
+        registrationListeners.add(listener);
+    }
+
+    public void removeRegistrationListener(Consumer<List<Participant>> listener) {
+        registrationListeners.remove(listener);
+    }
+
+    private void notifyRegistered(List<Participant> added) {
+        for (Consumer<List<Participant>> listener : registrationListeners) {
+            try {
+                listener.accept(added);
+            } catch (RuntimeException e) {
+                SystemLogger.logException(SystemLogger.LogCategory.INGEST, "Registration listener failed", e);
+            }
+        }
+    }
+
+    // Earlier entries win when the file holds duplicates, matching the old first-match scans
+    private void rebuildIndexes() {
+        idIndex.clear();
+        emailIndex.clear();
+        for (Participant p : participants) {
+            index(p);
+        }
+    }
+
+    private void index(Participant participant) {
+        idIndex.putIfAbsent(indexKey(participant.getId()), participant);
+        emailIndex.putIfAbsent(indexKey(participant.getEmail()), participant);
+    }
+
+    private static String indexKey(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
     // Helper class for CSV parsing results
     private static class ParticipantRecord {
         private Participant participant;
         private String errorMessage;
         private boolean valid;
+        private long rowNumber;
 
-        static ParticipantRecord valid(Participant p) {
+        static ParticipantRecord valid(Participant p, long rowNumber) {
             ParticipantRecord record = new ParticipantRecord();
             record.participant = p;
+            record.rowNumber = rowNumber;
             record.valid = true;
             return record;
         }
@@ -373,5 +545,6 @@ public class ParticipantManager {
         boolean isValid() { return valid; }
         Participant getParticipant() { return participant; }
         String getErrorMessage() { return errorMessage; }
+        long getRowNumber() { return rowNumber; }
     }
 }
\ No newline at end of file
@@ -3,9 +3,14 @@ package teammate.service;
 import teammate.entity.Participant;
 import teammate.exception.TeamMateException;
 import teammate.concurrent.SurveyDataProcessor;
+import teammate.repository.Repositories;
 import teammate.util.ValidationUtil;
 import teammate.util.FileManager;
 import teammate.util.SystemLogger;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import static teammate.Main.centerText;
 
@@ -110,8 +115,14 @@ public class ParticipantPortalService extends PortalService {
             // Add participant to system
             participantManager.addParticipant(result.getParticipant());
 
-            // Save participant data to file immediately
-            participantManager.saveAllParticipants();
+            // Save participant data immediately; a survey that could not be saved is not kept
+            List<Participant> submitted = Collections.singletonList(result.getParticipant());
+            try {
+                participantManager.saveParticipants(submitted);
+            } catch (TeamMateException.FileWriteException e) {
+                participantManager.removeParticipants(submitted);
+                throw e;
+            }
 
             System.out.println("\n[OK] Survey submitted successfully!");
             System.out.println("Your Participant ID: " + result.getParticipant().getId());
@@ -121,7 +132,7 @@ public class ParticipantPortalService extends PortalService {
 
         } catch (Exception e) {
             System.out.println("Submission Failed: " + e.getMessage());
-            SystemLogger.logException("Survey submission error", e);
+            SystemLogger.logException(SystemLogger.LogCategory.PORTAL, "Survey submission error", e);
         }
     }
 
@@ -151,7 +162,38 @@ public class ParticipantPortalService extends PortalService {
 
         // Search for participant's team in finalized records
         System.out.println("\n   Searching team records...");
-        FileManager.findMostRecentParticipantTeam(p.getId(), participantManager); // sq no.1.3 of check my team use case
+        showMostRecentTeam(p.getId()); // sq no.1.3 of check my team use case
+    }
+
+    // Finds and displays the participant's most recent team from the team history
+    private void showMostRecentTeam(String participantId) {
+        SystemLogger.info(SystemLogger.LogCategory.PORTAL,
+                () -> "Searching most recent team for participant: " + participantId);
+
+        try {
+            FileManager.TeamRecord record =
+                    Repositories.teamHistory().findMostRecentTeam(participantId, participantManager);
+
+            if (record != null) {
+                System.out.println("\nFormation Date: " + record.getFormationDate());
+
+                // Display simplified team info for participants
+                record.getTeam().displayTeamInfoForParticipant();// sq no. 1.3.4 of check my team use case
+
+                SystemLogger.success(SystemLogger.LogCategory.PORTAL,
+                        () -> "Most recent team found: " + record.getTeam().getTeamId());
+            } else {
+                System.out.println("\n[X] No team assignment found in records.");
+                SystemLogger.warning(SystemLogger.LogCategory.PORTAL, () -> "No team found for participant: " + participantId);
+            }
+
+        } catch (FileNotFoundException e) {
+            System.out.println("\n[X] No team records found.");
+            SystemLogger.error(SystemLogger.LogCategory.FILE, "Team records file not found");
+        } catch (IOException e) {
+            System.out.println("\n[X] Error reading team records: " + e.getMessage());
+            SystemLogger.logException(SystemLogger.LogCategory.FILE, "Error finding participant team", e);
+        }
     }
 
     // Collects and validates personality survey responses
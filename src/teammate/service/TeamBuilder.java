@@ -1,15 +1,24 @@
 package teammate.service;
 
+import teammate.concurrent.FormationBudget;
 import teammate.entity.Participant;
 import teammate.entity.Team;
+import teammate.entity.TeamIdReservation;
+import teammate.repository.Repositories;
 import teammate.util.FileManager;
+import teammate.util.FormationFeasibility;
 import teammate.util.TeamFormationHelper;
+import teammate.util.TeamRenderer;
+import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 
 // Manages team formation and maintains team collection
 public class TeamBuilder {
     private List<Team> teams;
     private double overallAverageSkill;
+    private TeamIdReservation idReservation;
+    private volatile Consumer<Team> teamListener;
 
     public TeamBuilder() {
         this.teams = new ArrayList<>();
@@ -33,33 +42,67 @@ public class TeamBuilder {
         return overallAverageSkill;
     }
 
-    // Adds a team and assigns it a unique sequential ID
+    // Adds a team, numbering it from the reservation unless it already has an ID
     public void addTeam(Team team) {
         if (team != null) {
             team.setTargetSkillLevel(overallAverageSkill);
-            team.finalizeTeamId();
+            if (!team.hasTeamId()) {
+                team.setTeamId(ensureIdReservation(1).nextTeamId());
+            }
             this.teams.add(team);
         }
     }
 
-    // Displays all teams with their details and target skill level
-    public void displayAllTeams() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("GENERATED TEAMS (" + teams.size() + " teams)");
-        System.out.println("=".repeat(60));
-
-        if (overallAverageSkill > 0) {
-            System.out.println("Target Average Skill Level: " +
-                    String.format("%.2f", overallAverageSkill));
-            System.out.println("=".repeat(60));
+    // Returns the current reservation, replacing it with a fresh block when fewer than teams IDs remain
+    public TeamIdReservation ensureIdReservation(int teams) {
+        if (idReservation == null || idReservation.getRemaining() < teams) {
+            releaseIdReservation();
+            idReservation = Team.reserveTeamIds(teams);
         }
+        return idReservation;
+    }
 
-        for (Team team : teams) {
-            team.displayTeamInfo();// sq no. 1.1.1 of view teams use case
-            System.out.println();
+    // Called for each team buildTeams accepts, on the building thread; null to stop
+    public void setTeamListener(Consumer<Team> teamListener) {
+        this.teamListener = teamListener;
+    }
+
+    // Numbers subsequent teams from the given reservation instead of the shared counter
+    public void setIdReservation(TeamIdReservation reservation) {
+        this.idReservation = reservation;
+    }
+
+    // Returns unused reserved IDs to the shared counter and stops numbering from the reservation
+    public void releaseIdReservation() {
+        if (idReservation != null) {
+            Team.releaseTeamIds(idReservation);
+            idReservation = null;
         }
     }
 
+    // Returns the whole reservation, including IDs given to teams that are being thrown away unexported
+    public void discardIdReservation() {
+        if (idReservation != null) {
+            Team.discardTeamIds(idReservation);
+            idReservation = null;
+        }
+    }
+
+    // Displays all teams with their details and target skill level
+    public void displayAllTeams() {
+        displayTeams(TeamRenderer.Filter.all(), 1, 0);// sq no. 1.1.1 of view teams use case
+    }
+
+    // Prints one page of the teams matching the filter in a single buffered write; returns the match count
+    public int displayTeams(TeamRenderer.Filter filter, int page, int pageSize) {
+        return TeamRenderer.printTeams(teams, overallAverageSkill, filter, page, pageSize);
+    }
+
+    // Streams every team matching the filter to a text file; returns the number written
+    public int writeTeamListing(TeamRenderer.Filter filter, String filename) throws IOException {
+        return TeamRenderer.writeTeams(teams, overallAverageSkill, filter, filename);
+    }
+
     // Resets teams and reverts participant status for regeneration
     public void resetCurrentGenerationStatus() {
         if (teams.isEmpty()) return;
@@ -87,6 +130,11 @@ public class TeamBuilder {
 
     // Builds teams sequentially using greedy algorithm with balancing constraints
     public void buildTeams(List<Participant> participants, int teamSize) {
+        buildTeams(participants, teamSize, FormationBudget.unlimited());
+    }
+
+    // Same, stopping between attempts once the budget expires; teams already added are kept
+    public void buildTeams(List<Participant> participants, int teamSize, FormationBudget budget) {
         if (participants == null || participants.isEmpty()) {
             System.out.println("No participants available for team formation");
             return;
@@ -103,18 +151,28 @@ public class TeamBuilder {
         int expectedTeams = Math.max(1, available.size() / teamSize);
         this.overallAverageSkill = (double) totalSkill / (expectedTeams * teamSize);
 
+        // No attempts are spent once the pool's upper bound has been reached
+        int maxTeams = FormationFeasibility.analyze(available, teamSize).getMaxTeams();
+        if (maxTeams == 0) return;
+        ensureIdReservation(maxTeams);
+        int formed = 0;
+
         Collections.shuffle(available);
 
         int attempts = 0;
         double skillTolerance = 0.10;
 
         // Continue forming teams while enough participants remain
-        while (available.size() >= teamSize && attempts < 50) {
+        while (formed < maxTeams && available.size() >= teamSize && attempts < 50 && !budget.expired()) {
             Team team = TeamFormationHelper.buildSingleTeam(available, teamSize,
                     overallAverageSkill, skillTolerance);
 
             if (team != null && TeamFormationHelper.isTeamValid(team)) {
                 addTeam(team);
+                formed++;
+
+                Consumer<Team> listener = teamListener;
+                if (listener != null) listener.accept(team);
 
                 // Remove assigned members from available pool
                 for (Participant member : team.getMembers()) {
@@ -128,6 +186,7 @@ public class TeamBuilder {
                 // Gradually increase tolerance if struggling to form teams
                 if (attempts % 10 == 0 && skillTolerance < 0.15) {
                     skillTolerance += 0.02;
+                    TeamFormationHelper.recordToleranceEscalation();
                     Collections.shuffle(available);
                 }
             }
@@ -146,12 +205,25 @@ public class TeamBuilder {
 
     // Exports current teams to snapshot file
     public void exportTeamsSnapshot(String filename) throws Exception {
-        FileManager.exportTeamsSnapshot(teams, filename);//sq no. 1.3.1 of export teams use case
+        FileManager.exportTeamsSnapshot(teams, filename);
     }
 
     // Appends teams to cumulative records with timestamp
     public void appendTeamsToCumulative() throws Exception {
-        FileManager.appendTeamsToCumulative(teams);
+        Repositories.teamHistory().append(teams);
+    }
+
+    // Writes the snapshot and records the teams in the team history; a snapshot named *.gz is gzipped
+    public void exportTeams(String snapshotFilename) throws Exception {
+        Repositories.teamHistory().export(teams, snapshotFilename, snapshotFilename.endsWith(".gz"));//sq no. 1.3.1 of export teams use case
+    }
+
+    // Writes snapshot and cumulative records, persists the team counter and marks members assigned
+    public void finalizeExport(String snapshotFilename) throws Exception {
+        exportTeams(snapshotFilename);
+        releaseIdReservation();
+        Team.saveTeamCounterToFile();
+        markParticipantsAssigned();
     }
 
     // Returns all participants currently assigned to teams
@@ -304,8 +304,7 @@ public class TeamMateSystem {
         String snapshotFilename = scanner.nextLine().trim();
 
         // Export teams
-        teamBuilder.exportTeamsSnapshot(snapshotFilename);
-        teamBuilder.appendTeamsToCumulative();
+        teamBuilder.exportTeams(snapshotFilename);
 
         // Handle unassigned participants
         List<Participant> unassigned = participantManager.getAvailableParticipants();
@@ -0,0 +1,155 @@
+package teammate.service;
+
+import teammate.concurrent.FormationBudget;
+import teammate.concurrent.FormationListener;
+import teammate.concurrent.TeamFormationEngine;
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.exception.TeamMateException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+// One tournament's formation state: its claimed participant pool, its own team builder and reserved team IDs.
+// Sessions opened from the same TournamentSessionManager can generate and export concurrently
+public class TournamentSession {
+    private final String name;
+    private final TournamentSessionManager manager;
+    private final TeamBuilder teamBuilder;
+    private List<Participant> pool = new ArrayList<>();
+    private int teamSize;
+
+    // Budget of the generation in progress, readable without the session lock so another thread can cancel it
+    private volatile FormationBudget activeBudget;
+
+    // Latest progress of the running or last generation, for polling without the session lock
+    private volatile FormationListener.Progress progress;
+
+    TournamentSession(String name, TournamentSessionManager manager, TeamBuilder teamBuilder) {
+        this.name = name;
+        this.manager = manager;
+        this.teamBuilder = teamBuilder;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public TeamBuilder getTeamBuilder() {
+        return teamBuilder;
+    }
+
+    public synchronized List<Participant> getPool() {
+        return new ArrayList<>(pool);
+    }
+
+    public synchronized int getTeamSize() {
+        return teamSize;
+    }
+
+    public synchronized boolean hasTeams() {
+        return teamBuilder.getTeamCount() > 0;
+    }
+
+    // Claims the candidates, reserves enough IDs and forms teams within the default time budget
+    public TeamFormationEngine.Result generate(List<Participant> candidates, int teamSize, TeamFormationEngine.Mode mode)
+            throws TeamMateException.InvalidInputException, InterruptedException, ExecutionException {
+        return generate(candidates, teamSize, mode, FormationBudget.fromDefaults());
+    }
+
+    public TeamFormationEngine.Result generate(List<Participant> candidates, int teamSize,
+                                               TeamFormationEngine.Mode mode, FormationBudget budget)
+            throws TeamMateException.InvalidInputException, InterruptedException, ExecutionException {
+        return generate(candidates, teamSize, mode, budget, null);
+    }
+
+    // Replaces any unexported generation; on timeout or cancel the teams formed so far stay in the session
+    // and the listener, if any, sees teams and progress as they are published
+    public synchronized TeamFormationEngine.Result generate(List<Participant> candidates, int teamSize,
+                                                            TeamFormationEngine.Mode mode, FormationBudget budget,
+                                                            FormationListener listener)
+            throws TeamMateException.InvalidInputException, InterruptedException, ExecutionException {
+        discard();
+
+        List<Participant> claimed = manager.claim(this, candidates);
+        if (claimed.size() < teamSize) {
+            manager.release(this, claimed);
+            int held = candidates.size() - claimed.size();
+            throw new TeamMateException.InvalidInputException("Not enough participants. Need at least " + teamSize +
+                    ", have " + claimed.size() + (held > 0 ? " (" + held + " held by other sessions)" : ""));
+        }
+
+        this.pool = claimed;
+        this.teamSize = teamSize;
+        teamBuilder.setIdReservation(Team.reserveTeamIds(claimed.size() / teamSize));
+
+        TeamFormationEngine engine = new TeamFormationEngine(teamBuilder);
+        engine.addListener(new FormationListener() {
+            @Override
+            public void progress(FormationListener.Progress latest) {
+                progress = latest;
+            }
+        });
+        if (listener != null) engine.addListener(listener);
+
+        progress = null;
+        activeBudget = budget;
+        try {
+            return engine.buildTeams(claimed, teamSize, mode, budget);
+        } finally {
+            activeBudget = null;
+        }
+    }
+
+    // Null until the first team of a generation is published
+    public FormationListener.Progress getProgress() {
+        return progress;
+    }
+
+    public boolean isGenerating() {
+        return activeBudget != null;
+    }
+
+    // Asks a running generation to stop at its next check; returns false when nothing is running
+    public boolean cancelGeneration() {
+        FormationBudget budget = activeBudget;
+        if (budget == null) return false;
+        budget.cancel();
+        return true;
+    }
+
+    // Pool members the current generation left without a team
+    public synchronized List<Participant> getUnassigned() {
+        Set<Participant> assigned = Collections.newSetFromMap(new IdentityHashMap<>());
+        assigned.addAll(teamBuilder.collectAssignedParticipants());
+
+        List<Participant> unassigned = new ArrayList<>();
+        for (Participant p : pool) {
+            if (!assigned.contains(p)) unassigned.add(p);
+        }
+        return unassigned;
+    }
+
+    // Writes the snapshot and history, persists IDs and assignments, then frees the pool for other sessions
+    public synchronized int export(String snapshotFilename) throws Exception {
+        if (teamBuilder.getTeamCount() == 0) {
+            throw new TeamMateException.InvalidInputException("No teams to export. Generate teams first.");
+        }
+
+        int exported = teamBuilder.getTeamCount();
+        teamBuilder.finalizeExport(snapshotFilename);
+        teamBuilder.clearTeams();
+
+        manager.release(this, pool);
+        pool = new ArrayList<>();
+        return exported;
+    }
+
+    // Drops an unexported generation: members become Available again and all its reserved IDs are returned
+    public synchronized void discard() {
+        teamBuilder.resetCurrentGenerationStatus();
+        teamBuilder.discardIdReservation();
+
+        manager.release(this, pool);
+        pool = new ArrayList<>();
+    }
+}
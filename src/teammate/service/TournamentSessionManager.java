@@ -0,0 +1,68 @@
+package teammate.service;
+
+import teammate.entity.Participant;
+import java.util.*;
+
+// Opens named tournament sessions and makes sure a participant is claimed by at most one of them at a time
+public class TournamentSessionManager {
+    private final Map<String, TournamentSession> sessions = new LinkedHashMap<>();
+    private final Map<Participant, TournamentSession> claims = new IdentityHashMap<>();
+
+    // Opens a session with its own team builder
+    public synchronized TournamentSession open(String name) {
+        return open(name, new TeamBuilder());
+    }
+
+    // Opens a session around an existing builder, e.g. the one shared with the console portals
+    public synchronized TournamentSession open(String name, TeamBuilder teamBuilder) {
+        if (sessions.containsKey(name)) {
+            throw new IllegalStateException("Session already open: " + name);
+        }
+        TournamentSession session = new TournamentSession(name, this, teamBuilder);
+        sessions.put(name, session);
+        return session;
+    }
+
+    public synchronized TournamentSession getOrOpen(String name) {
+        TournamentSession session = sessions.get(name);
+        return session != null ? session : open(name);
+    }
+
+    public synchronized TournamentSession get(String name) {
+        return sessions.get(name);
+    }
+
+    public synchronized List<String> getSessionNames() {
+        return new ArrayList<>(sessions.keySet());
+    }
+
+    // Discards any unexported generation and forgets the session
+    public void close(TournamentSession session) {
+        session.discard();
+        synchronized (this) {
+            sessions.remove(session.getName(), session);
+        }
+    }
+
+    public synchronized int getClaimedCount() {
+        return claims.size();
+    }
+
+    // Returns the candidates this session now owns; anyone held by another session is left out
+    synchronized List<Participant> claim(TournamentSession session, List<Participant> candidates) {
+        List<Participant> claimed = new ArrayList<>(candidates.size());
+        for (Participant p : candidates) {
+            TournamentSession owner = claims.putIfAbsent(p, session);
+            if (owner == null || owner == session) {
+                claimed.add(p);
+            }
+        }
+        return claimed;
+    }
+
+    synchronized void release(TournamentSession session, Collection<Participant> participants) {
+        for (Participant p : participants) {
+            claims.remove(p, session);
+        }
+    }
+}
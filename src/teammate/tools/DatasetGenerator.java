@@ -0,0 +1,490 @@
+package teammate.tools;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+// Streams synthetic participant CSVs (and optional matching history) for load testing
+public class DatasetGenerator {
+    private static final String UPLOAD_HEADER = "ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore";
+    private static final String REGISTRY_HEADER =
+            "ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType,Status";
+    private static final String HISTORY_HEADER = "Timestamp,TeamID,TeamSize,AvgSkill,MemberIDs";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey",
+            "Riley", "Jamie", "Avery", "Quinn", "Harper", "Rowan", "Kai", "Devon", "Emery", "Sasha"};
+    private static final String[] LAST_NAMES = {"Perera", "Silva", "Fernando", "Smith", "Jones", "Brown",
+            "Garcia", "Khan", "Nguyen", "Okafor", "Muller", "Rossi", "Tanaka", "Kowalski", "Dubois", "Haddad"};
+
+    // Kinds of malformed rows produced at the invalid-row rate
+    private enum InvalidKind {
+        MISSING_COLUMNS, BAD_ID, BAD_EMAIL, NON_NUMERIC_SKILL, SKILL_OUT_OF_RANGE, BAD_ROLE, LOW_PERSONALITY
+    }
+
+    private final Options options;
+
+    public DatasetGenerator(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        try {
+            Options options = Options.parse(args);
+            Summary summary = new DatasetGenerator(options).generate();
+            System.out.println(summary);
+        } catch (IllegalArgumentException e) {
+            System.err.println("[X] " + e.getMessage());
+            System.err.println(Options.USAGE);
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("[X] Generation failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Writes all requested files in a single pass each; memory use does not depend on row count
+    public Summary generate() throws IOException {
+        Summary summary = new Summary();
+        long started = System.nanoTime();
+
+        if (options.historyFile != null || options.registryFile != null) {
+            writeHistoricalParticipants(summary);
+        }
+        writeUpload(summary);
+
+        summary.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return summary;
+    }
+
+    private void writeUpload(Summary summary) throws IOException {
+        try (Writer out = openWriter(options.outputFile)) {
+            StringBuilder row = new StringBuilder(160);
+            out.write(UPLOAD_HEADER);
+            out.write('\n');
+
+            for (long i = 0; i < options.rows; i++) {
+                SplittableRandom random = randomFor(i, 0x5EED);
+                row.setLength(0);
+
+                double roll = random.nextDouble();
+                double threshold = options.invalidRate;
+
+                if (roll < threshold) {
+                    appendInvalidRow(row, i, random);
+                    summary.invalidRows++;
+                } else if (roll < (threshold += options.duplicateIdRate) && i > 0) {
+                    long original = random.nextLong(i);
+                    appendUploadRow(row, newParticipant(original));
+                    summary.duplicateIdRows++;
+                } else if (roll < (threshold += options.duplicateEmailRate) && i > 0) {
+                    Person person = newParticipant(i);
+                    person.email = emailFor(random.nextLong(i));
+                    appendUploadRow(row, person);
+                    summary.duplicateEmailRows++;
+                } else if (roll < threshold + options.assignedRate && historicalCount() > 0) {
+                    appendUploadRow(row, historicalParticipant(random.nextLong(historicalCount())));
+                    summary.previouslyAssignedRows++;
+                } else {
+                    appendUploadRow(row, newParticipant(i));
+                    summary.newRows++;
+                }
+
+                row.append('\n');
+                out.append(row);
+
+                if (options.progressEvery > 0 && (i + 1) % options.progressEvery == 0) {
+                    System.out.println("  ... " + (i + 1) + " rows written");
+                }
+            }
+        }
+        summary.uploadRows = options.rows;
+    }
+
+    // Writes the registry of already-assigned participants and the team history that covers them
+    private void writeHistoricalParticipants(Summary summary) throws IOException {
+        long count = historicalCount();
+        int teamSize = options.historyTeamSize;
+
+        try (Writer registry = options.registryFile == null ? Writer.nullWriter() : openWriter(options.registryFile);
+             Writer history = options.historyFile == null ? Writer.nullWriter() : openWriter(options.historyFile)) {
+
+            registry.write(REGISTRY_HEADER);
+            registry.write('\n');
+            history.write(HISTORY_HEADER);
+            history.write('\n');
+
+            StringBuilder row = new StringBuilder(160);
+            StringBuilder memberIds = new StringBuilder(teamSize * 10);
+            LocalDateTime formedAt = LocalDateTime.now().minusDays(Math.max(1, count / teamSize / 1000 + 1));
+            long teamNumber = 0;
+            int membersInTeam = 0;
+            long teamSkill = 0;
+
+            for (long k = 0; k < count; k++) {
+                Person person = historicalParticipant(k);
+
+                row.setLength(0);
+                appendUploadRow(row, person);
+                row.append(',').append(personalityType(person.personalityScore)).append(",Assigned\n");
+                registry.append(row);
+
+                if (membersInTeam > 0) memberIds.append(';');
+                memberIds.append(person.id);
+                teamSkill += person.skill;
+                membersInTeam++;
+
+                if (membersInTeam == teamSize || k == count - 1) {
+                    teamNumber++;
+                    if (teamNumber % 1000 == 0) formedAt = formedAt.plusDays(1);
+
+                    row.setLength(0);
+                    row.append(formedAt.format(TIMESTAMP_FORMAT)).append(',')
+                            .append("TEAM").append(String.format("%04d", teamNumber)).append(',')
+                            .append(membersInTeam).append(',')
+                            .append(String.format("%.2f", (double) teamSkill / membersInTeam)).append(',')
+                            .append(memberIds).append('\n');
+                    history.append(row);
+
+                    memberIds.setLength(0);
+                    membersInTeam = 0;
+                    teamSkill = 0;
+                }
+            }
+
+            summary.historicalParticipants = count;
+            summary.historicalTeams = teamNumber;
+        }
+
+        if (options.counterFile != null) {
+            try (Writer counter = openWriter(options.counterFile)) {
+                counter.write(String.valueOf(summary.historicalTeams));
+            }
+        }
+    }
+
+    private long historicalCount() {
+        if (options.historySize >= 0) return options.historySize;
+        return (long) Math.ceil(options.rows * options.assignedRate);
+    }
+
+    // New participants use IDs P1..P<rows>; historical ones are numbered after them
+    private Person newParticipant(long index) {
+        return personFor(index + 1, randomFor(index, 0xA77));
+    }
+
+    private Person historicalParticipant(long index) {
+        long number = options.rows + index + 1;
+        return personFor(number, randomFor(number, 0x415));
+    }
+
+    private Person personFor(long number, SplittableRandom random) {
+        Person person = new Person();
+        person.id = "P" + number;
+        person.name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " +
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        person.email = emailFor(number - 1);
+        person.game = options.games.pick(random);
+        person.skill = options.skill.sample(random);
+        person.role = options.roles.pick(random);
+        person.personalityScore = samplePersonalityScore(random);
+        return person;
+    }
+
+    private int samplePersonalityScore(SplittableRandom random) {
+        double roll = random.nextDouble() * (options.leaderWeight + options.balancedWeight + options.thinkerWeight);
+        if (roll < options.leaderWeight) return 90 + random.nextInt(11);
+        if (roll < options.leaderWeight + options.balancedWeight) return 70 + random.nextInt(20);
+        return 50 + random.nextInt(20);
+    }
+
+    private static String emailFor(long index) {
+        return "player" + (index + 1) + "@example.com";
+    }
+
+    private void appendInvalidRow(StringBuilder row, long index, SplittableRandom random) {
+        Person person = newParticipant(index);
+        InvalidKind kind = InvalidKind.values()[random.nextInt(InvalidKind.values().length)];
+
+        switch (kind) {
+            case MISSING_COLUMNS:
+                row.append(person.id).append(',').append(person.name).append(',').append(person.email);
+                return;
+            case BAD_ID:
+                person.id = "X" + person.id.substring(1);
+                break;
+            case BAD_EMAIL:
+                person.email = person.email.replace("@", "_at_");
+                break;
+            case NON_NUMERIC_SKILL:
+                row.append(person.id).append(',').append(person.name).append(',')
+                        .append(person.email).append(',').append(person.game).append(",high,")
+                        .append(person.role).append(',').append(person.personalityScore);
+                return;
+            case SKILL_OUT_OF_RANGE:
+                person.skill = 11 + random.nextInt(90);
+                break;
+            case BAD_ROLE:
+                person.role = "Spectator";
+                break;
+            case LOW_PERSONALITY:
+                person.personalityScore = 20 + random.nextInt(30);
+                break;
+        }
+        appendUploadRow(row, person);
+    }
+
+    private static void appendUploadRow(StringBuilder row, Person person) {
+        row.append(person.id).append(',')
+                .append(person.name).append(',')
+                .append(person.email).append(',')
+                .append(person.game).append(',')
+                .append(person.skill).append(',')
+                .append(person.role).append(',')
+                .append(person.personalityScore);
+    }
+
+    private static String personalityType(int score) {
+        if (score >= 90) return "Leader";
+        if (score >= 70) return "Balanced";
+        return "Thinker";
+    }
+
+    // Every row derives its own generator from (seed, index) so output is reproducible without state
+    private SplittableRandom randomFor(long index, long stream) {
+        return new SplittableRandom(options.seed * 0x9E3779B97F4A7C15L + index * 0xBF58476D1CE4E5B9L + stream);
+    }
+
+    private static Writer openWriter(String filename) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(filename, false), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+
+    // Mutable row holder reused only within a single row
+    private static class Person {
+        String id;
+        String name;
+        String email;
+        String game;
+        int skill;
+        String role;
+        int personalityScore;
+    }
+
+    // Weighted categorical distribution parsed from "A:3,B:1"
+    static class WeightedChoice {
+        private final String[] values;
+        private final double[] cumulative;
+
+        WeightedChoice(String spec) {
+            String[] entries = spec.split(",");
+            values = new String[entries.length];
+            cumulative = new double[entries.length];
+
+            double total = 0;
+            for (int i = 0; i < entries.length; i++) {
+                String entry = entries[i].trim();
+                int colon = entry.lastIndexOf(':');
+                double weight = 1;
+                if (colon > 0 && isNumber(entry.substring(colon + 1))) {
+                    weight = Double.parseDouble(entry.substring(colon + 1));
+                    entry = entry.substring(0, colon);
+                }
+                if (weight < 0 || entry.isEmpty()) {
+                    throw new IllegalArgumentException("Invalid weighted entry: " + entries[i]);
+                }
+                values[i] = entry;
+                total += weight;
+                cumulative[i] = total;
+            }
+
+            if (total <= 0) throw new IllegalArgumentException("Weights must sum to more than 0: " + spec);
+        }
+
+        // Game names such as "CS:GO" contain colons, so only a numeric suffix is a weight
+        private static boolean isNumber(String text) {
+            try {
+                Double.parseDouble(text);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+
+        String pick(SplittableRandom random) {
+            double roll = random.nextDouble() * cumulative[cumulative.length - 1];
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) return values[i];
+            }
+            return values[values.length - 1];
+        }
+    }
+
+    // Skill distribution: "uniform" or "normal:<mean>:<stddev>", clamped to 1-10
+    static class SkillDistribution {
+        private final boolean normal;
+        private final double mean;
+        private final double stddev;
+
+        SkillDistribution(String spec) {
+            String[] parts = spec.split(":");
+            if (parts[0].equalsIgnoreCase("uniform")) {
+                normal = false;
+                mean = 0;
+                stddev = 0;
+            } else if (parts[0].equalsIgnoreCase("normal") && parts.length == 3) {
+                normal = true;
+                mean = Double.parseDouble(parts[1]);
+                stddev = Double.parseDouble(parts[2]);
+            } else {
+                throw new IllegalArgumentException("Invalid skill distribution: " + spec);
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            if (!normal) return 1 + random.nextInt(10);
+
+            // Box-Muller transform
+            double u1 = Math.max(Double.MIN_VALUE, random.nextDouble());
+            double u2 = random.nextDouble();
+            double z = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+            return (int) Math.max(1, Math.min(10, Math.round(mean + z * stddev)));
+        }
+    }
+
+    // Command-line options with defaults that resemble a typical tournament upload
+    public static class Options {
+        static final String USAGE = String.join("\n",
+                "Usage: java teammate.tools.DatasetGenerator --rows <n> --out <file> [options]",
+                "  --seed <n>                   random seed (default 42)",
+                "  --skill uniform|normal:m:sd  skill distribution (default uniform)",
+                "  --personality L:B:T          Leader:Balanced:Thinker weights (default 15:50:35)",
+                "  --games A:w,B:w,...          preferred game weights",
+                "  --roles A:w,B:w,...          preferred role weights",
+                "  --invalid-rate <0-1>         malformed or rejected rows",
+                "  --duplicate-id-rate <0-1>    rows repeating an earlier participant",
+                "  --duplicate-email-rate <0-1> new IDs reusing an earlier email",
+                "  --assigned-rate <0-1>        rows naming previously assigned participants",
+                "  --history <file>             write matching formed_teams_cumulative.csv",
+                "  --registry <file>            write matching all_registered_participants.csv",
+                "  --counter <file>             write matching team_counter.dat",
+                "  --history-size <n>           previously assigned participants (default rows*assigned-rate)",
+                "  --history-team-size <n>      team size used in the history (default 5)",
+                "  --progress <n>               print progress every n rows (default 1000000)");
+
+        long rows = -1;
+        String outputFile;
+        long seed = 42;
+        SkillDistribution skill = new SkillDistribution("uniform");
+        double leaderWeight = 15;
+        double balancedWeight = 50;
+        double thinkerWeight = 35;
+        WeightedChoice games = new WeightedChoice("Valorant,DOTA 2,FIFA,CS:GO,Chess,Basketball");
+        WeightedChoice roles = new WeightedChoice("Strategist,Attacker,Defender,Supporter,Coordinator");
+        double invalidRate = 0.01;
+        double duplicateIdRate = 0.01;
+        double duplicateEmailRate = 0.005;
+        double assignedRate = 0.0;
+        String historyFile;
+        String registryFile;
+        String counterFile;
+        long historySize = -1;
+        int historyTeamSize = 5;
+        long progressEvery = 1_000_000;
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+
+            for (int i = 0; i < args.length; i++) {
+                String flag = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + flag);
+                String value = args[++i];
+
+                try {
+                    switch (flag) {
+                        case "--rows": options.rows = Long.parseLong(value); break;
+                        case "--out": options.outputFile = value; break;
+                        case "--seed": options.seed = Long.parseLong(value); break;
+                        case "--skill": options.skill = new SkillDistribution(value); break;
+                        case "--personality": options.parsePersonality(value); break;
+                        case "--games": options.games = new WeightedChoice(value); break;
+                        case "--roles": options.roles = new WeightedChoice(value); break;
+                        case "--invalid-rate": options.invalidRate = rate(flag, value); break;
+                        case "--duplicate-id-rate": options.duplicateIdRate = rate(flag, value); break;
+                        case "--duplicate-email-rate": options.duplicateEmailRate = rate(flag, value); break;
+                        case "--assigned-rate": options.assignedRate = rate(flag, value); break;
+                        case "--history": options.historyFile = value; break;
+                        case "--registry": options.registryFile = value; break;
+                        case "--counter": options.counterFile = value; break;
+                        case "--history-size": options.historySize = Long.parseLong(value); break;
+                        case "--history-team-size": options.historyTeamSize = Integer.parseInt(value); break;
+                        case "--progress": options.progressEvery = Long.parseLong(value); break;
+                        default: throw new IllegalArgumentException("Unknown option: " + flag);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number for " + flag + ": " + value);
+                }
+            }
+
+            if (options.rows < 0 || options.outputFile == null) {
+                throw new IllegalArgumentException("--rows and --out are required");
+            }
+            if (options.historyTeamSize < 1) {
+                throw new IllegalArgumentException("--history-team-size must be at least 1");
+            }
+            if (options.invalidRate + options.duplicateIdRate + options.duplicateEmailRate + options.assignedRate > 1) {
+                throw new IllegalArgumentException("Row rates must add up to at most 1");
+            }
+            return options;
+        }
+
+        private void parsePersonality(String value) {
+            String[] parts = value.split(":");
+            if (parts.length != 3) throw new IllegalArgumentException("--personality expects L:B:T");
+            leaderWeight = Double.parseDouble(parts[0]);
+            balancedWeight = Double.parseDouble(parts[1]);
+            thinkerWeight = Double.parseDouble(parts[2]);
+            if (leaderWeight < 0 || balancedWeight < 0 || thinkerWeight < 0 ||
+                    leaderWeight + balancedWeight + thinkerWeight <= 0) {
+                throw new IllegalArgumentException("--personality weights must be non-negative");
+            }
+        }
+
+        private static double rate(String flag, String value) {
+            double rate = Double.parseDouble(value);
+            if (rate < 0 || rate > 1) throw new IllegalArgumentException(flag + " must be between 0 and 1");
+            return rate;
+        }
+    }
+
+    // Counts of what was written, printed when run from the command line
+    public static class Summary {
+        long uploadRows;
+        long newRows;
+        long duplicateIdRows;
+        long duplicateEmailRows;
+        long previouslyAssignedRows;
+        long invalidRows;
+        long historicalParticipants;
+        long historicalTeams;
+        long elapsedMillis;
+
+        public long getUploadRows() { return uploadRows; }
+        public long getHistoricalTeams() { return historicalTeams; }
+
+        @Override
+        public String toString() {
+            return "[OK] Generated " + uploadRows + " rows in " + elapsedMillis + " ms" +
+                    "\n  - New participants: " + newRows +
+                    "\n  - Duplicate IDs: " + duplicateIdRows +
+                    "\n  - Duplicate emails: " + duplicateEmailRows +
+                    "\n  - Previously assigned: " + previouslyAssignedRows +
+                    "\n  - Invalid rows: " + invalidRows +
+                    (historicalTeams > 0 ? "\n  - History: " + historicalTeams + " teams, " +
+                            historicalParticipants + " participants" : "");
+        }
+    }
+}
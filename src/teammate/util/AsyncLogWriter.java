@@ -0,0 +1,209 @@
+package teammate.util;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Background log writer that drains the ring buffer in batches into a single open file handle
+final class AsyncLogWriter {
+    private static final int BATCH_SIZE = 512;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCKED_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final DateTimeFormatter TIMESTAMP_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // What producers do when the ring buffer is full
+    enum OverflowPolicy {
+        BLOCK,      // wait for the writer to free a slot (no loss)
+        DROP,       // discard the new event and count it
+        DROP_INFO   // discard INFO/SUCCESS events, block for WARNING/ERROR
+    }
+
+    private final LogRingBuffer buffer;
+    private final OverflowPolicy policy;
+    private final Writer out;
+    private final Thread writerThread;
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+    private volatile long writtenPosition;
+
+    // Consumer-side state
+    private long consumedPosition;
+    private long reportedDrops;
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedTimestamp;
+
+    AsyncLogWriter(String logFile, int bufferSize, OverflowPolicy policy) throws IOException {
+        this.buffer = new LogRingBuffer(bufferSize);
+        this.policy = policy;
+        this.out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(logFile, true), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+
+        this.writerThread = new Thread(this::runLoop, "teammate-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Enqueues an event; returns false if the writer has already shut down
+    boolean append(LogRingBuffer.LogEvent event) {
+        if (!running) return false;
+
+        if (!buffer.offer(event)) {
+            boolean mayDrop = policy == OverflowPolicy.DROP ||
+                    (policy == OverflowPolicy.DROP_INFO &&
+                            (event.level == SystemLogger.LogLevel.INFO ||
+                                    event.level == SystemLogger.LogLevel.SUCCESS));
+
+            if (mayDrop) {
+                dropped.increment();
+                return true;
+            }
+
+            if (!offerBlocking(event)) return false;
+        }
+
+        if (sleeping) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    // Waits until every event enqueued before this call has reached the file
+    void flush(long timeoutMillis) {
+        long target = buffer.producerPosition();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        while (writtenPosition < target && writerThread.isAlive() && System.nanoTime() < deadline) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+        }
+    }
+
+    // Stops accepting events, drains what is queued and closes the file
+    void shutdown(long timeoutMillis) {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(writerThread);
+
+        try {
+            writerThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private boolean offerBlocking(LogRingBuffer.LogEvent event) {
+        int spins = 0;
+        while (!buffer.offer(event)) {
+            if (!running) return false;
+
+            LockSupport.unpark(writerThread);
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(BLOCKED_PARK_NANOS);
+            }
+        }
+        return true;
+    }
+
+    private void runLoop() {
+        StringBuilder line = new StringBuilder(256);
+
+        try {
+            while (true) {
+                int drained = drainBatch(line);
+
+                if (drained == 0) {
+                    flushQuietly();
+
+                    if (!running && buffer.isEmpty()) break;
+
+                    sleeping = true;
+                    if (buffer.isEmpty() && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    sleeping = false;
+                }
+            }
+        } finally {
+            flushQuietly();
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close log: " + e.getMessage());
+            }
+        }
+    }
+
+    private int drainBatch(StringBuilder line) {
+        int count = 0;
+        LogRingBuffer.LogEvent event;
+
+        while (count < BATCH_SIZE && (event = buffer.poll()) != null) {
+            line.setLength(0);
+            line.append('[').append(formatTimestamp(event.timestamp)).append("] [")
+                    .append(event.level).append("] ").append(event.message)
+                    .append(System.lineSeparator());
+            write(line);
+            count++;
+        }
+
+        consumedPosition += count;
+        reportDrops(line);
+        return count;
+    }
+
+    // Writes a single warning line summarising events lost since the last report
+    private void reportDrops(StringBuilder line) {
+        long total = dropped.sum();
+        if (total == reportedDrops) return;
+
+        line.setLength(0);
+        line.append('[').append(formatTimestamp(System.currentTimeMillis())).append("] [")
+                .append(SystemLogger.LogLevel.WARNING).append("] ")
+                .append("LOGGER: dropped ").append(total - reportedDrops)
+                .append(" events (buffer full)").append(System.lineSeparator());
+        write(line);
+        reportedDrops = total;
+    }
+
+    private void write(CharSequence text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            System.err.println("Failed to write log: " + e.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Failed to write log: " + e.getMessage());
+        }
+        writtenPosition = consumedPosition;
+    }
+
+    // Formats at most once per second since consecutive events usually share a timestamp
+    private String formatTimestamp(long millis) {
+        long second = millis / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedTimestamp = TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(millis));
+        }
+        return cachedTimestamp;
+    }
+}
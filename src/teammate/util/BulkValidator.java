@@ -0,0 +1,248 @@
+package teammate.util;
+
+import java.util.*;
+
+// Validates uploaded participant rows in column batches: rows are collected into per-column arrays and each
+// rule runs over one whole column with the ValidationUtil scanners. Every failure is recorded by row and
+// column, so organizers see all faults in a file rather than only the first one per row
+public class BulkValidator {
+    public static final int ID = 0;
+    public static final int NAME = 1;
+    public static final int EMAIL = 2;
+    public static final int GAME = 3;
+    public static final int SKILL = 4;
+    public static final int ROLE = 5;
+    public static final int SCORE = 6;
+
+    public static final String[] COLUMNS =
+            {"ID", "Name", "Email", "PreferredGame", "SkillLevel", "PreferredRole", "PersonalityScore"};
+
+    // Rows collected per batch before the column passes run
+    public static final int BATCH_ROWS = 4096;
+
+    // One file problem: spreadsheet row number (the header is row 1), column name, offending value and reason
+    public static class Issue {
+        private final long row;
+        private final String column;
+        private final String value;
+        private final String message;
+
+        Issue(long row, String column, String value, String message) {
+            this.row = row;
+            this.column = column;
+            this.value = value;
+            this.message = message;
+        }
+
+        public long getRow() { return row; }
+        public String getColumn() { return column; }
+        public String getValue() { return value; }
+        public String getMessage() { return message; }
+
+        public String describe() {
+            boolean showValue = value != null && !message.endsWith(value);
+            return "Row " + row + (column == null ? "" : ", " + column) + ": " + message +
+                    (showValue ? " ('" + value + "')" : "");
+        }
+    }
+
+    // Issues for a whole file. Counts are exact; details are kept for the first MAX_DETAILED issues
+    public static class Report {
+        public static final int MAX_DETAILED = 10_000;
+
+        private final List<Issue> issues = new ArrayList<>();
+        private final Map<String, Integer> issuesByColumn = new LinkedHashMap<>();
+        private long rowsChecked;
+        private long invalidRows;
+        private long issueCount;
+
+        void add(Issue issue) {
+            issueCount++;
+            issuesByColumn.merge(issue.getColumn() == null ? "row" : issue.getColumn(), 1, Integer::sum);
+            if (issues.size() < MAX_DETAILED) issues.add(issue);
+        }
+
+        // Records a row that passed the column rules but was rejected afterwards, such as a repeat of an earlier
+        // row in the same file; the issue is placed among the others in row order
+        public void addRejectedRow(long row, String column, String value, String message) {
+            Issue issue = new Issue(row, column, value, message);
+            add(issue);
+            invalidRows++;
+
+            int last = issues.size() - 1;
+            if (last < 0 || issues.get(last) != issue) return;
+            int at = last;
+            while (at > 0 && issues.get(at - 1).getRow() > row) at--;
+            if (at < last) issues.add(at, issues.remove(last));
+        }
+
+        public long getRowsChecked() { return rowsChecked; }
+        public long getInvalidRows() { return invalidRows; }
+        public long getIssueCount() { return issueCount; }
+        public List<Issue> getIssues() { return Collections.unmodifiableList(issues); }
+        public Map<String, Integer> getIssuesByColumn() { return new LinkedHashMap<>(issuesByColumn); }
+
+        public boolean hasIssues() {
+            return issueCount > 0;
+        }
+
+        // Summary line followed by up to limit issue lines
+        public List<String> describe(int limit) {
+            List<String> lines = new ArrayList<>();
+            lines.add(invalidRows + " of " + rowsChecked + " rows invalid, " + issueCount + " issues " + issuesByColumn);
+            for (int i = 0; i < issues.size() && i < limit; i++) {
+                lines.add(issues.get(i).describe());
+            }
+            if (issueCount > limit) lines.add("... " + (issueCount - limit) + " more");
+            return lines;
+        }
+    }
+
+    // Up to BATCH_ROWS upload rows held column by column; numeric columns are parsed as rows are added
+    public static class Batch {
+        private final String[][] columns = new String[COLUMNS.length][BATCH_ROWS];
+        private final int[] skills = new int[BATCH_ROWS];
+        private final int[] scores = new int[BATCH_ROWS];
+        private final long[] rowNumbers = new long[BATCH_ROWS];
+        private final int[] fieldCounts = new int[BATCH_ROWS];
+        private final boolean[] badSkill = new boolean[BATCH_ROWS];
+        private final boolean[] badScore = new boolean[BATCH_ROWS];
+        private final String[] firstError = new String[BATCH_ROWS];
+        private int size;
+
+        public boolean isFull() {
+            return size == BATCH_ROWS;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void add(CsvCodec.Row row, long rowNumber) {
+            int i = size++;
+            rowNumbers[i] = rowNumber;
+            fieldCounts[i] = row.size();
+            firstError[i] = null;
+
+            for (int c = 0; c < COLUMNS.length; c++) {
+                columns[c][i] = c < row.size() && c != SKILL && c != SCORE ? row.get(c) : null;
+            }
+            badSkill[i] = row.size() > SKILL && !parse(row, SKILL, skills, i);
+            badScore[i] = row.size() > SCORE && !parse(row, SCORE, scores, i);
+        }
+
+        // Numbers are parsed in place; the text is kept only when it is not a number, for the report
+        private boolean parse(CsvCodec.Row row, int column, int[] values, int i) {
+            try {
+                values[i] = row.getInt(column);
+                return true;
+            } catch (NumberFormatException e) {
+                columns[column][i] = row.get(column);
+                return false;
+            }
+        }
+
+        public void clear() {
+            size = 0;
+        }
+
+        public boolean isValid(int row) {
+            return firstError[row] == null;
+        }
+
+        // The message the single-row upload check reported for this row, kept for the invalid-record list
+        public String getFirstError(int row) {
+            return firstError[row];
+        }
+
+        public String get(int row, int column) {
+            return columns[column][row];
+        }
+
+        public int getSkill(int row) {
+            return skills[row];
+        }
+
+        public int getScore(int row) {
+            return scores[row];
+        }
+
+        public long getRowNumber(int row) {
+            return rowNumbers[row];
+        }
+    }
+
+    // Runs every upload rule over the batch, column by column, in the order the single-row check used so each
+    // row's first error matches its old message; rows failing an earlier rule are still checked by later ones
+    public static void validate(Batch batch, Report report) {
+        int n = batch.size;
+        report.rowsChecked += n;
+        int firstIssue = report.issues.size();
+
+        for (int i = 0; i < n; i++) {
+            if (batch.fieldCounts[i] < COLUMNS.length) {
+                fail(batch, report, i, null, null, "Insufficient columns in CSV");
+            } else {
+                if (batch.badSkill[i]) {
+                    fail(batch, report, i, COLUMNS[SKILL], batch.columns[SKILL][i], "Invalid number format in CSV");
+                }
+                if (batch.badScore[i]) {
+                    fail(batch, report, i, COLUMNS[SCORE], batch.columns[SCORE][i], "Invalid number format in CSV");
+                }
+            }
+        }
+
+        String[] ids = batch.columns[ID];
+        for (int i = 0; i < n; i++) {
+            if (usable(batch, i) && !ValidationUtil.isValidParticipantId(ids[i])) {
+                fail(batch, report, i, COLUMNS[ID], ids[i], "Invalid ID format: " + ids[i]);
+            }
+        }
+
+        String[] emails = batch.columns[EMAIL];
+        for (int i = 0; i < n; i++) {
+            if (usable(batch, i) && !ValidationUtil.isValidEmail(emails[i])) {
+                fail(batch, report, i, COLUMNS[EMAIL], emails[i], "Invalid email: " + emails[i]);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (usable(batch, i) && !batch.badSkill[i] && !ValidationUtil.isValidSkillLevel(batch.skills[i])) {
+                fail(batch, report, i, COLUMNS[SKILL], String.valueOf(batch.skills[i]),
+                        "Invalid skill level: " + batch.skills[i]);
+            }
+        }
+
+        String[] roles = batch.columns[ROLE];
+        for (int i = 0; i < n; i++) {
+            if (usable(batch, i) && !ValidationUtil.isValidRole(roles[i])) {
+                fail(batch, report, i, COLUMNS[ROLE], roles[i], "Invalid role: " + roles[i]);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (usable(batch, i) && !batch.badScore[i] && !PersonalityClassifier.isValidScore(batch.scores[i])) {
+                fail(batch, report, i, COLUMNS[SCORE], String.valueOf(batch.scores[i]), batch.scores[i] > 100
+                        ? "Personality score above 100: " + batch.scores[i]
+                        : "Personality score too low: " + batch.scores[i]);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (batch.firstError[i] != null) report.invalidRows++;
+        }
+
+        // The passes run per column; the report reads row by row (the sort is stable, keeping rule order)
+        report.issues.subList(firstIssue, report.issues.size()).sort(Comparator.comparingLong(Issue::getRow));
+    }
+
+    // Rows with every column present; short rows are reported once for the whole row
+    private static boolean usable(Batch batch, int row) {
+        return batch.fieldCounts[row] >= COLUMNS.length;
+    }
+
+    private static void fail(Batch batch, Report report, int row, String column, String value, String message) {
+        if (batch.firstError[row] == null) batch.firstError[row] = message;
+        report.add(new Issue(batch.rowNumbers[row], column, value, message));
+    }
+}
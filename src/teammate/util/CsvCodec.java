@@ -0,0 +1,296 @@
+package teammate.util;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// RFC 4180 CSV reading and writing shared by every CSV file the system touches. Records are tokenized from a
+// reused char buffer into field slices of a reused Row, with quoted commas, quotes and line breaks handled;
+// fields are written by appending to a caller-supplied builder and quoted only when needed
+public class CsvCodec {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // One record's fields as slices of a shared char array. Unquoted fields are trimmed, quoted ones kept as written
+    public static class Row {
+        private char[] chars = new char[256];
+        private int length;
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int fields;
+
+        // Start of the current field, and the position trailing-whitespace trimming may not cross
+        private int fieldStart;
+        private int keep;
+
+        public int size() {
+            return fields;
+        }
+
+        public String get(int field) {
+            return new String(chars, starts[field], ends[field] - starts[field]);
+        }
+
+        public boolean isEmpty(int field) {
+            return starts[field] == ends[field];
+        }
+
+        // Parses the field as a decimal int without creating a String
+        public int getInt(int field) {
+            int i = starts[field];
+            int end = ends[field];
+            if (i == end) throw new NumberFormatException("Empty number");
+
+            boolean negative = chars[i] == '-';
+            if (negative || chars[i] == '+') i++;
+            if (i == end) throw new NumberFormatException("For input string: \"" + get(field) + "\"");
+
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = chars[i] - '0';
+                if (digit < 0 || digit > 9) throw new NumberFormatException("For input string: \"" + get(field) + "\"");
+                value = value * 10 + digit;
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw new NumberFormatException("For input string: \"" + get(field) + "\"");
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) throw new NumberFormatException("For input string: \"" + get(field) + "\"");
+            return (int) value;
+        }
+
+        public boolean equalsIgnoreCase(int field, String value) {
+            return regionEqualsIgnoreCase(starts[field], ends[field], value);
+        }
+
+        // True when one of the separator-delimited, trimmed items of the field equals value, ignoring case
+        public boolean listContains(int field, char separator, String value) {
+            int end = ends[field];
+            int item = starts[field];
+            for (int i = item; i <= end; i++) {
+                if (i == end || chars[i] == separator) {
+                    int from = item;
+                    int to = i;
+                    while (from < to && chars[from] <= ' ') from++;
+                    while (to > from && chars[to - 1] <= ' ') to--;
+                    if (regionEqualsIgnoreCase(from, to, value)) return true;
+                    item = i + 1;
+                }
+            }
+            return false;
+        }
+
+        // The field's separator-delimited items, trimmed
+        public List<String> getList(int field, char separator) {
+            List<String> items = new ArrayList<>();
+            int end = ends[field];
+            int item = starts[field];
+            for (int i = item; i <= end; i++) {
+                if (i == end || chars[i] == separator) {
+                    int from = item;
+                    int to = i;
+                    while (from < to && chars[from] <= ' ') from++;
+                    while (to > from && chars[to - 1] <= ' ') to--;
+                    items.add(new String(chars, from, to - from));
+                    item = i + 1;
+                }
+            }
+            return items;
+        }
+
+        private boolean regionEqualsIgnoreCase(int from, int to, String value) {
+            if (to - from != value.length()) return false;
+            for (int i = 0; i < value.length(); i++) {
+                char a = chars[from + i];
+                char b = value.charAt(i);
+                if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)
+                        && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void clear() {
+            length = 0;
+            fields = 0;
+            fieldStart = 0;
+            keep = 0;
+        }
+
+        private void append(char c) {
+            if (length == chars.length) chars = Arrays.copyOf(chars, length * 2);
+            chars[length++] = c;
+        }
+
+        // Content up to here came from quotes and is never trimmed
+        private void protect() {
+            keep = length;
+        }
+
+        private void endField() {
+            int end = length;
+            while (end > keep && chars[end - 1] <= ' ') end--;
+
+            if (fields == starts.length) {
+                starts = Arrays.copyOf(starts, fields * 2);
+                ends = Arrays.copyOf(ends, fields * 2);
+            }
+            starts[fields] = fieldStart;
+            ends[fields] = end;
+            fields++;
+
+            fieldStart = length;
+            keep = length;
+        }
+    }
+
+    // Reads records one at a time through a reused char buffer; a quoted field may span lines
+    public static class Reader implements Closeable {
+        private static final int START = 0;
+        private static final int UNQUOTED = 1;
+        private static final int QUOTED = 2;
+        private static final int QUOTE_IN_QUOTED = 3;
+        private static final int AFTER_QUOTED = 4;
+
+        private final java.io.Reader in;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private long records;
+
+        public Reader(java.io.Reader in) {
+            this.in = in;
+        }
+
+        // Opens a file in the platform charset, as the rest of the file handling does
+        public static Reader open(String filename) throws FileNotFoundException {
+            return new Reader(new FileReader(filename));
+        }
+
+        public static Reader open(File file) throws FileNotFoundException {
+            return new Reader(new FileReader(file));
+        }
+
+        // Fills row with the next record; false at end of input. A blank line is a record with one empty field
+        public boolean next(Row row) throws IOException {
+            row.clear();
+            int state = START;
+            boolean any = false;
+
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        if (!any) return false;
+                        row.endField();
+                        records++;
+                        return true;
+                    }
+                }
+
+                char c = buffer[position++];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') continue;
+                }
+                any = true;
+
+                if (state == QUOTED) {
+                    if (c == '"') {
+                        state = QUOTE_IN_QUOTED;
+                    } else {
+                        row.append(c);
+                        row.protect();
+                    }
+                    continue;
+                }
+
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    row.endField();
+                    records++;
+                    return true;
+                }
+
+                if (c == ',') {
+                    row.endField();
+                    state = START;
+                    continue;
+                }
+
+                switch (state) {
+                    case START:
+                        // Leading whitespace is dropped, as trim() did
+                        if (c == '"') {
+                            state = QUOTED;
+                        } else if (c > ' ') {
+                            row.append(c);
+                            state = UNQUOTED;
+                        }
+                        break;
+                    case QUOTE_IN_QUOTED:
+                        if (c == '"') {
+                            row.append('"');
+                            row.protect();
+                            state = QUOTED;
+                        } else if (c <= ' ') {
+                            state = AFTER_QUOTED;
+                        } else {
+                            // Text after a closing quote is kept rather than rejected
+                            row.append(c);
+                            state = UNQUOTED;
+                        }
+                        break;
+                    case AFTER_QUOTED:
+                        if (c > ' ') {
+                            row.append(c);
+                            state = UNQUOTED;
+                        }
+                        break;
+                    default:
+                        row.append(c);
+                        break;
+                }
+            }
+        }
+
+        // Records returned so far, so callers can report positions
+        public long getRecordNumber() {
+            return records;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Appends the value as one field, quoting it when it holds a separator, quote, line break or edge whitespace
+    public static StringBuilder appendField(StringBuilder sb, CharSequence value) {
+        if (value == null) return sb;
+        if (!needsQuoting(value)) return sb.append(value);
+
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    public static boolean needsQuoting(CharSequence value) {
+        int length = value.length();
+        if (length == 0) return false;
+        if (value.charAt(0) <= ' ' || value.charAt(length - 1) <= ' ') return true;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
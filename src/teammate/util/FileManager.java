@@ -2,73 +2,142 @@ package teammate.util;
 
 import teammate.entity.Participant;
 import teammate.entity.Team;
+import teammate.entity.TeamHistoryEntry;
 import teammate.exception.TeamMateException;
+import teammate.metrics.Counter;
+import teammate.metrics.LatencyHistogram;
+import teammate.metrics.MetricsRegistry;
 import teammate.service.ParticipantManager;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+import java.util.zip.GZIPOutputStream;
 
 // Handles all file operations for participants and teams
 public class FileManager {
     private static final String ALL_REGISTERED_PARTICIPANTS = "all_registered_participants.csv";
     private static final String FORMED_TEAMS_CUMULATIVE = "formed_teams_cumulative.csv";
+    private static final String TEAM_COUNTER = "team_counter.dat";
+    private static final Object teamCounterLock = new Object();
+
+    private static final LatencyHistogram saveLatency = MetricsRegistry.histogram("file.save_participants");
+    private static final LatencyHistogram loadLatency = MetricsRegistry.histogram("file.load_participants");
+    private static final LatencyHistogram findAssignmentLatency = MetricsRegistry.histogram("file.find_assignment");
+    private static final LatencyHistogram snapshotLatency = MetricsRegistry.histogram("file.export_snapshot");
+    private static final LatencyHistogram exportLatency = MetricsRegistry.histogram("file.export_teams");
+    private static final LatencyHistogram appendLatency = MetricsRegistry.histogram("file.append_cumulative");
+    private static final LatencyHistogram searchTeamLatency = MetricsRegistry.histogram("file.search_team");
+    private static final LatencyHistogram recentTeamLatency = MetricsRegistry.histogram("file.find_recent_team");
+    private static final LatencyHistogram counterLatency = MetricsRegistry.histogram("file.update_team_counter");
+    private static final Counter rowsWritten = MetricsRegistry.counter("file.rows_written");
+    private static final Counter rowsRead = MetricsRegistry.counter("file.rows_read");
+    private static final Counter rowsSkipped = MetricsRegistry.counter("file.rows_skipped");
+    private static final Counter failures = MetricsRegistry.counter("file.failures");
+    private static final Counter teamCacheHits = MetricsRegistry.counter("file.team_cache_hits");
+    private static final Counter teamCacheMisses = MetricsRegistry.counter("file.team_cache_misses");
+
+    // Most recent team per participant for check-my-team lookups; -Dteammate.teamCache.size entries
+    private static final TeamLookupCache teamCache =
+            new TeamLookupCache(Math.max(1, Integer.getInteger("teammate.teamCache.size", 50_000)));
+
+    // Directory holding the master and cumulative files; -Dteammate.data.dir, defaults to the working directory
+    private static volatile File dataDirectory = new File(System.getProperty("teammate.data.dir", "."));
+
+    // Redirects all managed data files to another directory (used by batch jobs and benchmarks)
+    public static void setDataDirectory(String directory) {
+        dataDirectory = new File(directory);
+        teamCache.clear();
+    }
+
+    public static File getDataDirectory() {
+        return dataDirectory;
+    }
+
+    // Resolves a managed data file name against the data directory
+    public static File dataFile(String name) {
+        return new File(dataDirectory, name);
+    }
 
     // Saves all participants to master CSV file
     public static void saveAllParticipants(List<Participant> participants) throws TeamMateException.FileWriteException {
-        try (FileWriter fw = new FileWriter(ALL_REGISTERED_PARTICIPANTS, false);
+        long start = System.nanoTime();
+        try (FileWriter fw = new FileWriter(dataFile(ALL_REGISTERED_PARTICIPANTS), false);
              BufferedWriter bw = new BufferedWriter(fw);
              PrintWriter out = new PrintWriter(bw)) {
 
             out.println("ID,Name,Email,PreferredGame,SkillLevel,PreferredRole,PersonalityScore,PersonalityType,Status");
 
+            StringBuilder row = new StringBuilder(128);
             for (Participant p : participants) {
-                out.println(p.toCSVString());
+                row.setLength(0);
+                p.appendCSV(row);
+                out.append(row).println();
             }
 
+            rowsWritten.add(participants.size());
             SystemLogger.logFileOperation("WRITE", ALL_REGISTERED_PARTICIPANTS, true);
 
         } catch (IOException e) {
+            failures.increment();
             SystemLogger.logFileOperation("WRITE", ALL_REGISTERED_PARTICIPANTS, false);
             throw new TeamMateException.FileWriteException("Could not save participants: " + e.getMessage());
+        } finally {
+            saveLatency.recordSince(start);
         }
     }
 
     // Loads all participants from master CSV file
     public static List<Participant> loadAllParticipants() throws TeamMateException.FileReadException {
         List<Participant> participants = new ArrayList<>();
+        long start = System.nanoTime();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(ALL_REGISTERED_PARTICIPANTS))) {
-            String line = br.readLine();
+        try (CsvCodec.Reader reader = CsvCodec.Reader.open(dataFile(ALL_REGISTERED_PARTICIPANTS))) {
+            CsvCodec.Row row = new CsvCodec.Row();
 
-            if (line == null) {
-                SystemLogger.info("Participant file is empty");
+            if (!reader.next(row)) {
+                SystemLogger.info(SystemLogger.LogCategory.FILE, "Participant file is empty");
                 return participants;
             }
 
-            while ((line = br.readLine()) != null) {
+            while (reader.next(row)) {
                 try {
-                    String[] parts = line.split(",");
-                    if (parts.length < 9) continue;
+                    if (row.size() < 9) {
+                        rowsSkipped.increment();
+                        continue;
+                    }
 
                     Participant participant = new Participant(
-                            parts[0].trim(), parts[1].trim(), parts[2].trim(), parts[3].trim(),
-                            Integer.parseInt(parts[4].trim()), parts[5].trim(),
-                            Integer.parseInt(parts[6].trim()), parts[7].trim(), parts[8].trim()
+                            row.get(0), row.get(1), row.get(2), row.get(3),
+                            row.getInt(4), row.get(5),
+                            row.getInt(6), row.get(7), row.get(8)
                     );
 
                     participants.add(participant);
                 } catch (Exception e) {
-                    SystemLogger.warning("Skipped invalid participant line: " + e.getMessage());
+                    rowsSkipped.increment();
+                    SystemLogger.warning(SystemLogger.LogCategory.FILE,
+                            () -> "Skipped invalid participant line: " + e.getMessage());
                 }
             }
 
+            rowsRead.add(participants.size());
             SystemLogger.logFileOperation("READ", ALL_REGISTERED_PARTICIPANTS, true);
 
         } catch (FileNotFoundException e) {
-            SystemLogger.info("Participant file not found - starting fresh");
+            SystemLogger.info(SystemLogger.LogCategory.FILE, "Participant file not found - starting fresh");
         } catch (IOException e) {
+            failures.increment();
             SystemLogger.logFileOperation("READ", ALL_REGISTERED_PARTICIPANTS, false);
             throw new TeamMateException.FileReadException("Error reading participant file: " + e.getMessage());
+        } finally {
+            loadLatency.recordSince(start);
         }
 
         return participants;
@@ -78,25 +147,16 @@ public class FileManager {
     public static String findLatestAssignment(String participantId) {
         String latestTeam = null;
         String latestTimestamp = null;
+        long start = System.nanoTime();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(FORMED_TEAMS_CUMULATIVE))) {
-            String line = br.readLine();
-
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 5) {
-                    String timestamp = parts[0];
-                    String teamId = parts[1];
-                    String memberIds = parts[4];
-
-                    String[] ids = memberIds.split(";");
-                    for (String id : ids) {
-                        if (id.trim().equalsIgnoreCase(participantId)) {
-                            latestTeam = teamId;
-                            latestTimestamp = timestamp;
-                            break;
-                        }
-                    }
+        try (CsvCodec.Reader reader = CsvCodec.Reader.open(dataFile(FORMED_TEAMS_CUMULATIVE))) {
+            CsvCodec.Row row = new CsvCodec.Row();
+            reader.next(row);
+
+            while (reader.next(row)) {
+                if (row.size() >= 5 && row.listContains(4, ';', participantId)) {
+                    latestTeam = row.get(1);
+                    latestTimestamp = row.get(0);
                 }
             }
 
@@ -107,8 +167,11 @@ public class FileManager {
         } catch (FileNotFoundException e) {
             return "No previous assignment found";
         } catch (IOException e) {
-            SystemLogger.logException("Error checking assignment history", e);
+            failures.increment();
+            SystemLogger.logException(SystemLogger.LogCategory.FILE, "Error checking assignment history", e);
             return "Could not verify assignment history";
+        } finally {
+            findAssignmentLatency.recordSince(start);
         }
 
         return "No previous assignment found";
@@ -116,7 +179,16 @@ public class FileManager {
 
     // Exports current teams to a snapshot file for this tournament
     public static void exportTeamsSnapshot(List<Team> teams, String filename) throws TeamMateException.FileWriteException {
-        try (FileWriter fw = new FileWriter(filename, false);
+        exportTeamsSnapshot(teams, filename, false);
+    }
+
+    // Writes only the snapshot, gzipped when compress is set; for stores that record the history themselves
+    public static void exportTeamsSnapshot(List<Team> teams, String filename, boolean compress)
+            throws TeamMateException.FileWriteException {
+        long start = System.nanoTime();
+        try (Writer fw = compress
+                ? new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(filename)), Charset.defaultCharset())
+                : new FileWriter(filename, false);
              BufferedWriter bw = new BufferedWriter(fw);
              PrintWriter out = new PrintWriter(bw)) {
 
@@ -124,24 +196,108 @@ public class FileManager {
             out.println("# Team Formation Snapshot - " + sdf.format(new Date()));
             out.println("TeamID,TeamSize,AvgSkill,MemberIDs");
 
+            StringBuilder row = new StringBuilder(128);
             for (Team team : teams) {
-                out.println(team.toCSVString());
+                row.setLength(0);
+                team.appendCSV(row);
+                out.append(row).println();
             }
 
             SystemLogger.logFileOperation("EXPORT_SNAPSHOT", filename, true);
-            SystemLogger.success("Exported " + teams.size() + " teams to snapshot: " + filename);
+            SystemLogger.success(SystemLogger.LogCategory.FILE,
+                    () -> "Exported " + teams.size() + " teams to snapshot: " + filename);
 
         } catch (IOException e) {
+            failures.increment();
             SystemLogger.logFileOperation("EXPORT_SNAPSHOT", filename, false);
             throw new TeamMateException.FileWriteException("Could not save snapshot: " + e.getMessage());
+        } finally {
+            snapshotLatency.recordSince(start);
         }
     }
 
-    // Appends teams to cumulative records file with timestamp
-    public static void appendTeamsToCumulative(List<Team> teams) throws TeamMateException.FileWriteException {
-        boolean fileExists = new File(FORMED_TEAMS_CUMULATIVE).exists();
+    // Writes the snapshot and appends the cumulative records in one streaming pass, gzipping the snapshot
+    // when compress is set. Serialized with appendTeamsToCumulative; a failure leaves the cumulative file as it was
+    public static synchronized void exportTeams(List<Team> teams, String snapshotFilename, boolean compress)
+            throws TeamMateException.FileWriteException {
+        long start = System.nanoTime();
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        String timestamp = sdf.format(new Date());
+        String header = "# Team Formation Snapshot - " + timestamp + System.lineSeparator() +
+                "TeamID,TeamSize,AvgSkill,MemberIDs";
+
+        File cumulativeFile = dataFile(FORMED_TEAMS_CUMULATIVE);
+        TeamLookupCache.Stamp before = TeamLookupCache.Stamp.of(cumulativeFile);
+
+        try {
+            new TeamExportPipeline().export(teams, snapshotFilename, compress, cumulativeFile,
+                    header, "Timestamp,TeamID,TeamSize,AvgSkill,MemberIDs", timestamp);
+            rowsWritten.add(2L * teams.size());
+            teamCache.refresh(teams, timestamp, before, TeamLookupCache.Stamp.of(cumulativeFile));
+
+            SystemLogger.logFileOperation("EXPORT_SNAPSHOT", snapshotFilename, true);
+            SystemLogger.logFileOperation("APPEND_CUMULATIVE", FORMED_TEAMS_CUMULATIVE, true);
+            SystemLogger.success(SystemLogger.LogCategory.FILE, () -> "Exported " + teams.size() + " teams to " +
+                    (compress ? "compressed " : "") + "snapshot " + snapshotFilename + " and cumulative records");
+
+        } catch (IOException e) {
+            failures.increment();
+            SystemLogger.logFileOperation("EXPORT_SNAPSHOT", snapshotFilename, false);
+            throw new TeamMateException.FileWriteException("Could not export teams: " + e.getMessage());
+        } finally {
+            exportLatency.recordSince(start);
+        }
+    }
 
-        try (FileWriter fw = new FileWriter(FORMED_TEAMS_CUMULATIVE, true);
+    // Reads the team counter, applies the update and writes the result, all under an exclusive file lock.
+    // The lock is held across processes sharing the data directory; teamCounterLock covers threads, so a
+    // lease extension never waits behind an export holding the FileManager monitor
+    public static long updateTeamCounter(LongUnaryOperator update) throws IOException {
+        synchronized (teamCounterLock) {
+            return updateTeamCounterLocked(update);
+        }
+    }
+
+    private static long updateTeamCounterLocked(LongUnaryOperator update) throws IOException {
+        long start = System.nanoTime();
+        try (RandomAccessFile file = new RandomAccessFile(dataFile(TEAM_COUNTER), "rw");
+             FileChannel channel = file.getChannel();
+             FileLock lock = channel.lock()) {
+            assert lock.isValid();
+
+            long current = 0;
+            String text = file.length() == 0 ? "" : file.readLine();
+            if (text != null && !text.trim().isEmpty()) {
+                try {
+                    current = Long.parseLong(text.trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Corrupt team counter file: '" + text.trim() + "'");
+                }
+            }
+
+            long updated = update.applyAsLong(current);
+            if (updated != current) {
+                byte[] bytes = String.valueOf(updated).getBytes(StandardCharsets.US_ASCII);
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(bytes), 0);
+                channel.force(false);
+            }
+            return updated;
+        } finally {
+            counterLatency.recordSince(start);
+        }
+    }
+
+    // Appends teams to cumulative records file with timestamp; serialized so concurrent sessions do not interleave
+    public static synchronized void appendTeamsToCumulative(List<Team> teams) throws TeamMateException.FileWriteException {
+        File cumulativeFile = dataFile(FORMED_TEAMS_CUMULATIVE);
+        boolean fileExists = cumulativeFile.exists();
+        TeamLookupCache.Stamp before = TeamLookupCache.Stamp.of(cumulativeFile);
+        long start = System.nanoTime();
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        String timestamp = sdf.format(new Date());
+
+        try (FileWriter fw = new FileWriter(cumulativeFile, true);
              BufferedWriter bw = new BufferedWriter(fw);
              PrintWriter out = new PrintWriter(bw)) {
 
@@ -149,179 +305,139 @@ public class FileManager {
                 out.println("Timestamp,TeamID,TeamSize,AvgSkill,MemberIDs");
             }
 
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            String timestamp = sdf.format(new Date());
-
+            StringBuilder row = new StringBuilder(128);
             for (Team team : teams) {
-                out.println(timestamp + "," + team.toCSVString());
+                row.setLength(0);
+                row.append(timestamp).append(',');
+                team.appendCSV(row);
+                out.append(row).println();
             }
 
             SystemLogger.logFileOperation("APPEND_CUMULATIVE", FORMED_TEAMS_CUMULATIVE, true);
-            SystemLogger.success("Appended " + teams.size() + " teams to cumulative records");
+            SystemLogger.success(SystemLogger.LogCategory.FILE,
+                    () -> "Appended " + teams.size() + " teams to cumulative records");
 
         } catch (IOException e) {
+            failures.increment();
             SystemLogger.logFileOperation("APPEND_CUMULATIVE", FORMED_TEAMS_CUMULATIVE, false);
             throw new TeamMateException.FileWriteException("Could not append to cumulative file: " + e.getMessage());
+        } finally {
+            appendLatency.recordSince(start);
         }
-    }
 
-    // Searches for and displays full team details for organizers
-    public static void searchTeamById(String teamId, ParticipantManager participantManager) {
-        SystemLogger.info("Team search requested: " + teamId);
-
-        try (BufferedReader br = new BufferedReader(new FileReader(FORMED_TEAMS_CUMULATIVE))) {
-            String line = br.readLine();
-
-            boolean found = false;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 5 && parts[1].trim().equalsIgnoreCase(teamId)) {
-                    String timestamp = parts[0];
-                    String tId = parts[1];
-                    String teamSize = parts[2];
-                    String avgSkill = parts[3];
-                    String memberIds = parts[4];
-
-                    System.out.println("\n" + "=".repeat(60));
-                    System.out.println("TEAM DETAILS");
-                    System.out.println("=".repeat(60));
-                    System.out.println("Team ID: " + tId);
-                    System.out.println("Formation Date: " + timestamp);
-                    System.out.println("Team Size: " + teamSize);
-                    System.out.println("Average Skill: " + avgSkill);
-                    System.out.println("=".repeat(60));
-
-                    String[] ids = memberIds.split(";");
-                    System.out.println("\nTeam Members:");
-
-                    Map<String, Integer> roleCount = new HashMap<>();
-                    Map<String, Integer> gameCount = new HashMap<>();
-                    int leaderCount = 0;
-                    int thinkerCount = 0;
-                    int balancedCount = 0;
-
-                    // Display each member and calculate distributions
-                    for (int i = 0; i < ids.length; i++) {
-                        String id = ids[i].trim();
-                        Participant p = participantManager.findParticipant(id);// sq no. 1.2.2 of search team use case
-
-                        if (p != null) {
-                            System.out.printf("%d. %s - %s | Game: %s | Skill: %d | Role: %s | Type: %s\n",
-                                    (i + 1), p.getId(), p.getName(), p.getPreferredGame(),
-                                    p.getSkillLevel(), p.getPreferredRole(), p.getPersonalityType());
-
-                            roleCount.put(p.getPreferredRole(),
-                                    roleCount.getOrDefault(p.getPreferredRole(), 0) + 1);
-                            gameCount.put(p.getPreferredGame(),
-                                    gameCount.getOrDefault(p.getPreferredGame(), 0) + 1);
-
-                            String type = p.getPersonalityType();
-                            if (type.equals("Leader")) leaderCount++;
-                            else if (type.equals("Thinker")) thinkerCount++;
-                            else if (type.equals("Balanced")) balancedCount++;
-                        } else {
-                            System.out.printf("%d. %s (Details not available)\n", (i + 1), id);
-                        }
-                    }
-
-                    // Display all distributions
-                    System.out.println("\nRole Distribution:");
-                    roleCount.forEach((role, count) ->
-                            System.out.println("  " + role + ": " + count));
-
-                    System.out.println("\nPersonality Distribution:");
-                    System.out.println("  Leaders: " + leaderCount);
-                    System.out.println("  Thinkers: " + thinkerCount);
-                    System.out.println("  Balanced: " + balancedCount);
-
-                    System.out.println("\nGame Distribution:");
-                    gameCount.forEach((game, count) ->
-                            System.out.println("  " + game + ": " + count));
+        // The writer is closed, so the stamp covers the appended rows
+        teamCache.refresh(teams, timestamp, before, TeamLookupCache.Stamp.of(cumulativeFile));
+    }
 
-                    System.out.println("=".repeat(60));
+    // Returns the first cumulative record with the team ID (ignoring case), or null when there is none
+    public static TeamHistoryEntry findTeamEntry(String teamId) throws IOException {
+        long start = System.nanoTime();
+        try (CsvCodec.Reader reader = CsvCodec.Reader.open(dataFile(FORMED_TEAMS_CUMULATIVE))) {
+            CsvCodec.Row row = new CsvCodec.Row();
+            reader.next(row);
 
-                    SystemLogger.success("Team found and displayed: " + teamId);
-                    found = true;
-                    break;
+            while (reader.next(row)) {
+                if (row.size() >= 5 && row.equalsIgnoreCase(1, teamId)) {
+                    return toEntry(row);
                 }
             }
+            return null;
+        } finally {
+            searchTeamLatency.recordSince(start);
+        }
+    }
 
-            if (!found) {
-                System.out.println("\n[X] Team ID '" + teamId + "' not found in records.");
-                SystemLogger.warning("Team not found: " + teamId);
+    // Returns the last cumulative record listing the participant, or null if never assigned
+    public static TeamHistoryEntry findLatestTeamEntry(String participantId) throws IOException {
+        try (CsvCodec.Reader reader = CsvCodec.Reader.open(dataFile(FORMED_TEAMS_CUMULATIVE))) {
+            CsvCodec.Row row = new CsvCodec.Row();
+            reader.next(row);
+
+            // Only the latest match is converted, since the row is reused
+            TeamHistoryEntry latest = null;
+            while (reader.next(row)) {
+                if (row.size() >= 5 && row.listContains(4, ';', participantId)) {
+                    latest = toEntry(row);
+                }
             }
-
-        } catch (FileNotFoundException e) {
-            System.out.println("\n[X] No team records found.");
-            SystemLogger.error("Team records file not found");
-        } catch (IOException e) {
-            System.out.println("\n[X] Error reading team records: " + e.getMessage());
-            SystemLogger.logException("Error searching team", e);
+            return latest;
         }
     }
 
-    // Finds and displays most recent team assignment for participants
-    public static void findMostRecentParticipantTeam(String participantId, ParticipantManager participantManager) {
-        SystemLogger.info("Searching most recent team for participant: " + participantId);
-
-        String mostRecentTeamId = null;
-        String mostRecentLine = null;
+    // Passes every cumulative record to action in file order; rows too short to be records are skipped
+    public static void readTeamHistory(Consumer<TeamHistoryEntry> action) throws IOException {
+        try (CsvCodec.Reader reader = CsvCodec.Reader.open(dataFile(FORMED_TEAMS_CUMULATIVE))) {
+            CsvCodec.Row row = new CsvCodec.Row();
+            reader.next(row);
 
-        try (BufferedReader br = new BufferedReader(new FileReader(FORMED_TEAMS_CUMULATIVE))) {
-            String line = br.readLine();
+            while (reader.next(row)) {
+                if (row.size() < 5) {
+                    rowsSkipped.increment();
+                    continue;
+                }
+                try {
+                    action.accept(toEntry(row));
+                } catch (NumberFormatException e) {
+                    rowsSkipped.increment();
+                }
+            }
+        }
+    }
 
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length >= 5) {
-                    String memberIds = parts[4];
+    private static TeamHistoryEntry toEntry(CsvCodec.Row row) {
+        return new TeamHistoryEntry(row.get(0), row.get(1), row.getInt(2), row.get(3), row.getList(4, ';'));
+    }
 
-                    String[] ids = memberIds.split(";");
-                    for (String id : ids) {
-                        if (id.trim().equalsIgnoreCase(participantId)) {
-                            mostRecentTeamId = parts[1];
-                            mostRecentLine = line;
-                            break;
-                        }
-                    }
-                }
+    // Returns the participant's most recent team from the cumulative records, or null if never assigned.
+    // Repeat lookups are answered from the team cache while the cumulative file is unchanged
+    public static TeamRecord loadMostRecentParticipantTeam(String participantId, ParticipantManager participantManager)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            TeamLookupCache.Stamp readAt = TeamLookupCache.Stamp.of(dataFile(FORMED_TEAMS_CUMULATIVE));
+
+            TeamRecord cached = teamCache.lookup(participantId, readAt, participantManager);
+            if (cached != TeamLookupCache.MISS) {
+                teamCacheHits.increment();
+                return cached;
             }
+            teamCacheMisses.increment();
 
-            if (mostRecentTeamId != null) {
-                String[] parts = mostRecentLine.split(",");
-                String timestamp = parts[0];
-                int teamSize = Integer.parseInt(parts[2]);
-                String memberIds = parts[4];
-
-                // Create team object from file data
-                Team team = new Team(teamSize); // sq no.1.3.1 of check my team use case
-                team.setTeamId(mostRecentTeamId);
-
-                // Add members to team
-                String[] ids = memberIds.split(";");
-                for (String id : ids) {
-                    Participant p = participantManager.findParticipant(id.trim()); // sq no. 1.3.2 of check my team use case
-                    if (p != null) {
-                        team.addMember(p);// sq no. 1.3.3 of check my team use case
-                    }
-                }
+            TeamHistoryEntry entry = findLatestTeamEntry(participantId);
+            teamCache.put(participantId, entry, readAt);
+            return entry == null ? null : TeamRecord.resolve(entry, participantManager);
+        } finally {
+            recentTeamLatency.recordSince(start);
+        }
+    }
 
-                System.out.println("\nFormation Date: " + timestamp);
+    // A team as recorded in the cumulative history, with its formation timestamp
+    public static class TeamRecord {
+        private final String formationDate;
+        private final Team team;
 
-                // Display simplified team info for participants
-                team.displayTeamInfoForParticipant();// sq no. 1.3.4 of check my team use case
+        public TeamRecord(String formationDate, Team team) {
+            this.formationDate = formationDate;
+            this.team = team;
+        }
 
-                SystemLogger.success("Most recent team found: " + mostRecentTeamId);
-            } else {
-                System.out.println("\n[X] No team assignment found in records.");
-                SystemLogger.warning("No team found for participant: " + participantId);
+        // Builds the recorded team from the registry; members it no longer knows are left out
+        public static TeamRecord resolve(TeamHistoryEntry entry, ParticipantManager participantManager) {
+            // Create team object from recorded data
+            Team team = new Team(entry.getTeamSize()); // sq no.1.3.1 of check my team use case
+            team.setTeamId(entry.getTeamId());
+
+            // Add members to team
+            for (String id : entry.getMemberIds()) {
+                Participant p = participantManager.findParticipant(id); // sq no. 1.3.2 of check my team use case
+                if (p != null) {
+                    team.addMember(p);// sq no. 1.3.3 of check my team use case
+                }
             }
-
-        } catch (FileNotFoundException e) {
-            System.out.println("\n[X] No team records found.");
-            SystemLogger.error("Team records file not found");
-        } catch (IOException e) {
-            System.out.println("\n[X] Error reading team records: " + e.getMessage());
-            SystemLogger.logException("Error finding participant team", e);
+            return new TeamRecord(entry.getFormationDate(), team);
         }
+
+        public String getFormationDate() { return formationDate; }
+        public Team getTeam() { return team; }
     }
-}
\ No newline at end of file
+}
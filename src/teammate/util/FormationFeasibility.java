@@ -0,0 +1,120 @@
+package teammate.util;
+
+import teammate.entity.Participant;
+import java.util.*;
+import java.util.function.IntPredicate;
+
+// Upper bounds on how many valid teams a pool can produce, from personality counts, game multiplicities
+// and role coverage. One pass over the pool plus a binary search per rule; formation stops at the bound
+public class FormationFeasibility {
+
+    // Bounds per rule for one pool and team size; the smallest one is the answer
+    public static class Report {
+        private final int teamSize;
+        private final int poolSize;
+        private final Map<String, Integer> bounds;
+        private final int maxTeams;
+        private final String limitingFactor;
+
+        Report(int teamSize, int poolSize, Map<String, Integer> bounds) {
+            this.teamSize = teamSize;
+            this.poolSize = poolSize;
+            this.bounds = bounds;
+
+            String limit = null;
+            int max = Integer.MAX_VALUE;
+            for (Map.Entry<String, Integer> bound : bounds.entrySet()) {
+                if (bound.getValue() < max) {
+                    max = bound.getValue();
+                    limit = bound.getKey();
+                }
+            }
+            this.maxTeams = max;
+            this.limitingFactor = limit;
+        }
+
+        public int getMaxTeams() { return maxTeams; }
+        public String getLimitingFactor() { return limitingFactor; }
+        public Map<String, Integer> getBounds() { return new LinkedHashMap<>(bounds); }
+        public int getTeamSize() { return teamSize; }
+        public int getPoolSize() { return poolSize; }
+
+        // Largest share of the pool that could end up in teams
+        public int getMaxAssigned() {
+            return maxTeams * teamSize;
+        }
+
+        public String describe() {
+            return "Up to " + maxTeams + " teams of " + teamSize + " (" + getMaxAssigned() + " of " + poolSize +
+                    " participants), limited by " + limitingFactor;
+        }
+    }
+
+    public static Report analyze(List<Participant> pool, int teamSize) {
+        int leaders = 0;
+        int thinkers = 0;
+        int balanced = 0;
+        Map<String, Integer> games = new HashMap<>();
+        Map<String, Integer> roles = new HashMap<>();
+
+        for (Participant p : pool) {
+            switch (p.getPersonalityType()) {
+                case "Leader": leaders++; break;
+                case "Thinker": thinkers++; break;
+                case "Balanced": balanced++; break;
+                default: break;
+            }
+            games.merge(p.getPreferredGame(), 1, Integer::sum);
+            roles.merge(p.getPreferredRole(), 1, Integer::sum);
+        }
+
+        int bySize = pool.size() / teamSize;
+        int thinkerCount = thinkers;
+        int balancedCount = balanced;
+
+        Map<String, Integer> bounds = new LinkedHashMap<>();
+        bounds.put("size", bySize);
+        bounds.put("leaders", leaders);
+        bounds.put("thinkers", thinkers);
+
+        // Slots after the Leader take Balanced members or up to two Thinkers per team
+        bounds.put("fillers", largest(bySize,
+                t -> balancedCount + Math.min(thinkerCount, 2L * t) >= (long) t * (teamSize - 1)));
+
+        // At most two members per game in a team
+        bounds.put("games", largest(bySize, t -> {
+            long usable = 0;
+            for (int count : games.values()) usable += Math.min(count, 2L * t);
+            return usable >= (long) t * teamSize;
+        }));
+
+        // Three distinct roles per team: one role fills at most teamSize - 2 slots, and every team needs
+        // someone outside any two roles
+        List<Integer> roleCounts = new ArrayList<>(roles.values());
+        roleCounts.sort(Collections.reverseOrder());
+        int outsideTopTwo = pool.size() - (roleCounts.isEmpty() ? 0 : roleCounts.get(0))
+                - (roleCounts.size() < 2 ? 0 : roleCounts.get(1));
+        bounds.put("roles", Math.min(outsideTopTwo, largest(bySize, t -> {
+            long usable = 0;
+            for (int count : roleCounts) usable += Math.min(count, (long) t * (teamSize - 2));
+            return usable >= (long) t * teamSize;
+        })));
+
+        return new Report(teamSize, pool.size(), bounds);
+    }
+
+    // Largest t in [0, upper] passing the test; each rule's slack is concave in t, so passing values form a prefix
+    private static int largest(int upper, IntPredicate feasible) {
+        int low = 0;
+        int high = upper;
+        while (low < high) {
+            int mid = low + (high - low + 1) / 2;
+            if (feasible.test(mid)) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
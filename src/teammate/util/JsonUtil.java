@@ -0,0 +1,213 @@
+package teammate.util;
+
+import java.util.*;
+
+// Minimal JSON encoding and flat-object parsing for machine-readable output and API request bodies
+public class JsonUtil {
+
+    // Encodes a map of strings, numbers, booleans, nested maps and lists
+    public static String toJson(Map<String, ?> values) {
+        StringBuilder json = new StringBuilder(128);
+        appendObject(json, values);
+        return json.toString();
+    }
+
+    // Parses a single JSON object whose values are strings, numbers, booleans or null
+    public static Map<String, Object> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, Object> result = parser.readObject();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw new IllegalArgumentException("Unexpected content after JSON object at position " + parser.pos);
+        }
+        return result;
+    }
+
+    private static void appendObject(StringBuilder json, Map<String, ?> values) {
+        json.append('{');
+        boolean first = true;
+
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (!first) json.append(',');
+            first = false;
+            appendString(json, entry.getKey());
+            json.append(':');
+            appendValue(json, entry.getValue());
+        }
+        json.append('}');
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof Map) {
+            appendObject(json, (Map<String, ?>) value);
+        } else if (value instanceof Collection) {
+            json.append('[');
+            boolean first = true;
+            for (Object item : (Collection<?>) value) {
+                if (!first) json.append(',');
+                first = false;
+                appendValue(json, item);
+            }
+            json.append(']');
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    // Recursive-descent reader limited to one level of key/value pairs
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            if (text == null) throw new IllegalArgumentException("Empty JSON body");
+            this.text = text;
+        }
+
+        Map<String, Object> readObject() {
+            Map<String, Object> values = new LinkedHashMap<>();
+            skipWhitespace();
+            expect('{');
+            skipWhitespace();
+
+            if (peek() == '}') {
+                pos++;
+                return values;
+            }
+
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                values.put(key, readValue());
+                skipWhitespace();
+
+                char c = next();
+                if (c == '}') return values;
+                if (c != ',') throw error("Expected ',' or '}'");
+            }
+        }
+
+        private Object readValue() {
+            char c = peek();
+            if (c == '"') return readString();
+            if (c == '-' || (c >= '0' && c <= '9')) return readNumber();
+            if (text.startsWith("true", pos)) { pos += 4; return Boolean.TRUE; }
+            if (text.startsWith("false", pos)) { pos += 5; return Boolean.FALSE; }
+            if (text.startsWith("null", pos)) { pos += 4; return null; }
+            throw error("Unsupported JSON value");
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+
+            while (true) {
+                char c = next();
+                if (c == '"') return value.toString();
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+
+                char escaped = next();
+                switch (escaped) {
+                    case '"': case '\\': case '/': value.append(escaped); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) throw error("Truncated unicode escape");
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        throw error("Invalid escape");
+                }
+            }
+        }
+
+        private Number readNumber() {
+            int start = pos;
+            boolean decimal = false;
+
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+
+            String number = text.substring(start, pos);
+            try {
+                return decimal ? (Number) Double.parseDouble(number) : (Number) Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + number + "'");
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        private char peek() {
+            if (atEnd()) throw error("Unexpected end of JSON");
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) throw error("Expected '" + expected + "'");
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos);
+        }
+    }
+}
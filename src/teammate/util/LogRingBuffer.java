@@ -0,0 +1,96 @@
+package teammate.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded lock-free multi-producer / single-consumer ring buffer for log events
+final class LogRingBuffer {
+    private final int capacity;
+    private final int mask;
+    private final LogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only touched by the single consumer thread
+    private long head;
+
+    LogRingBuffer(int requestedCapacity) {
+        this.capacity = nextPowerOfTwo(Math.max(2, requestedCapacity));
+        this.mask = capacity - 1;
+        this.slots = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // Claims a slot with a single CAS; returns false when the buffer is full
+    boolean offer(LogEvent event) {
+        long position = tail.get();
+
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    // Removes the oldest published event, or returns null when nothing is ready
+    LogEvent poll() {
+        int index = (int) (head & mask);
+
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+
+        LogEvent event = slots[index];
+        slots[index] = null;
+        sequences.set(index, head + capacity);
+        head++;
+        return event;
+    }
+
+    // Sequence number of the next slot producers will claim
+    long producerPosition() {
+        return tail.get();
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int) (head & mask)) != head + 1;
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    // Immutable, pre-timestamped log entry captured on the producer thread
+    static final class LogEvent {
+        final long timestamp;
+        final SystemLogger.LogLevel level;
+        final String message;
+
+        LogEvent(long timestamp, SystemLogger.LogLevel level, String message) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.message = message;
+        }
+    }
+}
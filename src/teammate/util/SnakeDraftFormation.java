@@ -0,0 +1,242 @@
+package teammate.util;
+
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.metrics.Counter;
+import teammate.metrics.MetricsRegistry;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+// Deterministic O(n log n) formation for large pools: stratify by personality, sort by skill and deal
+// the strata into team slots in snake order, then repair game-cap, role-diversity and skill-balance
+// violations with nearby swaps. No shuffling and no retry loop
+public class SnakeDraftFormation {
+    private static final Counter swaps = MetricsRegistry.counter("snake.fixup_swaps");
+    private static final Counter dropped = MetricsRegistry.counter("snake.teams_dropped");
+
+    // Teams on each side of an invalid team searched for a swap partner
+    private static final int FIXUP_WINDOW = 32;
+    private static final int FIXUP_PASSES = 2;
+    // Same starting tolerance as the randomized builders; team averages outside it are repaired or dropped
+    private static final double SKILL_TOLERANCE = 0.10;
+
+    private static final Comparator<Participant> BY_SKILL_DESC =
+            Comparator.comparingInt(Participant::getSkillLevel).reversed().thenComparing(Participant::getId);
+
+    // Forms as many teams as the Leader, Thinker and Balanced counts allow; teams that cannot be repaired are left out.
+    // The skill target is the pool's total skill over the slots of a full split, as the other modes use
+    public static List<Team> formTeams(List<Participant> participants, int teamSize) {
+        return formTeams(participants, teamSize, () -> false);
+    }
+
+    // Same, but the fix-up pass stops once stop returns true; teams still invalid at that point are left out
+    public static List<Team> formTeams(List<Participant> participants, int teamSize, BooleanSupplier stop) {
+        List<Participant> leaders = new ArrayList<>();
+        List<Participant> thinkers = new ArrayList<>();
+        List<Participant> balanced = new ArrayList<>();
+
+        for (Participant p : participants) {
+            switch (p.getPersonalityType()) {
+                case "Leader": leaders.add(p); break;
+                case "Thinker": thinkers.add(p); break;
+                case "Balanced": balanced.add(p); break;
+                default: break;
+            }
+        }
+        int totalSkill = 0;
+        for (Participant p : participants) {
+            totalSkill += p.getSkillLevel();
+        }
+        double targetSkill = (double) totalSkill / (Math.max(1, participants.size() / teamSize) * teamSize);
+
+        leaders.sort(BY_SKILL_DESC);
+        thinkers.sort(BY_SKILL_DESC);
+        balanced.sort(BY_SKILL_DESC);
+
+        // Every team takes one Leader and one Thinker; the other slots are Balanced, topped up with a second Thinker
+        int teamCount = Math.min(Math.min(leaders.size(), thinkers.size()), participants.size() / teamSize);
+        while (teamCount > 0 && fillerSupply(teamCount, thinkers.size(), balanced.size()) < teamCount * (teamSize - 2)) {
+            teamCount--;
+        }
+        if (teamCount == 0) return new ArrayList<>();
+
+        int fillerSlots = teamCount * (teamSize - 2);
+        int extraThinkers = Math.max(0, fillerSlots - balanced.size());
+
+        // Both the Thinker round and the extra Thinkers are spread over the whole skill range
+        List<Participant> thinkerPicks = spread(thinkers, teamCount + extraThinkers);
+        List<Participant> firstThinkers = spread(thinkerPicks, teamCount);
+        Set<Participant> inFirstRound = Collections.newSetFromMap(new IdentityHashMap<>());
+        inFirstRound.addAll(firstThinkers);
+
+        List<Participant> fillers = new ArrayList<>(spread(balanced, fillerSlots - extraThinkers));
+        for (Participant thinker : thinkerPicks) {
+            if (!inFirstRound.contains(thinker)) fillers.add(thinker);
+        }
+        fillers.sort(BY_SKILL_DESC);
+
+        List<List<Participant>> slots = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            slots.add(new ArrayList<>(teamSize));
+        }
+
+        int round = deal(slots, spread(leaders, teamCount), 0);
+        round = deal(slots, firstThinkers, round);
+        deal(slots, fillers, round);
+
+        for (int pass = 0; pass < FIXUP_PASSES && !stop.getAsBoolean(); pass++) {
+            boolean allValid = true;
+            for (int t = 0; t < slots.size() && !stop.getAsBoolean(); t++) {
+                if (!isValid(slots.get(t), targetSkill) && !repair(slots, t, targetSkill)) {
+                    allValid = false;
+                }
+            }
+            if (allValid) break;
+        }
+
+        List<Team> teams = new ArrayList<>(teamCount);
+        for (List<Participant> members : slots) {
+            if (!isValid(members, targetSkill)) {
+                dropped.increment();
+                continue;
+            }
+            Team team = new Team(teamSize);
+            for (Participant member : members) {
+                team.addMember(member);
+            }
+            teams.add(team);
+        }
+        return teams;
+    }
+
+    private static int fillerSupply(int teamCount, int thinkerCount, int balancedCount) {
+        return balancedCount + Math.min(teamCount, thinkerCount - teamCount);
+    }
+
+    // Evenly spaced picks from a sorted stratum, so unused participants come from across the skill range
+    private static List<Participant> spread(List<Participant> sorted, int count) {
+        List<Participant> picks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            picks.add(sorted.get((int) ((i + 0.5) * sorted.size() / count)));
+        }
+        return picks;
+    }
+
+    // Deals one participant per team per round, reversing direction each round; returns the next round number
+    private static int deal(List<List<Participant>> slots, List<Participant> sorted, int round) {
+        int teams = slots.size();
+        for (int i = 0; i < sorted.size(); i++) {
+            int r = round + i / teams;
+            int position = i % teams;
+            slots.get(r % 2 == 0 ? position : teams - 1 - position).add(sorted.get(i));
+        }
+        return round + (sorted.size() + teams - 1) / teams;
+    }
+
+    // Swaps members with nearby teams until the team is valid. While the team breaks a rule, each swap
+    // must reduce its rule violations and the smallest skill difference wins; once only its average is
+    // off, the swap that brings it closest to the tolerance band wins. Neither team may gain rule
+    // violations or drift further outside the band
+    private static boolean repair(List<List<Participant>> slots, int t, double targetSkill) {
+        List<Participant> team = slots.get(t);
+
+        for (int attempt = 0; attempt < team.size(); attempt++) {
+            int score = violations(team);
+            int total = totalSkill(team);
+            double excess = skillExcess(total, team.size(), targetSkill);
+            if (score == 0 && excess == 0) return true;
+
+            int bestOther = -1;
+            int bestMine = -1;
+            int bestTheirs = -1;
+            int bestDiff = Integer.MAX_VALUE;
+            double bestExcess = excess;
+
+            for (int d = 1; d <= FIXUP_WINDOW && d < slots.size() && bestDiff > 0; d++) {
+                for (int u : new int[]{t + d, t - d}) {
+                    if (u < 0 || u >= slots.size()) continue;
+                    List<Participant> other = slots.get(u);
+                    int otherScore = violations(other);
+                    int otherTotal = totalSkill(other);
+                    double otherExcess = skillExcess(otherTotal, other.size(), targetSkill);
+
+                    for (int i = 0; i < team.size(); i++) {
+                        for (int j = 0; j < other.size(); j++) {
+                            // The skill checks need only the totals, so they run before the swap is tried
+                            int delta = other.get(j).getSkillLevel() - team.get(i).getSkillLevel();
+                            int diff = Math.abs(delta);
+                            double newExcess = skillExcess(total + delta, team.size(), targetSkill);
+                            if (score > 0 ? diff >= bestDiff || newExcess > excess
+                                    : newExcess >= excess || newExcess > bestExcess
+                                    || newExcess == bestExcess && diff >= bestDiff) continue;
+                            if (skillExcess(otherTotal - delta, other.size(), targetSkill) > otherExcess) continue;
+
+                            swap(team, i, other, j);
+                            boolean improves = (score > 0 ? violations(team) < score : violations(team) == 0)
+                                    && violations(other) <= otherScore;
+                            swap(team, i, other, j);
+
+                            if (improves) {
+                                bestOther = u;
+                                bestMine = i;
+                                bestTheirs = j;
+                                bestDiff = diff;
+                                bestExcess = newExcess;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (bestOther < 0) return false;
+            swap(team, bestMine, slots.get(bestOther), bestTheirs);
+            swaps.increment();
+        }
+        return isValid(team, targetSkill);
+    }
+
+    private static void swap(List<Participant> a, int i, List<Participant> b, int j) {
+        Participant held = a.get(i);
+        a.set(i, b.get(j));
+        b.set(j, held);
+    }
+
+    private static boolean isValid(List<Participant> members, double targetSkill) {
+        return violations(members) == 0 && skillExcess(totalSkill(members), members.size(), targetSkill) == 0;
+    }
+
+    private static int totalSkill(List<Participant> members) {
+        int total = 0;
+        for (Participant p : members) {
+            total += p.getSkillLevel();
+        }
+        return total;
+    }
+
+    // How far a team's average skill lies outside the tolerance band around the target: 0 means inside
+    private static double skillExcess(int totalSkill, int size, double targetSkill) {
+        return Math.max(0, Math.abs((double) totalSkill / size - targetSkill) - SKILL_TOLERANCE * targetSkill);
+    }
+
+    // Distance from the TeamFormationHelper.isTeamValid rules: 0 means valid
+    private static int violations(List<Participant> members) {
+        int leaders = 0;
+        int thinkers = 0;
+        Map<String, Integer> games = new HashMap<>();
+        Set<String> roles = new HashSet<>();
+
+        for (Participant p : members) {
+            if (p.getPersonalityType().equals("Leader")) leaders++;
+            if (p.getPersonalityType().equals("Thinker")) thinkers++;
+            games.merge(p.getPreferredGame(), 1, Integer::sum);
+            roles.add(p.getPreferredRole());
+        }
+
+        int score = Math.abs(leaders - 1) + Math.max(0, 1 - thinkers) + Math.max(0, thinkers - 2)
+                + Math.max(0, 3 - roles.size());
+        for (int count : games.values()) {
+            score += Math.max(0, count - 2);
+        }
+        return score;
+    }
+}
@@ -1,32 +1,88 @@
 package teammate.util;
 
 import java.io.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 // Provides system-wide logging functionality for tracking operations
 public class SystemLogger {
-    private static final String LOG_FILE = "teammate_system.log";
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private static final String LOG_FILE = System.getProperty("teammate.log.file", "teammate_system.log");
+    private static final DateTimeFormatter dateFormat =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    // Backend configuration, overridable with -Dteammate.log.* system properties
+    private static final boolean ASYNC_ENABLED =
+            Boolean.parseBoolean(System.getProperty("teammate.log.async", "true"));
+    private static final int BUFFER_SIZE =
+            Integer.getInteger("teammate.log.bufferSize", 8192);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private static final AsyncLogWriter asyncWriter = createAsyncWriter();
 
     public enum LogLevel {
-        INFO, WARNING, ERROR, SUCCESS
+        INFO(0), WARNING(2), ERROR(3), SUCCESS(1);
+
+        private final int severity;
+
+        LogLevel(int severity) {
+            this.severity = severity;
+        }
+
+        public int getSeverity() {
+            return severity;
+        }
+    }
+
+    // Functional areas that can be filtered independently, e.g. -Dteammate.log.level.formation=WARNING
+    public enum LogCategory {
+        GENERAL, FORMATION, FILE, INGEST, PORTAL;
+
+        private volatile int minSeverity = parseThreshold(
+                System.getProperty("teammate.log.level." + name().toLowerCase(),
+                        System.getProperty("teammate.log.level", "INFO")));
+    }
+
+    // Severity above every level, used for the "OFF" threshold
+    private static final int OFF = Integer.MAX_VALUE;
+
+    // Cheap guard for hot paths: a single volatile read and compare
+    public static boolean isEnabled(LogCategory category, LogLevel level) {
+        return level.severity >= category.minSeverity;
+    }
+
+    // Changes the minimum level for a category at runtime; null turns the category off
+    public static void setMinimumLevel(LogCategory category, LogLevel level) {
+        category.minSeverity = level == null ? OFF : level.severity;
     }
 
     // Logs a message with timestamp and level to file
-    public static synchronized void log(LogLevel level, String message) {
-        String timestamp = dateFormat.format(new Date());
-        String logEntry = String.format("[%s] [%s] %s", timestamp, level, message);
+    public static void log(LogLevel level, String message) {
+        log(LogCategory.GENERAL, level, message);
+    }
 
-        try (FileWriter fw = new FileWriter(LOG_FILE, true);
-             BufferedWriter bw = new BufferedWriter(fw);
-             PrintWriter out = new PrintWriter(bw)) {
+    // Logs a message under a category if that category is enabled for the level
+    public static void log(LogCategory category, LogLevel level, String message) {
+        if (!isEnabled(category, level)) return;
+        append(level, message);
+    }
 
-            out.println(logEntry);
+    // Builds the message only when the category is enabled for the level
+    public static void log(LogCategory category, LogLevel level, Supplier<String> message) {
+        if (!isEnabled(category, level)) return;
+        append(level, message.get());
+    }
 
-        } catch (IOException e) {
-            System.err.println("Failed to write log: " + e.getMessage());
+    private static void append(LogLevel level, String message) {
+        long timestamp = System.currentTimeMillis();
+
+        if (asyncWriter != null &&
+                asyncWriter.append(new LogRingBuffer.LogEvent(timestamp, level, message))) {
+            return;
         }
+
+        writeSynchronously(timestamp, level, message);
     }
 
     public static void info(String message) {
@@ -45,17 +101,126 @@ public class SystemLogger {
         log(LogLevel.SUCCESS, message);
     }
 
+    public static void info(LogCategory category, String message) {
+        log(category, LogLevel.INFO, message);
+    }
+
+    public static void info(LogCategory category, Supplier<String> message) {
+        log(category, LogLevel.INFO, message);
+    }
+
+    public static void warning(LogCategory category, String message) {
+        log(category, LogLevel.WARNING, message);
+    }
+
+    public static void warning(LogCategory category, Supplier<String> message) {
+        log(category, LogLevel.WARNING, message);
+    }
+
+    public static void error(LogCategory category, String message) {
+        log(category, LogLevel.ERROR, message);
+    }
+
+    public static void error(LogCategory category, Supplier<String> message) {
+        log(category, LogLevel.ERROR, message);
+    }
+
+    public static void success(LogCategory category, String message) {
+        log(category, LogLevel.SUCCESS, message);
+    }
+
+    public static void success(LogCategory category, Supplier<String> message) {
+        log(category, LogLevel.SUCCESS, message);
+    }
+
     // Logs exception details with context
     public static void logException(String context, Exception e) {
-        error(context + " - Exception: " + e.getClass().getSimpleName() + " - " + e.getMessage());
+        logException(LogCategory.GENERAL, context, e);
+    }
+
+    public static void logException(LogCategory category, String context, Exception e) {
+        error(category, () -> context + " - Exception: " +
+                e.getClass().getSimpleName() + " - " + e.getMessage());
     }
 
     // Logs file operations for tracking data persistence
     public static void logFileOperation(String operation, String filename, boolean success) {
         if (success) {
-            info("FILE: " + operation + " - " + filename + " - SUCCESS");
+            info(LogCategory.FILE, () -> "FILE: " + operation + " - " + filename + " - SUCCESS");
         } else {
-            error("FILE: " + operation + " - " + filename + " - FAILED");
+            error(LogCategory.FILE, () -> "FILE: " + operation + " - " + filename + " - FAILED");
+        }
+    }
+
+    // Blocks until all queued log events have been written to disk
+    public static void flush() {
+        if (asyncWriter != null) {
+            asyncWriter.flush(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
+    // Drains queued events and closes the log file; later messages are written synchronously
+    public static void shutdown() {
+        if (asyncWriter != null) {
+            asyncWriter.shutdown(SHUTDOWN_TIMEOUT_MS);
+        }
+    }
+
+    // Number of events discarded by the DROP / DROP_INFO overflow policies
+    public static long getDroppedCount() {
+        return asyncWriter == null ? 0 : asyncWriter.getDroppedCount();
+    }
+
+    // Parses a level name or OFF into a severity threshold, defaulting to INFO
+    private static int parseThreshold(String value) {
+        String name = value.trim().toUpperCase();
+        if (name.equals("OFF")) return OFF;
+
+        try {
+            return LogLevel.valueOf(name).severity;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log level '" + value + "', using INFO");
+            return LogLevel.INFO.severity;
+        }
+    }
+
+    // Starts the background writer, falling back to synchronous logging if it cannot open the file
+    private static AsyncLogWriter createAsyncWriter() {
+        if (!ASYNC_ENABLED) return null;
+
+        AsyncLogWriter.OverflowPolicy policy;
+        try {
+            policy = AsyncLogWriter.OverflowPolicy.valueOf(
+                    System.getProperty("teammate.log.overflow", "BLOCK").trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log overflow policy, using BLOCK");
+            policy = AsyncLogWriter.OverflowPolicy.BLOCK;
+        }
+
+        try {
+            AsyncLogWriter writer = new AsyncLogWriter(LOG_FILE, BUFFER_SIZE, policy);
+            Runtime.getRuntime().addShutdownHook(
+                    new Thread(() -> writer.shutdown(SHUTDOWN_TIMEOUT_MS), "teammate-log-shutdown"));
+            return writer;
+        } catch (IOException e) {
+            System.err.println("Async logging unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Legacy path used when async logging is disabled or has been shut down
+    private static synchronized void writeSynchronously(long timestamp, LogLevel level, String message) {
+        String logEntry = String.format("[%s] [%s] %s",
+                dateFormat.format(Instant.ofEpochMilli(timestamp)), level, message);
+
+        try (FileWriter fw = new FileWriter(LOG_FILE, true);
+             BufferedWriter bw = new BufferedWriter(fw);
+             PrintWriter out = new PrintWriter(bw)) {
+
+            out.println(logEntry);
+
+        } catch (IOException e) {
+            System.err.println("Failed to write log: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,195 @@
+package teammate.util;
+
+import teammate.entity.Team;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.zip.GZIPOutputStream;
+
+// Writes an export's snapshot and cumulative rows in one pass. Each team is formatted once into a reused
+// builder and encoded into a pair of byte buffers (snapshot row, timestamped cumulative row); full buffers
+// go to a writer thread, so encoding the next chunk overlaps with writing and compressing the last one
+class TeamExportPipeline {
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final int CHUNKS = 2;
+    // Platform charset, as FileWriter uses for the other team files and FileReader for reading them back
+    private static final Charset CHARSET = Charset.defaultCharset();
+    private static final byte[] NL = System.lineSeparator().getBytes(CHARSET);
+
+    // Encoded rows for both files; the encoder fills one chunk while the writer drains the other
+    private static class Chunk {
+        ByteBuffer snapshot = ByteBuffer.allocate(CHUNK_BYTES);
+        ByteBuffer cumulative = ByteBuffer.allocate(CHUNK_BYTES);
+    }
+
+    private static final Chunk END = new Chunk();
+
+    private final BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(CHUNKS);
+    private final BlockingQueue<Chunk> full = new ArrayBlockingQueue<>(CHUNKS + 1);
+    private final CharsetEncoder encoder = CHARSET.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder row = new StringBuilder(256);
+    private ByteBuffer encoded = ByteBuffer.allocate(1024);
+
+    TeamExportPipeline() {
+        for (int i = 0; i < CHUNKS; i++) {
+            free.add(new Chunk());
+        }
+    }
+
+    // Writes the snapshot (header, column line, rows) and appends the rows to the cumulative file. If anything
+    // fails, the cumulative file is truncated back to its previous length so a failed export leaves no rows
+    int export(List<Team> teams, String snapshotFilename, boolean compress, File cumulativeFile,
+               String snapshotHeader, String cumulativeColumns, String timestamp) throws IOException {
+        boolean cumulativeExists = cumulativeFile.exists();
+
+        try (OutputStream snapshot = openSnapshot(snapshotFilename, compress);
+             FileChannel cumulative = new FileOutputStream(cumulativeFile, true).getChannel()) {
+
+            long cumulativeLength = cumulative.size();
+            OutputStream cumulativeOut = Channels.newOutputStream(cumulative);
+            ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "team-export-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            try {
+                Future<?> written = writer.submit(() -> drain(snapshot, cumulativeOut));
+                try {
+                    Chunk chunk = free.take();
+                    putLine(chunk.snapshot, snapshotHeader);
+                    if (!cumulativeExists) putLine(chunk.cumulative, cumulativeColumns);
+
+                    byte[] prefix = (timestamp + ",").getBytes(CHARSET);
+                    for (Team team : teams) {
+                        row.setLength(0);
+                        team.appendCSV(row);
+                        ByteBuffer bytes = encode(row);
+
+                        if (chunk.snapshot.remaining() < bytes.remaining() + NL.length ||
+                                chunk.cumulative.remaining() < prefix.length + bytes.remaining() + NL.length) {
+                            chunk = handOff(chunk, written);
+                            ensureCapacity(chunk, prefix.length + bytes.remaining() + NL.length);
+                        }
+
+                        chunk.snapshot.put(bytes.array(), 0, bytes.limit()).put(NL);
+                        chunk.cumulative.put(prefix).put(bytes.array(), 0, bytes.limit()).put(NL);
+                    }
+                    full.put(chunk);
+                } finally {
+                    full.put(END);
+                }
+                await(written);
+                snapshot.flush();
+                cumulative.force(false);
+                return teams.size();
+
+            } catch (IOException | RuntimeException e) {
+                rollback(writer, cumulative, cumulativeLength);
+                throw e;
+            } catch (InterruptedException e) {
+                rollback(writer, cumulative, cumulativeLength);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            } finally {
+                writer.shutdown();
+            }
+        }
+    }
+
+    // Lets the writer reach the end marker without interrupting it (that would close the channel), then
+    // cuts the cumulative file back to where this export started
+    private static void rollback(ExecutorService writer, FileChannel cumulative, long length) throws IOException {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cumulative.truncate(length);
+    }
+
+    private static OutputStream openSnapshot(String filename, boolean compress) throws IOException {
+        OutputStream file = new FileOutputStream(filename, false);
+        return compress ? new GZIPOutputStream(file, CHUNK_BYTES) : file;
+    }
+
+    // Writer thread: writes each full chunk to both files and returns it to the free queue
+    private Void drain(OutputStream snapshot, OutputStream cumulative) throws IOException, InterruptedException {
+        while (true) {
+            Chunk chunk = full.take();
+            if (chunk == END) return null;
+
+            snapshot.write(chunk.snapshot.array(), 0, chunk.snapshot.position());
+            cumulative.write(chunk.cumulative.array(), 0, chunk.cumulative.position());
+            chunk.snapshot.clear();
+            chunk.cumulative.clear();
+            free.put(chunk);
+        }
+    }
+
+    // Passes a full chunk to the writer and takes the next free one, failing fast if the writer has died
+    private Chunk handOff(Chunk chunk, Future<?> written) throws IOException, InterruptedException {
+        full.put(chunk);
+        while (true) {
+            Chunk next = free.poll(100, TimeUnit.MILLISECONDS);
+            if (next != null) return next;
+            if (written.isDone()) {
+                await(written);
+                throw new IOException("Export writer stopped early");
+            }
+        }
+    }
+
+    // Grows a chunk for a row longer than the buffers; only pathological team sizes get here
+    private static void ensureCapacity(Chunk chunk, int bytes) {
+        if (chunk.cumulative.capacity() < bytes) {
+            chunk.snapshot = ByteBuffer.allocate(bytes);
+            chunk.cumulative = ByteBuffer.allocate(bytes);
+        }
+    }
+
+    private static void await(Future<?> written) throws IOException, InterruptedException {
+        try {
+            written.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Export writer failed", cause);
+        }
+    }
+
+    private void putLine(ByteBuffer buffer, String line) throws IOException {
+        row.setLength(0);
+        row.append(line);
+        buffer.put(encode(row)).put(NL);
+    }
+
+    // Encodes the row into the reused scratch buffer, growing it for long rows; returns it ready to read
+    private ByteBuffer encode(CharSequence text) throws IOException {
+        while (true) {
+            encoded.clear();
+            encoder.reset();
+            CharBuffer chars = CharBuffer.wrap(text);
+            CoderResult result = encoder.encode(chars, encoded, true);
+            if (!result.isOverflow()) result = encoder.flush(encoded);
+            if (result.isOverflow()) {
+                encoded = ByteBuffer.allocate(encoded.capacity() * 2);
+                continue;
+            }
+            if (result.isError()) result.throwException();
+            encoded.flip();
+            return encoded;
+        }
+    }
+}
@@ -2,15 +2,28 @@ package teammate.util;
 
 import teammate.entity.Participant;
 import teammate.entity.Team;
+import teammate.metrics.Counter;
+import teammate.metrics.MetricsRegistry;
 import java.util.*;
 
 // Provides utility methods for team formation logic and validation
 public class TeamFormationHelper {
+    private static final Counter attempts = MetricsRegistry.counter("formation.attempts");
+    private static final Counter rejectedNoLeader = MetricsRegistry.counter("formation.rejected.no_leader");
+    private static final Counter rejectedNoThinker = MetricsRegistry.counter("formation.rejected.no_thinker");
+    private static final Counter rejectedCandidate = MetricsRegistry.counter("formation.rejected.candidate_constraints");
+    private static final Counter rejectedUnfilled = MetricsRegistry.counter("formation.rejected.unfilled");
+    private static final Counter rejectedSkill = MetricsRegistry.counter("formation.rejected.skill_balance");
+    private static final Counter toleranceEscalations = MetricsRegistry.counter("formation.tolerance_escalations");
 
     // Builds a single balanced team from available candidates
     public static Team buildSingleTeam(List<Participant> candidates, int teamSize,
                                        double targetSkill, double skillTolerance) {
-        if (candidates.size() < teamSize) return null;
+        attempts.increment();
+        if (candidates.size() < teamSize) {
+            rejectedUnfilled.increment();
+            return null;
+        }
 
         Team team = new Team(teamSize);
         List<Participant> pool = new ArrayList<>(candidates);
@@ -26,7 +39,10 @@ public class TeamFormationHelper {
                 break;
             }
         }
-        if (leader == null) return null;
+        if (leader == null) {
+            rejectedNoLeader.increment();
+            return null;
+        }
 
         selected.add(leader);
         pool.remove(leader);
@@ -41,7 +57,10 @@ public class TeamFormationHelper {
                 if (thinkerCount >= 2) break;
             }
         }
-        if (thinkers.isEmpty()) return null;
+        if (thinkers.isEmpty()) {
+            rejectedNoThinker.increment();
+            return null;
+        }
 
         selected.addAll(thinkers);
         pool.removeAll(thinkers);
@@ -52,6 +71,7 @@ public class TeamFormationHelper {
             selected.add(candidate);
 
             if (!meetsBasicConstraints(selected)) {
+                rejectedCandidate.increment();
                 selected.remove(candidate);
                 continue;
             }
@@ -70,11 +90,19 @@ public class TeamFormationHelper {
             if (teamAvg >= lowerBound && teamAvg <= upperBound) {
                 return team;
             }
+            rejectedSkill.increment();
+        } else {
+            rejectedUnfilled.increment();
         }
 
         return null;
     }
 
+    // Records that a formation loop widened its skill tolerance
+    public static void recordToleranceEscalation() {
+        toleranceEscalations.increment();
+    }
+
     // Checks if team meets basic constraints (game and role diversity)
     public static boolean meetsBasicConstraints(List<Participant> members) {
         Map<String, Integer> gameCounts = new HashMap<>();
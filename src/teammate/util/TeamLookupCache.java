@@ -0,0 +1,125 @@
+package teammate.util;
+
+import teammate.entity.Team;
+import teammate.entity.TeamHistoryEntry;
+import teammate.service.ParticipantManager;
+import java.io.File;
+import java.util.*;
+
+// Bounded LRU of each participant's most recent cumulative team record, keyed by participant ID ignoring case.
+// Entries belong to one version of the cumulative file (path, length, modification time): a write by another
+// process drops them all, while writes through FileManager refresh the written members in place
+class TeamLookupCache {
+    // Returned by lookup when the participant is not cached
+    static final FileManager.TeamRecord MISS = new FileManager.TeamRecord(null, null);
+
+    // Cached answer for a participant with no team in the history
+    private static final Entry NONE = new Entry(null);
+
+    // One history entry, shared by every member's key; the resolved team is built on first use
+    private static class Entry {
+        private final TeamHistoryEntry recorded;
+        private FileManager.TeamRecord resolved;
+        private ParticipantManager resolvedBy;
+
+        Entry(TeamHistoryEntry recorded) {
+            this.recorded = recorded;
+        }
+    }
+
+    // Identifies the version of the cumulative file the entries were read from
+    static class Stamp {
+        private final File file;
+        private final long length;
+        private final long modified;
+
+        private Stamp(File file) {
+            this.file = file.getAbsoluteFile();
+            this.length = file.length();
+            this.modified = file.lastModified();
+        }
+
+        static Stamp of(File file) {
+            return new Stamp(file);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Stamp)) return false;
+            Stamp other = (Stamp) o;
+            return length == other.length && modified == other.modified && file.equals(other.file);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, length, modified);
+        }
+    }
+
+    private final Map<String, Entry> entries;
+    private Stamp stamp;
+
+    TeamLookupCache(int capacity) {
+        this.entries = new LinkedHashMap<String, Entry>(Math.min(capacity, 1024) * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // The participant's cached record for this file version: null if never assigned, MISS if not cached
+    synchronized FileManager.TeamRecord lookup(String participantId, Stamp current,
+                                               ParticipantManager participantManager) {
+        if (!current.equals(stamp)) {
+            entries.clear();
+            stamp = current;
+        }
+
+        Entry entry = entries.get(key(participantId));
+        return entry == null ? MISS : resolve(entry, participantManager);
+    }
+
+    // Caches a lookup read from the file version readAt, unless the file has changed since
+    synchronized void put(String participantId, TeamHistoryEntry recorded, Stamp readAt) {
+        if (!readAt.equals(stamp) || !readAt.equals(Stamp.of(readAt.file))) return;
+        entries.put(key(participantId), recorded == null ? NONE : new Entry(recorded));
+    }
+
+    // Records newly appended teams as their members' most recent ones. If the file was changed elsewhere before
+    // this write (before is not the cached version), the old entries are dropped first
+    synchronized void refresh(List<Team> teams, String timestamp, Stamp before, Stamp after) {
+        if (!before.equals(stamp)) entries.clear();
+        stamp = after;
+
+        for (Team team : teams) {
+            Entry entry = new Entry(TeamHistoryEntry.of(team, timestamp));
+            for (String id : entry.recorded.getMemberIds()) {
+                entries.put(key(id), entry);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        stamp = null;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // Resolves the team once per entry and participant manager
+    private static FileManager.TeamRecord resolve(Entry entry, ParticipantManager participantManager) {
+        if (entry == NONE) return null;
+        if (entry.resolved == null || entry.resolvedBy != participantManager) {
+            entry.resolved = FileManager.TeamRecord.resolve(entry.recorded, participantManager);
+            entry.resolvedBy = participantManager;
+        }
+        return entry.resolved;
+    }
+
+    private static String key(String participantId) {
+        return participantId.toUpperCase(Locale.ROOT);
+    }
+}
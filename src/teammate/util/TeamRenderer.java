@@ -0,0 +1,198 @@
+package teammate.util;
+
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// Renders team listings into one buffered writer, reusing a single builder for every team, so large listings
+// are written in one pass without per-line console flushes. Supports a game/skill filter and pagination
+public class TeamRenderer {
+    private static final String RULE_50 = "=".repeat(50);
+    private static final String RULE_60 = "=".repeat(60);
+    private static final String NL = System.lineSeparator();
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Teams to include: a team matches when some member prefers the game and its average skill is in range
+    public static class Filter {
+        private final String game;
+        private final double minSkill;
+        private final double maxSkill;
+
+        public Filter(String game, double minSkill, double maxSkill) {
+            this.game = game == null || game.isEmpty() ? null : game;
+            this.minSkill = minSkill;
+            this.maxSkill = maxSkill;
+        }
+
+        public static Filter all() {
+            return new Filter(null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+
+        public boolean matches(Team team) {
+            double skill = team.getAverageSkill();
+            if (skill < minSkill || skill > maxSkill) return false;
+            return game == null || team.getGameDistribution().keySet().stream().anyMatch(game::equalsIgnoreCase);
+        }
+
+        public boolean isAll() {
+            return game == null && minSkill == Double.NEGATIVE_INFINITY && maxSkill == Double.POSITIVE_INFINITY;
+        }
+
+        public String describe() {
+            if (isAll()) return "all teams";
+            StringBuilder sb = new StringBuilder();
+            if (game != null) sb.append("game ").append(game);
+            if (minSkill != Double.NEGATIVE_INFINITY || maxSkill != Double.POSITIVE_INFINITY) {
+                if (sb.length() > 0) sb.append(", ");
+                sb.append("average skill ");
+                appendFixed2(sb, Math.max(0, minSkill));
+                sb.append('-');
+                appendFixed2(sb, Math.min(10, maxSkill));
+            }
+            return sb.toString();
+        }
+    }
+
+    // Writes one page of the matching teams (1-based; pageSize 0 means everything) to the console in a single
+    // flush and returns how many teams matched, so callers can work out the page count
+    public static int printTeams(List<Team> teams, double targetSkill, Filter filter, int page, int pageSize) {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            int matched = renderTeams(teams, targetSkill, filter, page, pageSize, out);
+            out.flush();
+            return matched;
+        } catch (IOException e) {
+            SystemLogger.logException(SystemLogger.LogCategory.FILE, "Failed to print team listing", e);
+            return 0;
+        }
+    }
+
+    // Streams every matching team to a file in one pass; returns the number written
+    public static int writeTeams(List<Team> teams, double targetSkill, Filter filter, String filename)
+            throws IOException {
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(filename), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return renderTeams(teams, targetSkill, filter, 1, 0, out);
+        }
+    }
+
+    // Renders the listing header and the requested page into out without flushing it
+    public static int renderTeams(List<Team> teams, double targetSkill, Filter filter, int page, int pageSize,
+                                  Writer out) throws IOException {
+        int matched = 0;
+        for (Team team : teams) {
+            if (filter.matches(team)) matched++;
+        }
+
+        int first = pageSize <= 0 ? 0 : (Math.max(1, page) - 1) * pageSize;
+        int last = pageSize <= 0 ? matched : Math.min(matched, first + pageSize);
+
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append(NL).append(RULE_60).append(NL);
+        sb.append("GENERATED TEAMS (").append(teams.size()).append(" teams)").append(NL);
+        sb.append(RULE_60).append(NL);
+        if (targetSkill > 0) {
+            sb.append("Target Average Skill Level: ");
+            appendFixed2(sb, targetSkill);
+            sb.append(NL).append(RULE_60).append(NL);
+        }
+        if (!filter.isAll() || pageSize > 0) {
+            sb.append("Showing ");
+            if (matched == 0) {
+                sb.append("no teams");
+            } else {
+                sb.append(first + 1).append('-').append(last).append(" of ").append(matched);
+            }
+            sb.append(" (").append(filter.describe());
+            if (pageSize > 0) {
+                sb.append(", page ").append(Math.max(1, page)).append('/').append(pageCount(matched, pageSize));
+            }
+            sb.append(')').append(NL).append(RULE_60).append(NL);
+        }
+        out.append(sb);
+
+        int index = 0;
+        for (Team team : teams) {
+            if (!filter.matches(team)) continue;
+            if (index >= last) break;
+            if (index++ < first) continue;
+
+            sb.setLength(0);
+            appendTeam(sb, team);
+            sb.append(NL);
+            out.append(sb);
+        }
+        return matched;
+    }
+
+    public static int pageCount(int matched, int pageSize) {
+        return pageSize <= 0 ? 1 : Math.max(1, (matched + pageSize - 1) / pageSize);
+    }
+
+    // Full team details in the layout of the original console listing
+    public static void appendTeam(StringBuilder sb, Team team) {
+        appendHeader(sb, team);
+
+        sb.append(NL).append("Members:").append(NL);
+        List<Participant> members = team.getMembers();
+        for (int i = 0; i < members.size(); i++) {
+            Participant p = members.get(i);
+            sb.append(i + 1).append(". ").append(p.getId()).append(" - ").append(p.getName())
+                    .append(" (").append(p.getEmail()).append(") | Game: ").append(p.getPreferredGame())
+                    .append(" | Skill: ").append(p.getSkillLevel()).append(" | Role: ").append(p.getPreferredRole())
+                    .append(" | Type: ").append(p.getPersonalityType()).append(NL);
+        }
+
+        appendDistribution(sb, "Role Distribution:", team.getRoleDistribution());
+        appendDistribution(sb, "Personality Distribution:", team.getPersonalityDistribution());
+        appendDistribution(sb, "Game Distribution:", team.getGameDistribution());
+    }
+
+    // Teammate view shown to participants: no emails, IDs or personality types
+    public static void appendTeamForParticipant(StringBuilder sb, Team team) {
+        appendHeader(sb, team);
+
+        sb.append(NL).append("Your Teammates:").append(NL);
+        List<Participant> members = team.getMembers();
+        for (int i = 0; i < members.size(); i++) {
+            Participant p = members.get(i);
+            sb.append(i + 1).append(". ").append(p.getName())
+                    .append(" | Game: ").append(p.getPreferredGame())
+                    .append(" | Skill: ").append(p.getSkillLevel())
+                    .append(" | Role: ").append(p.getPreferredRole()).append(NL);
+        }
+        sb.append(RULE_50).append(NL);
+    }
+
+    private static void appendHeader(StringBuilder sb, Team team) {
+        sb.append(NL).append(RULE_50).append(NL);
+        sb.append("Team ID: ").append(team.getTeamId()).append(NL);
+        sb.append("Team Size: ").append(team.getMembers().size()).append('/').append(team.getMaxSize()).append(NL);
+        sb.append("Average Skill Level: ");
+        appendFixed2(sb, team.getAverageSkill());
+        sb.append(NL).append(RULE_50).append(NL);
+    }
+
+    private static void appendDistribution(StringBuilder sb, String title, Map<String, Integer> counts) {
+        sb.append(NL).append(title).append(NL);
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            sb.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append(NL);
+        }
+    }
+
+    // Same digits as String.format("%.2f") for the non-negative averages shown here, without a Formatter
+    public static void appendFixed2(StringBuilder sb, double value) {
+        long hundredths = Math.round(value * 100);
+        if (hundredths < 0) {
+            sb.append('-');
+            hundredths = -hundredths;
+        }
+        sb.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) sb.append('0');
+        sb.append(fraction);
+    }
+}
@@ -1,26 +1,50 @@
 package teammate.util;
 
-// Provides input validation utilities for the system
+// Provides input validation utilities for the system. The checks are hand-written scanners equivalent to the
+// original regular expressions, so bulk uploads do not compile a pattern or allocate per value
 public class ValidationUtil {
+    private static final String[] VALID_ROLES = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
 
     // Validates participant ID format (must start with 'P')
     public static boolean isValidParticipantId(String id) {
-        if (id == null || id.trim().isEmpty()) {
+        if (id == null) {
             return false;
         }
 
-        String trimmedId = id.trim();
-        return trimmedId.toLowerCase().startsWith("p") && trimmedId.length() > 1;
+        int start = trimStart(id);
+        int end = trimEnd(id);
+        return end - start > 1 && (id.charAt(start) == 'p' || id.charAt(start) == 'P');
     }
 
-    // Validates email format using regex pattern
+    // Validates email format: ^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$
     public static boolean isValidEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             return false;
         }
 
-        String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
-        return email.matches(emailRegex);
+        int at = email.indexOf('@');
+        if (at <= 0) return false;
+        for (int i = 0; i < at; i++) {
+            char c = email.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') return false;
+        }
+
+        // The domain allows dots, so the top-level part is everything after the last one
+        int lastDot = -1;
+        for (int i = at + 1; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAsciiLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot <= at + 1 || email.length() - lastDot - 1 < 2) return false;
+
+        for (int i = lastDot + 1; i < email.length(); i++) {
+            if (!isAsciiLetter(email.charAt(i))) return false;
+        }
+        return true;
     }
 
     // Validates skill level is within acceptable range (1-10)
@@ -30,8 +54,7 @@ public class ValidationUtil {
 
     // Validates role matches one of the predefined roles
     public static boolean isValidRole(String role) {
-        String[] validRoles = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
-        for (String validRole : validRoles) {
+        for (String validRole : VALID_ROLES) {
             if (validRole.equalsIgnoreCase(role)) {
                 return true;
             }
@@ -41,32 +64,65 @@ public class ValidationUtil {
 
     // Validates name contains only letters, spaces, hyphens, and apostrophes
     public static boolean isValidName(String name) {
-        if (name == null || name.trim().isEmpty()) {
+        if (name == null) {
             return false;
         }
 
-        String trimmedName = name.trim();
+        // Allows names like "Mary-Jane" or "O'Brien": ^[a-zA-Z][a-zA-Z\s'-]*[a-zA-Z]$ on the trimmed value
+        int start = trimStart(name);
+        int end = trimEnd(name);
+        if (end - start < 2) return false;
+        if (!isAsciiLetter(name.charAt(start)) || !isAsciiLetter(name.charAt(end - 1))) return false;
 
-        if (trimmedName.length() < 2) {
-            return false;
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = name.charAt(i);
+            if (!isAsciiLetter(c) && !isRegexSpace(c) && c != '\'' && c != '-') return false;
         }
-
-        // Allows names like "Mary-Jane" or "O'Brien"
-        return trimmedName.matches("^[a-zA-Z][a-zA-Z\\s'-]*[a-zA-Z]$");
+        return true;
     }
 
     // Validates game name contains only alphanumeric characters and basic punctuation
     public static boolean isValidGameName(String game) {
-        if (game == null || game.trim().isEmpty()) {
+        if (game == null) {
             return false;
         }
 
-        String trimmedGame = game.trim();
+        // ^[a-zA-Z0-9][a-zA-Z0-9\s:'-]*[a-zA-Z0-9]$ on the trimmed value
+        int start = trimStart(game);
+        int end = trimEnd(game);
+        if (end - start < 2) return false;
+        if (!isAsciiLetterOrDigit(game.charAt(start)) || !isAsciiLetterOrDigit(game.charAt(end - 1))) return false;
 
-        if (trimmedGame.length() < 2) {
-            return false;
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = game.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && !isRegexSpace(c) && c != ':' && c != '\'' && c != '-') return false;
         }
+        return true;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    // The regex \s class: space, tab, newline, vertical tab, form feed, carriage return
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    // Bounds String.trim() would keep
+    private static int trimStart(String value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) <= ' ') i++;
+        return i;
+    }
 
-        return trimmedGame.matches("^[a-zA-Z0-9][a-zA-Z0-9\\s:'-]*[a-zA-Z0-9]$");
+    private static int trimEnd(String value) {
+        int i = value.length();
+        while (i > 0 && value.charAt(i - 1) <= ' ') i--;
+        return i;
     }
-}
\ No newline at end of file
+}
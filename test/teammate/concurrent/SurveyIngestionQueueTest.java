@@ -0,0 +1,99 @@
+package teammate.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import teammate.entity.Participant;
+import teammate.exception.TeamMateException;
+import teammate.repository.Repositories;
+import teammate.service.ParticipantManager;
+import teammate.util.FileManager;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Shutdown and save failures of the batched survey queue, on the log store
+class SurveyIngestionQueueTest {
+    @TempDir
+    Path dataDir;
+
+    private String previousDataDir;
+    private String previousStorage;
+
+    @BeforeEach
+    void useTempLogStore() throws Exception {
+        previousDataDir = FileManager.getDataDirectory().getPath();
+        previousStorage = Repositories.getStorage();
+        FileManager.setDataDirectory(dataDir.toString());
+        Repositories.setStorage(Repositories.LOG);
+    }
+
+    @AfterEach
+    void restore() throws Exception {
+        Repositories.close();
+        Repositories.setStorage(previousStorage);
+        FileManager.setDataDirectory(previousDataDir);
+    }
+
+    @Test
+    void shutdownSavesEverythingItReportsRegistered() throws Exception {
+        SurveyIngestionQueue queue = new SurveyIngestionQueue(new ParticipantManager(), 65_536, 256);
+        List<CompletableFuture<SurveyIngestionQueue.Result>> futures = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            futures.add(queue.submit(participant(i)));
+        }
+
+        // Submitters racing the shutdown must still get an answer
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        List<Future<CompletableFuture<SurveyIngestionQueue.Result>>> late = new ArrayList<>();
+        for (int i = 5000; i < 6000; i++) {
+            int n = i;
+            late.add(submitters.submit(() -> queue.submit(participant(n))));
+        }
+        queue.shutdown(60_000);
+        submitters.shutdown();
+        assertTrue(submitters.awaitTermination(1, TimeUnit.MINUTES));
+        for (Future<CompletableFuture<SurveyIngestionQueue.Result>> future : late) {
+            futures.add(future.get());
+        }
+
+        int registered = 0;
+        for (CompletableFuture<SurveyIngestionQueue.Result> future : futures) {
+            assertTrue(future.isDone());
+            SurveyIngestionQueue.Status status = future.get().getStatus();
+            assertTrue(status == SurveyIngestionQueue.Status.REGISTERED || status == SurveyIngestionQueue.Status.SHUT_DOWN);
+            if (status == SurveyIngestionQueue.Status.REGISTERED) registered++;
+        }
+
+        Repositories.close();
+        assertEquals(registered, Repositories.participants().loadAll().size());
+        assertTrue(registered >= 5000);
+    }
+
+    @Test
+    void failedSaveFailsTheSubmissionsAndUndoesThem() throws Exception {
+        ParticipantManager manager = new ParticipantManager();
+        Repositories.close();
+        // The store's lock file is now a directory, so reopening it for the first save fails
+        Path lock = dataDir.resolve("participants.lock");
+        Files.deleteIfExists(lock);
+        Files.createDirectory(lock);
+
+        SurveyIngestionQueue queue = new SurveyIngestionQueue(manager, 1024, 64);
+        CompletableFuture<SurveyIngestionQueue.Result> future = queue.submit(participant(1));
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(TeamMateException.FileWriteException.class, failure.getCause());
+        assertTrue(manager.getAllParticipants().isEmpty());
+        queue.shutdown(5000);
+    }
+
+    private static Participant participant(int n) {
+        return new Participant("P" + (100_000 + n), "Player " + n, "player" + n + "@university.edu", "Chess",
+                1 + n % 10, "Attacker", 50 + n % 50, "Thinker");
+    }
+}
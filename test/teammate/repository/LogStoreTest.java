@@ -0,0 +1,237 @@
+package teammate.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Recovery of the log store: torn and damaged log tails, delete replay, checkpoints cut short by a crash
+// and channels closed by an interrupted caller
+class LogStoreTest {
+    private static final String NAME = "store";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tornTailIsTruncatedOnReopen() throws IOException {
+        long intact;
+        try (LogStore store = open()) {
+            store.put("a", bytes("1"));
+            store.put("b", bytes("2"));
+            intact = store.getLogBytes();
+        }
+
+        // A record header promising more bytes than were written, as a crash mid-append leaves it
+        append(log(0), ByteBuffer.allocate(11).putInt(100).putInt(0).put((byte) 1).array());
+
+        try (LogStore store = open()) {
+            assertEquals("1", text(store.get("a")));
+            assertEquals("2", text(store.get("b")));
+            assertEquals(intact, store.getLogBytes());
+            assertEquals(intact, Files.size(log(0)));
+            store.put("c", bytes("3"));
+        }
+        try (LogStore store = open()) {
+            assertEquals(3, store.size());
+            assertEquals("3", text(store.get("c")));
+        }
+    }
+
+    @Test
+    void recordWithBadChecksumIsDropped() throws IOException {
+        try (LogStore store = open()) {
+            store.put("a", bytes("1"));
+            store.put("b", bytes("2"));
+        }
+
+        // Flip the last value byte; the final record no longer matches its CRC
+        byte[] log = Files.readAllBytes(log(0));
+        log[log.length - 1] ^= 0x7F;
+        Files.write(log(0), log);
+
+        try (LogStore store = open()) {
+            assertEquals("1", text(store.get("a")));
+            assertNull(store.get("b"));
+            assertEquals(1, store.size());
+        }
+    }
+
+    @Test
+    void deletesAreReplayedFromLogAndCheckpoint() throws IOException {
+        try (LogStore store = open()) {
+            assertTrue(store.isNew());
+            store.put("a", bytes("1"));
+            store.put("b", bytes("2"));
+            store.put("c", bytes("3"));
+            store.write(new LogStore.Batch().delete("b").put("d", bytes("4")).delete("a"));
+        }
+
+        try (LogStore store = open()) {
+            assertFalse(store.isNew());
+            assertNull(store.get("a"));
+            assertNull(store.get("b"));
+            assertEquals("3", text(store.get("c")));
+            assertEquals("4", text(store.get("d")));
+            assertEquals(2, store.size());
+
+            store.checkpoint();
+            store.write(new LogStore.Batch().delete("c").put("e", bytes("5")));
+        }
+
+        try (LogStore store = open()) {
+            assertNull(store.get("c"));
+            assertEquals("4", text(store.get("d")));
+            assertEquals("5", text(store.get("e")));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void checkpointInterruptedBeforeRenameKeepsOldState() throws IOException {
+        try (LogStore store = open()) {
+            store.put("a", bytes("1"));
+            store.put("b", bytes("2"));
+            store.write(new LogStore.Batch().delete("b"));
+        }
+
+        // A crash before the rename leaves a partial checkpoint and the next generation's empty log
+        Files.write(dir.resolve(NAME + ".checkpoint.tmp"), bytes("partial checkpoint"));
+        Files.write(log(1), new byte[0]);
+
+        try (LogStore store = open()) {
+            assertEquals("1", text(store.get("a")));
+            assertNull(store.get("b"));
+            store.put("c", bytes("3"));
+        }
+        assertFalse(Files.exists(dir.resolve(NAME + ".checkpoint.tmp")));
+        assertFalse(Files.exists(log(1)));
+
+        try (LogStore store = open()) {
+            assertEquals("1", text(store.get("a")));
+            assertEquals("3", text(store.get("c")));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void checkpointInterruptedAfterRenameIgnoresOldLog() throws IOException {
+        try (LogStore store = open()) {
+            store.put("a", bytes("1"));
+            store.put("b", bytes("2"));
+        }
+        byte[] oldLog = Files.readAllBytes(log(0));
+
+        try (LogStore store = open()) {
+            store.checkpoint();
+            store.write(new LogStore.Batch().delete("b").put("c", bytes("3")));
+        }
+
+        // A crash after the rename but before the old log was deleted; replaying it would revive b
+        Files.write(log(0), oldLog);
+
+        try (LogStore store = open()) {
+            assertEquals("1", text(store.get("a")));
+            assertNull(store.get("b"));
+            assertEquals("3", text(store.get("c")));
+            assertEquals(2, store.size());
+        }
+        assertFalse(Files.exists(log(0)));
+    }
+
+    @Test
+    void storeReopensAfterAnInterruptedCallerClosedItsFiles() throws Exception {
+        try (LogStore store = open()) {
+            store.put("a", bytes("1"));
+            long intact = store.getLogBytes();
+
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            runInterrupted(() -> {
+                try {
+                    store.get("a");
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            assertInstanceOf(ClosedByInterruptException.class, failure.get());
+
+            // Bytes of a write that never completed, left past the last intact record
+            append(log(0), bytes("garbage"));
+
+            store.put("b", bytes("2"));
+            assertEquals("1", text(store.get("a")));
+            assertEquals("2", text(store.get("b")));
+            assertTrue(store.getLogBytes() > intact);
+            assertEquals(store.getLogBytes(), Files.size(log(0)));
+        }
+
+        try (LogStore store = open()) {
+            assertEquals("1", text(store.get("a")));
+            assertEquals("2", text(store.get("b")));
+            assertEquals(2, store.size());
+        }
+    }
+
+    @Test
+    void pendingInterruptDoesNotFailAWrite() throws Exception {
+        try (LogStore store = open()) {
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AtomicBoolean stillInterrupted = new AtomicBoolean();
+            runInterrupted(() -> {
+                try {
+                    store.put("a", bytes("1"));
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+                stillInterrupted.set(Thread.currentThread().isInterrupted());
+            });
+
+            assertNull(failure.get());
+            assertTrue(stillInterrupted.get());
+            assertEquals("1", text(store.get("a")));
+        }
+
+        try (LogStore store = open()) {
+            assertEquals("1", text(store.get("a")));
+        }
+    }
+
+    private LogStore open() throws IOException {
+        return LogStore.open(dir.toFile(), NAME);
+    }
+
+    private Path log(long generation) {
+        return dir.resolve(NAME + "." + generation + ".log");
+    }
+
+    // Runs the action on a thread whose interrupt flag is already set
+    private static void runInterrupted(Runnable action) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            Thread.currentThread().interrupt();
+            action.run();
+        });
+        thread.start();
+        thread.join();
+    }
+
+    private static void append(Path file, byte[] data) throws IOException {
+        Files.write(file, data, StandardOpenOption.APPEND);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,89 @@
+package teammate.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import teammate.concurrent.TeamFormationEngine;
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import teammate.util.FileManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Team numbering across generate, regenerate and export in a fresh data directory
+class TournamentSessionTest {
+    private static final String[] GAMES = {"Valorant", "DOTA 2", "CS:GO", "FIFA", "Chess"};
+    private static final String[] ROLES = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
+    // One valid team's worth of personality scores: a leader, two thinkers and two balanced players
+    private static final int[] SCORES = {95, 50, 80, 75, 55};
+
+    @TempDir
+    Path dataDir;
+
+    private String previousDataDir;
+
+    @BeforeEach
+    void useTempDataDirectory() {
+        previousDataDir = FileManager.getDataDirectory().getPath();
+        FileManager.setDataDirectory(dataDir.toString());
+    }
+
+    @AfterEach
+    void restoreDataDirectory() {
+        FileManager.setDataDirectory(previousDataDir);
+    }
+
+    @Test
+    void regeneratedSequentialTeamsStartAtFirstId() throws Exception {
+        assertRegenerateThenExportNumbersFromOne(participants(20), TeamFormationEngine.Mode.SEQUENTIAL);
+    }
+
+    @Test
+    void regeneratedParallelTeamsStartAtFirstId() throws Exception {
+        assertRegenerateThenExportNumbersFromOne(participants(200), TeamFormationEngine.Mode.PARALLEL);
+    }
+
+    private void assertRegenerateThenExportNumbersFromOne(List<Participant> participants,
+                                                          TeamFormationEngine.Mode mode) throws Exception {
+        TournamentSession session = new TournamentSessionManager().open("test");
+
+        assertTrue(session.generate(participants, 5, mode).getTeamsFormed() > 0);
+        int formed = session.generate(participants, 5, mode).getTeamsFormed();
+        assertTrue(formed > 0);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 1; i <= formed; i++) {
+            expected.add(Team.formatTeamId(i));
+        }
+        List<String> ids = new ArrayList<>();
+        for (Team team : session.getTeamBuilder().getTeams()) {
+            ids.add(team.getTeamId());
+        }
+        Collections.sort(ids);
+        assertEquals(expected, ids);
+
+        session.export(new File(dataDir.toFile(), "teams.csv").getPath());
+        assertEquals(formed, readTeamCounter());
+    }
+
+    private static long readTeamCounter() throws IOException {
+        return FileManager.updateTeamCounter(current -> current);
+    }
+
+    private static List<Participant> participants(int count) {
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int score = SCORES[i % SCORES.length];
+            String type = score >= 90 ? "Leader" : score >= 70 ? "Balanced" : "Thinker";
+            participants.add(new Participant(String.format("P%03d", i + 1), "Player " + (i + 1),
+                    "player" + (i + 1) + "@university.edu", GAMES[(i / 5 + i) % GAMES.length],
+                    1 + i % 10, ROLES[i % ROLES.length], score, type));
+        }
+        return participants;
+    }
+}
@@ -0,0 +1,52 @@
+package teammate.util;
+
+import org.junit.jupiter.api.Test;
+import teammate.entity.Participant;
+import teammate.entity.Team;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Rule and skill-balance guarantees of the snake draft on a large random pool
+class SnakeDraftFormationTest {
+    private static final String[] GAMES = {"Valorant", "DOTA 2", "CS:GO", "FIFA", "Chess", "Basketball"};
+    private static final String[] ROLES = {"Strategist", "Attacker", "Defender", "Supporter", "Coordinator"};
+
+    @Test
+    void everyTeamIsValidAndWithinSkillTolerance() {
+        List<Participant> participants = randomParticipants(50_000, new Random(3));
+        int totalSkill = 0;
+        for (Participant p : participants) {
+            totalSkill += p.getSkillLevel();
+        }
+
+        for (int teamSize : new int[]{4, 5, 6}) {
+            double target = (double) totalSkill / (participants.size() / teamSize * teamSize);
+            List<Team> teams = SnakeDraftFormation.formTeams(participants, teamSize);
+            assertTrue(teams.size() > participants.size() / teamSize / 2);
+
+            Set<Participant> assigned = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Team team : teams) {
+                assertTrue(TeamFormationHelper.isTeamValid(team));
+                assertEquals(teamSize, team.getMembers().size());
+                assertTrue(Math.abs(team.getAverageSkill() - target) <= 0.10 * target + 1e-9,
+                        "team average " + team.getAverageSkill() + " against target " + target);
+                for (Participant member : team.getMembers()) {
+                    assertTrue(assigned.add(member));
+                }
+            }
+        }
+    }
+
+    private static List<Participant> randomParticipants(int count, Random random) {
+        List<Participant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int score = 50 + random.nextInt(51);
+            String type = score >= 90 ? "Leader" : score >= 70 ? "Balanced" : "Thinker";
+            participants.add(new Participant(String.format("P%05d", i + 1), "Player " + (i + 1),
+                    "player" + (i + 1) + "@university.edu", GAMES[random.nextInt(GAMES.length)],
+                    1 + random.nextInt(10), ROLES[random.nextInt(ROLES.length)], score, type));
+        }
+        return participants;
+    }
+}